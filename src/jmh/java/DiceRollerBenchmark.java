@@ -0,0 +1,64 @@
+/**
+ * This program compares rolling dice with a DiceRoller against the way GreedMain used to roll them, which created a
+ * new java.util.Random for every roll and drew one nextInt for each die. "perDieRandom" is that old path,
+ * "perDieSharedRandom" keeps one Random, and the DiceRoller cases draw a whole roll from a single 64-bit value
+ * of a SplittableRandom.
+ *
+ * Run with: ./gradlew jmh -PjmhArgs='DiceRollerBenchmark'
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceRollerBenchmark {
+    private final int[] diceValues = new int[GreedManager.DICE_COUNT];
+    private Random sharedRandom;
+    private DiceRoller roller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sharedRandom = new Random(42);
+        roller = new DiceRoller(GreedRules.STANDARD, 42);
+    }
+
+    @Benchmark
+    public int[] perDieRandom() {
+        Random rand = new Random();
+        for (int i = 0; i < diceValues.length; i++) {
+            diceValues[i] = rand.nextInt(GreedManager.SIDES) + 1;
+        }
+        return diceValues;
+    }
+
+    @Benchmark
+    public int[] perDieSharedRandom() {
+        for (int i = 0; i < diceValues.length; i++) {
+            diceValues[i] = sharedRandom.nextInt(GreedManager.SIDES) + 1;
+        }
+        return diceValues;
+    }
+
+    @Benchmark
+    public int[] roll() {
+        roller.roll(diceValues);
+        return diceValues;
+    }
+
+    @Benchmark
+    public long packedRoll() {
+        return roller.nextPackedRoll();
+    }
+
+    @Benchmark
+    public int packedRollScore() {
+        return GreedManager.score(roller.nextPackedRoll());
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * This program measures the cost of the hot paths of GreedManager: scoring a single roll, scoring a whole round,
+ * retrieving the score of a player, retrieving the winners, rendering the leaderboard and writing out its top rows.
+ * Before each trial the game is played for the given number of rounds so the leaderboard is already spread out.
+ *
+ * Run with: ./gradlew jmh -PjmhArgs='GreedManagerBenchmark -p playerCount=1000,1000000'
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreedManagerBenchmark {
+    private static final int ROLL_POOL_SIZE = 1024; // Must be a power of two.
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int playerCount;
+
+    @Param({"1", "10"})
+    public int rounds;
+
+    private GreedManager game;
+    private String[] playerNames;
+    private int[][] rolls;
+    private int[][] roundRolls;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = new Random(42);
+        Set<String> names = new HashSet<>();
+        playerNames = new String[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            playerNames[i] = "player " + i;
+            names.add(playerNames[i]);
+        }
+
+        rolls = new int[ROLL_POOL_SIZE][GreedManager.DICE_COUNT];
+        for (int[] roll : rolls) {
+            for (int i = 0; i < roll.length; i++) {
+                roll[i] = rand.nextInt(GreedManager.SIDES) + 1;
+            }
+        }
+        roundRolls = new int[playerCount][];
+        for (int i = 0; i < playerCount; i++) {
+            roundRolls[i] = rolls[i & (ROLL_POOL_SIZE - 1)];
+        }
+
+        game = new GreedManager(names);
+        for (int round = 0; round < rounds; round++) {
+            Collections.shuffle(Arrays.asList(roundRolls), rand);
+            game.putRound(playerNames, roundRolls);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public void put() {
+        int i = nextPlayer();
+        game.put(playerNames[i], rolls[i & (ROLL_POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public void putRound() {
+        game.putRound(playerNames, roundRolls);
+    }
+
+    @Benchmark
+    public int get() {
+        return game.get(playerNames[nextPlayer()]);
+    }
+
+    @Benchmark
+    public int score() {
+        return GreedManager.score(rolls[nextPlayer() & (ROLL_POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public List<String> getWinners() {
+        return game.getWinners();
+    }
+
+    @Benchmark
+    public String getLeadboard() {
+        return game.getLeadboard();
+    }
+
+    @Benchmark
+    public List<String> getTop10() {
+        return game.getTopPlayers(10);
+    }
+
+    @Benchmark
+    public List<String> putThenGetTop10() {
+        int i = nextPlayer();
+        game.put(playerNames[i], rolls[i & (ROLL_POOL_SIZE - 1)]);
+        return game.getTopPlayers(10);
+    }
+
+    @Benchmark
+    public StringBuilder writeTop50() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        game.writeLeaderboard(sb, 50);
+        return sb;
+    }
+
+    /**
+     * Returns the index of the next player, wrapping around to the first player after the last one.
+     */
+    private int nextPlayer() {
+        int i = next;
+        next = i + 1 == playerCount ? 0 : i + 1;
+        return i;
+    }
+}
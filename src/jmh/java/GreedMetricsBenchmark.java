@@ -0,0 +1,76 @@
+/**
+ * This program measures what GreedMetrics costs on the hot paths of GreedManager. With metrics "off" the game has
+ * no GreedMetrics at all, so the difference to GreedManagerBenchmark should be within noise, and "on" shows the
+ * cost of the counters, the clock reads and the histograms.
+ *
+ * Run with: ./gradlew jmh -PjmhArgs='GreedMetricsBenchmark'
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreedMetricsBenchmark {
+    private static final int ROLL_POOL_SIZE = 1024; // Must be a power of two.
+
+    @Param({"off", "on"})
+    public String metrics;
+
+    @Param({"1000", "100000"})
+    public int playerCount;
+
+    private GreedManager game;
+    private String[] playerNames;
+    private int[][] rolls;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = new Random(42);
+        Set<String> names = new HashSet<>();
+        playerNames = new String[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            playerNames[i] = "player " + i;
+            names.add(playerNames[i]);
+        }
+        rolls = new int[ROLL_POOL_SIZE][GreedManager.DICE_COUNT];
+        for (int[] roll : rolls) {
+            for (int i = 0; i < roll.length; i++) {
+                roll[i] = rand.nextInt(GreedManager.SIDES) + 1;
+            }
+        }
+
+        game = new GreedManager(names);
+        if (metrics.equals("on")) {
+            game.setMetrics(new GreedMetrics());
+        }
+        for (int i = 0; i < playerCount; i++) {
+            game.put(playerNames[i], rolls[i & (ROLL_POOL_SIZE - 1)]);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public void put() {
+        int i = next;
+        next = i + 1 == playerCount ? 0 : i + 1;
+        game.put(playerNames[i], rolls[i & (ROLL_POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int getHighestScore() {
+        return game.getHighestScore();
+    }
+
+    @Benchmark
+    public String getLeadboard() {
+        return game.getLeadboard();
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * This program compares scoring with configurable GreedRules against the standard rules GreedManager uses by
+ * default. "standard" goes through the static GreedManager.score, "5d6" compiles the same rules again at runtime,
+ * "6d6" and "5d8" are variants which are still scored from a table, and "11d6" has too many rolls for a table and
+ * is scored by counting faces.
+ *
+ * Run with: ./gradlew jmh -PjmhArgs='GreedRulesBenchmark'
+ */
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreedRulesBenchmark {
+    private static final int ROLL_POOL_SIZE = 1024; // Must be a power of two.
+    private static final int PLAYER_COUNT = 1000;
+
+    @Param({"standard", "5d6", "6d6", "5d8", "11d6"})
+    public String ruleset;
+
+    private GreedRules rules;
+    private boolean standard;
+    private GreedManager game;
+    private String[] playerNames;
+    private int[][] rolls;
+    private long[] packedRolls;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        standard = ruleset.equals("standard");
+        rules = standard ? GreedRules.STANDARD : parseRules(ruleset);
+
+        Random rand = new Random(42);
+        rolls = new int[ROLL_POOL_SIZE][rules.getDiceCount()];
+        packedRolls = new long[ROLL_POOL_SIZE];
+        for (int i = 0; i < ROLL_POOL_SIZE; i++) {
+            for (int j = 0; j < rolls[i].length; j++) {
+                rolls[i][j] = rand.nextInt(rules.getSides()) + 1;
+            }
+            packedRolls[i] = rules.pack(rolls[i]);
+        }
+
+        Set<String> names = new HashSet<>();
+        playerNames = new String[PLAYER_COUNT];
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            playerNames[i] = "player " + i;
+            names.add(playerNames[i]);
+        }
+        game = standard ? new GreedManager(names) : new GreedManager(names, rules);
+        next = 0;
+    }
+
+    @Benchmark
+    public int score() {
+        int[] roll = rolls[nextRoll()];
+        return standard ? GreedManager.score(roll) : rules.score(roll);
+    }
+
+    @Benchmark
+    public int scorePacked() {
+        long packedRoll = packedRolls[nextRoll()];
+        return standard ? GreedManager.score(packedRoll) : rules.score(packedRoll);
+    }
+
+    @Benchmark
+    public void put() {
+        int i = nextRoll();
+        game.put(playerNames[i % PLAYER_COUNT], rolls[i]);
+    }
+
+    /**
+     * Returns the index of the next roll in the pool.
+     */
+    private int nextRoll() {
+        int i = next;
+        next = (i + 1) & (ROLL_POOL_SIZE - 1);
+        return i;
+    }
+
+    /**
+     * Returns rules with the standard scores for a ruleset named like "6d8": 6 dice with 8 sides. Faces above 6
+     * score 100 times the face for a triple.
+     */
+    private static GreedRules parseRules(String ruleset) {
+        int diceCount = Integer.parseInt(ruleset.substring(0, ruleset.indexOf('d')));
+        int sides = Integer.parseInt(ruleset.substring(ruleset.indexOf('d') + 1));
+        int[] tripleScores = new int[sides];
+        int[] singleScores = new int[sides];
+        for (int face = 1; face <= sides; face++) {
+            tripleScores[face - 1] = face == 1 ? 1000 : 100 * face;
+        }
+        singleScores[0] = 100;
+        singleScores[4] = 50;
+        return new GreedRules(diceCount, sides, tripleScores, singleScores);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * This program measures how long GreedMain takes to score a small file of rolls from launch to exit, which for the
+ * short scoring jobs is mostly the startup of the JVM. JMH measures inside a running JVM, so every run here is a new
+ * process instead. "jar" launches the plain jar, "jar + AppCDS" adds the archive made by ./gradlew cdsArchive, and
+ * "native image" launches the executable made by ./gradlew nativeImage when it exists. Each configuration is
+ * launched a few times first to warm up the file system cache.
+ *
+ * Run with: ./gradlew startupBenchmark -PstartupRuns=50
+ * Usage: java StartupBenchmark jar rolls [archive] [native image] [runs]
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+public class StartupBenchmark {
+    private static final int WARMUP_RUNS = 3;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: java StartupBenchmark jar rolls [archive] [native image] [runs]");
+            return;
+        }
+        String jar = args[0];
+        String rolls = args[1];
+        int runs = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("jar", List.of(java, "-Xshare:auto", "-cp", jar, "GreedMain", rolls));
+        if (args.length > 2 && new File(args[2]).isFile()) {
+            configurations.put("jar + AppCDS", List.of(java, "-XX:SharedArchiveFile=" + args[2], "-Xshare:auto",
+                    "-cp", jar, "GreedMain", rolls));
+        }
+        if (args.length > 3 && new File(args[3]).canExecute()) {
+            configurations.put("native image", List.of(args[3], rolls));
+        }
+
+        System.out.println("Launching GreedMain " + runs + " times per configuration");
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                launch(configuration.getValue());
+            }
+            long[] nanos = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                nanos[i] = launch(configuration.getValue());
+            }
+            Arrays.sort(nanos);
+            double mean = Arrays.stream(nanos).average().orElse(0);
+            System.out.println(String.format("%-14s min: %6.1f ms, p50: %6.1f ms, mean: %6.1f ms",
+                    configuration.getKey(), nanos[0] / 1e6, nanos[runs / 2] / 1e6, mean / 1e6));
+        }
+    }
+
+    /**
+     * Runs the given command to completion and returns how long it took in nanoseconds.
+     * @param command - the command to run.
+     * @return - the time from starting the command to its exit in nanoseconds.
+     * @throws IllegalStateException if the command does not exit with 0.
+     */
+    private static long launch(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        long start = System.nanoTime();
+        int exitCode = builder.start().waitFor();
+        long nanos = System.nanoTime() - start;
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + exitCode + "!");
+        }
+        return nanos;
+    }
+}
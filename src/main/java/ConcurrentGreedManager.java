@@ -0,0 +1,413 @@
+/**
+ * ConcurrentGreedManager manages a game of Greed that many threads can play at the same time.
+ * It provides the same features as GreedManager, but puts for different players can proceed in parallel
+ * and the leaderboard can be read while other threads are still putting.
+ *
+ * Every player is given an id when the game is created (their position when the names are sorted), and their
+ * score lives in a plain int array. The ids are split into stripes, each guarded by its own lock, so two puts only
+ * wait for each other when their players share a stripe.
+ *
+ * The leaderboard, the winners and the ranks are all read from a Snapshot, which is a consistent view of the game:
+ * every put is either fully in it or not in it at all. The stripes are StampedLocks, so a Snapshot first copies the
+ * scores without taking any lock and keeps the copy if no stripe was written to while it was being made. Only when
+ * writers keep getting in the way does it hold every stripe, and then just long enough to copy the scores. Sorting
+ * always happens after the copy, without any lock held, and the latest Snapshot is reused until a score changes.
+ */
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+
+public class ConcurrentGreedManager {
+    private static final int OPTIMISTIC_COPIES = 3; // Lock-free copies tried before a Snapshot locks every stripe.
+
+    private final Set<String> playerNames;
+    private final Map<String, Integer> ids;
+    private final String[] names;
+    private final int[] scores;
+    private final StampedLock[] stripes;
+
+    private volatile boolean changed;
+    private volatile long copies; // The number of copies taken for a Snapshot, only changed while holding this.
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Initializes a ConcurrentGreedManager object. The scores of each player in the given set of player name will be
+     * set to 0 initially.
+     *
+     * @param playerNames - the set of player names who will be playing in the game of Greed.
+     */
+    public ConcurrentGreedManager(Set<String> playerNames) {
+        this(playerNames, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a ConcurrentGreedManager object which splits its players over the given number of stripes.
+     * The scores of each player in the given set of player name will be set to 0 initially.
+     *
+     * @param playerNames - the set of player names who will be playing in the game of Greed.
+     * @param stripeCount - the number of locks the players are split over.
+     * @throws IllegalArgumentException if there are fewer than 2 players or stripeCount is not positive.
+     */
+    public ConcurrentGreedManager(Set<String> playerNames, int stripeCount) {
+        if (playerNames.size() < 2) {
+            throw new IllegalArgumentException("Greed can only be played with 2 or more players!");
+        } else if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Given stripeCount must be positive!");
+        }
+
+        this.playerNames = Collections.unmodifiableSet(new HashSet<>(playerNames));
+        names = playerNames.toArray(new String[0]);
+        Arrays.sort(names);
+        ids = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            ids.put(names[id], id);
+        }
+        scores = new int[names.length];
+        stripes = new StampedLock[Math.min(stripeCount, names.length)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StampedLock();
+        }
+        changed = true;
+    }
+
+    /**
+     * Updates the score of the given player using the given diceValues. This may be called from many threads
+     * at once.
+     *
+     * @param playerName - the name of the given player.
+     * @param diceValues - the dice values which the player rolled.
+     * @throws IllegalArgumentException if the given playerName does not exist in the game.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice the players
+     * are using.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     * @throws IllegalArgumentException if the roll would take the player past the highest score an int can hold.
+     */
+    public void put(String playerName, int[] diceValues) {
+        Integer id = ids.get(playerName);
+        if (id == null) {
+            throw new IllegalArgumentException("Given player does not exist in the game!");
+        }
+        int score = GreedManager.score(diceValues);
+        if (score == 0) {
+            return;
+        }
+
+        StampedLock stripe = stripes[id % stripes.length];
+        long stamp = stripe.writeLock();
+        try {
+            if (scores[id] > Integer.MAX_VALUE - score) {
+                throw new IllegalArgumentException("Given rolls would take the score of a player past the highest"
+                        + " score the game can hold!");
+            }
+            scores[id] += score;
+            if (!changed) {
+                changed = true;
+            }
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the score of the given player if they exist within the game.
+     * Otherwise, the player does not exist in the game, so return -1.
+     * @param playerName - the name of the given player.
+     * @return the score of the given player if they exist within the game. Otherwise, return -1.
+     */
+    public int get(String playerName) {
+        Integer id = ids.get(playerName);
+        if (id == null) {
+            return -1;
+        }
+        StampedLock stripe = stripes[id % stripes.length];
+        long stamp = stripe.tryOptimisticRead();
+        int score = scores[id];
+        if (stripe.validate(stamp)) {
+            return score;
+        }
+        stamp = stripe.readLock();
+        try {
+            return scores[id];
+        } finally {
+            stripe.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the list of players who have the highest scores in the game.
+     * @return - the list of players who have the highest scores in the game.
+     */
+    public List<String> getWinners() {
+        return getSnapshot().getWinners();
+    }
+
+    /**
+     * Returns a String representation of the leaderboard in the same format as GreedManager.getLeadboard().
+     * @return - a String represented of the leaderboard.
+     */
+    public String getLeadboard() {
+        return getSnapshot().getLeadboard();
+    }
+
+    /**
+     * Returns the set of player names who are currently in the game.
+     * @return the set of player names who are currently in the game.
+     */
+    public Set<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Returns the number of players in the game.
+     * @return - the number of players in the game.
+     */
+    public int getPlayerCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns true if playerName exists within the game. Otherwise, return false.
+     * @param playerName - the name of the given player.
+     * @return - true if playerName exists within the game. Otherwise, return false.
+     */
+    public boolean isValidPlayer(String playerName) {
+        return ids.containsKey(playerName);
+    }
+
+    /**
+     * Resets game by resetting the scores of each player down to zero.
+     */
+    public void resetGame() {
+        long[] stamps = lockAll(true);
+        try {
+            Arrays.fill(scores, 0);
+            changed = true;
+        } finally {
+            unlockAll(stamps);
+        }
+    }
+
+    /**
+     * Returns a consistent Snapshot of the game. The same Snapshot is returned until a score changes.
+     * @return - a consistent Snapshot of the game.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current != null && !changed && current.copy == copies) {
+            return current;
+        }
+
+        // Copies are numbered while holding this monitor, which writers never take, so a Snapshot sorted after
+        // a newer one can never replace it. Readers only wait here for each other's copy, never for a sort.
+        int[] copy;
+        long number;
+        synchronized (this) {
+            current = snapshot.get();
+            if (current != null && !changed && current.copy == copies) {
+                return current;
+            }
+            changed = false;
+            copy = copyScores();
+            number = ++copies;
+        }
+        Snapshot next = new Snapshot(names, copy, number);
+        while (true) {
+            current = snapshot.get();
+            if (current != null && current.copy > number) {
+                return current;
+            } else if (snapshot.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of every score as it was at one moment in time. The copy is first made without any lock and
+     * kept if no stripe was written to from before the copy started until after it finished. Otherwise, every
+     * stripe is read locked while the scores are copied.
+     * @return - a consistent copy of every score.
+     */
+    private int[] copyScores() {
+        long[] stamps = new long[stripes.length];
+        for (int attempt = 0; attempt < OPTIMISTIC_COPIES; attempt++) {
+            boolean unlocked = true;
+            for (int i = 0; i < stripes.length && unlocked; i++) {
+                stamps[i] = stripes[i].tryOptimisticRead();
+                unlocked = stamps[i] != 0;
+            }
+            if (!unlocked) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int[] copy = scores.clone();
+            boolean valid = true;
+            for (int i = 0; i < stripes.length && valid; i++) {
+                valid = stripes[i].validate(stamps[i]);
+            }
+            if (valid) {
+                return copy;
+            }
+        }
+
+        stamps = lockAll(false);
+        try {
+            return scores.clone();
+        } finally {
+            unlockAll(stamps);
+        }
+    }
+
+    /**
+     * Acquires every stripe lock, always in the same order so two threads can never deadlock.
+     * @param write - true to acquire the write locks. Otherwise, acquire the read locks.
+     * @return - the stamp of every stripe lock.
+     */
+    private long[] lockAll(boolean write) {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = write ? stripes[i].writeLock() : stripes[i].readLock();
+        }
+        return stamps;
+    }
+
+    /**
+     * Releases every stripe lock.
+     * @param stamps - the stamps returned by lockAll.
+     */
+    private void unlockAll(long[] stamps) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock(stamps[i]);
+        }
+    }
+
+    /**
+     * Class which stores an immutable, sorted copy of the leaderboard at one moment in time.
+     * Players are ordered the same way as GreedManager orders them: highest score first and
+     * lexicographically smaller names first when scores are tied.
+     */
+    public static class Snapshot {
+        private final String[] names;
+        private final int[] scores;
+        private final int[] order;
+        private final int[] ranks;
+        private final long copy;
+
+        /**
+         * Constructs a new Snapshot from the given names and scores.
+         * @param names - the names of every player, sorted lexicographically.
+         * @param scores - the score of the player with the same index in names.
+         * @param copy - the number of the copy the scores were taken from.
+         */
+        private Snapshot(String[] names, int[] scores, long copy) {
+            this.names = names;
+            this.scores = scores;
+            this.copy = copy;
+
+            // Sorting one long per player keeps this to primitives: the high half orders by score
+            // from highest to lowest and the low half breaks ties by id, which is the name order.
+            long[] keys = new long[scores.length];
+            for (int id = 0; id < scores.length; id++) {
+                keys[id] = (-(long) scores[id] << 32) | id;
+            }
+            Arrays.parallelSort(keys);
+            order = new int[keys.length];
+            ranks = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[i] = (int) keys[i];
+                ranks[order[i]] = i;
+            }
+        }
+
+        /**
+         * Returns the number of players in this Snapshot.
+         * @return - the number of players in this Snapshot.
+         */
+        public int size() {
+            return order.length;
+        }
+
+        /**
+         * Returns the name of the player at the given 0-based position on the leaderboard.
+         * @param index - the position on the leaderboard.
+         * @return - the name of the player at the given position.
+         */
+        public String getName(int index) {
+            return names[order[index]];
+        }
+
+        /**
+         * Returns the score of the player at the given 0-based position on the leaderboard.
+         * @param index - the position on the leaderboard.
+         * @return - the score of the player at the given position.
+         */
+        public int getScore(int index) {
+            return scores[order[index]];
+        }
+
+        /**
+         * Returns the score of the given player, or -1 if they are not in the game.
+         * @param playerName - the name of the given player.
+         * @return - the score of the given player, or -1 if they are not in the game.
+         */
+        public int get(String playerName) {
+            int id = Arrays.binarySearch(names, playerName);
+            return id < 0 ? -1 : scores[id];
+        }
+
+        /**
+         * Returns the rank of the given player where the player at the top of the leaderboard has a rank of 1,
+         * or -1 if they are not in the game.
+         * @param playerName - the name of the given player.
+         * @return - the rank of the given player, or -1 if they are not in the game.
+         */
+        public int getRank(String playerName) {
+            int id = Arrays.binarySearch(names, playerName);
+            return id < 0 ? -1 : ranks[id] + 1;
+        }
+
+        /**
+         * Returns the names of the k players at the top of the leaderboard.
+         * @param k - the number of players to return.
+         * @return - the names of the k players at the top of the leaderboard.
+         */
+        public List<String> getTopPlayers(int k) {
+            if (k < 0) {
+                throw new IllegalArgumentException("Given k must not be negative!");
+            }
+            List<String> topPlayers = new ArrayList<>(Math.min(k, order.length));
+            for (int i = 0; i < k && i < order.length; i++) {
+                topPlayers.add(getName(i));
+            }
+            return topPlayers;
+        }
+
+        /**
+         * Returns the list of players who have the highest scores in this Snapshot.
+         * @return - the list of players who have the highest scores in this Snapshot.
+         */
+        public List<String> getWinners() {
+            List<String> winners = new ArrayList<>();
+            int highestScore = getScore(0);
+            for (int i = 0; i < order.length && getScore(i) == highestScore; i++) {
+                winners.add(getName(i));
+            }
+            return winners;
+        }
+
+        /**
+         * Returns a String representation of the leaderboard in the same format as GreedManager.getLeadboard().
+         * @return - a String representation of the leaderboard.
+         */
+        public String getLeadboard() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < order.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(getName(i)).append(" (").append(getScore(i)).append(")");
+            }
+            return sb.append("]").toString();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * DiceRoller rolls every die of a game of Greed at once.
+ * DiceRoller will provide the following features:
+ * - Rolling a whole roll as a single packed roll, which can be scored straight away with GreedRules.score(long).
+ * - Rolling a whole roll into an array of dice values which the caller provides.
+ * - Reproducing the exact same rolls from the same seed.
+ * - Drawing from any generator of 64-bit values, such as a java.util.random.RandomGenerator on Java 17 and later
+ *   (new DiceRoller(rules, RandomGenerator.of("Xoshiro256PlusPlus")::nextLong)).
+ *
+ * A roll is a packed roll between 0 and the number of distinct rolls of the rules, which is the same as rolling
+ * each die separately. It is taken from one 64-bit draw: each 32-bit half is multiplied by the number of rolls and
+ * the high 32 bits of the product are the packed roll (Lemire's method). A draw whose low 32 bits fall in the small
+ * biased range is rejected, so every roll is exactly as likely as every other, and nothing is allocated per roll.
+ * DiceRoller is not thread-safe; each thread should use its own DiceRoller.
+ */
+
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+public class DiceRoller {
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private final GreedRules rules;
+    private final LongSupplier generator;
+    private final long rollCount;
+    private final long threshold; // Products whose low 32 bits are below this value are rejected.
+
+    /**
+     * Initializes a DiceRoller for the standard rules with a random seed.
+     */
+    public DiceRoller() {
+        this(GreedRules.STANDARD, new SplittableRandom()::nextLong);
+    }
+
+    /**
+     * Initializes a DiceRoller for the given rules which draws from a SplittableRandom with the given seed, so the
+     * same seed always gives the same rolls.
+     * @param rules - the rules the dice are rolled for.
+     * @param seed - the seed of the rolls.
+     */
+    public DiceRoller(GreedRules rules, long seed) {
+        this(rules, new SplittableRandom(seed)::nextLong);
+    }
+
+    /**
+     * Initializes a DiceRoller for the given rules which draws from the given generator of 64-bit values.
+     * Every bit of each value must be random.
+     * @param rules - the rules the dice are rolled for.
+     * @param generator - the generator of 64-bit values.
+     */
+    public DiceRoller(GreedRules rules, LongSupplier generator) {
+        this.rules = rules;
+        this.generator = generator;
+        rollCount = rules.getRollCount();
+        threshold = (1L << 32) % rollCount;
+    }
+
+    /**
+     * Rolls every die and returns the roll packed the same way as GreedRules.pack.
+     * @return - a packed roll between 0 (inclusive) and the number of distinct rolls (exclusive).
+     */
+    public long nextPackedRoll() {
+        while (true) {
+            long draw = generator.getAsLong();
+            long product = (draw & LOW_BITS) * rollCount;
+            if ((product & LOW_BITS) >= threshold) {
+                return product >>> 32;
+            }
+            product = (draw >>> 32) * rollCount;
+            if ((product & LOW_BITS) >= threshold) {
+                return product >>> 32;
+            }
+        }
+    }
+
+    /**
+     * Rolls every die and writes the dice values into the given array.
+     * @param diceValues - the array the dice values are written into.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice.
+     */
+    public void roll(int[] diceValues) {
+        if (diceValues.length != rules.getDiceCount()) {
+            throw new IllegalArgumentException("Given diceValues does not hold the correct amount of dices!");
+        }
+        // Every packed roll fits in an int, and int division is much cheaper than the long division of unpack.
+        int packedRoll = (int) nextPackedRoll();
+        int sides = rules.getSides();
+        for (int i = diceValues.length - 1; i >= 0; i--) {
+            diceValues[i] = packedRoll % sides + 1;
+            packedRoll /= sides;
+        }
+    }
+
+    /**
+     * Returns the rules the dice are rolled for.
+     * @return - the rules the dice are rolled for.
+     */
+    public GreedRules getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * GameHost manages a large number of small games of Greed which are all played with the same rules.
+ * GameHost will provide the following features:
+ * - Creating a game for a set of players, which is identified by an int id.
+ * - Updating, retrieving and resetting the scores of a game.
+ * - Retrieving the winners and the leaderboard of a game.
+ * - Removing a game once it is over.
+ *
+ * Every player name is stored once in a PlayerRegistry which all games share, and a game is a single int array:
+ * the registry ids of its players in name order, followed by their scores. An idle game with four players
+ * therefore costs one 48 byte array plus its slot in the host, instead of the maps, trees and buckets a
+ * GreedManager keeps. Resetting a game clears its scores in place, and the array of a removed game is kept in a
+ * pool and handed to the next game with the same number of players. The ids of removed games are reused as well.
+ *
+ * Small games are scanned instead of indexed: finding a player is a scan over the player ids and the leaderboard
+ * is sorted when it is asked for. Games with many players should use GreedManager instead.
+ * GameHost is not thread-safe.
+ */
+
+import java.util.*;
+
+public class GameHost {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_POOLED_GAMES = 1024; // Largest number of pooled arrays for each player count.
+
+    private final GreedRules rules;
+    private final PlayerRegistry registry;
+    private int[][] games; // games[gameId] holds the player ids followed by the scores, or null if the id is free.
+    private int[] freeGameIds;
+    private int freeGameCount;
+    private int nextGameId;
+    private final List<ArrayDeque<int[]>> pool; // pool.get(n) holds unused arrays for n players.
+
+    /**
+     * Initializes an empty GameHost whose games are played with the standard rules.
+     */
+    public GameHost() {
+        this(GreedRules.STANDARD);
+    }
+
+    /**
+     * Initializes an empty GameHost whose games are played with the given rules.
+     * @param rules - the rules every game is played with.
+     */
+    public GameHost(GreedRules rules) {
+        this.rules = rules;
+        registry = new PlayerRegistry();
+        games = new int[INITIAL_CAPACITY][];
+        freeGameIds = new int[INITIAL_CAPACITY];
+        pool = new ArrayList<>();
+    }
+
+    /**
+     * Creates a new game where the score of every given player is 0.
+     * @param playerNames - the set of player names who will be playing in the game.
+     * @return - the id of the new game.
+     * @throws IllegalArgumentException if there are fewer than 2 players.
+     */
+    public int createGame(Set<String> playerNames) {
+        if (playerNames.size() < 2) {
+            throw new IllegalArgumentException("Greed can only be played with 2 or more players!");
+        }
+        String[] names = playerNames.toArray(new String[0]);
+        Arrays.sort(names);
+        int[] game = takeFromPool(names.length);
+        for (int i = 0; i < names.length; i++) {
+            game[i] = registry.acquire(names[i]);
+        }
+
+        int gameId = freeGameCount > 0 ? freeGameIds[--freeGameCount] : nextGameId++;
+        if (gameId >= games.length) {
+            games = Arrays.copyOf(games, games.length * 2);
+        }
+        games[gameId] = game;
+        return gameId;
+    }
+
+    /**
+     * Removes the given game. Its id may be given to a game which is created later.
+     * @param gameId - the id of the game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public void removeGame(int gameId) {
+        int[] game = gameOf(gameId);
+        int playerCount = game.length / 2;
+        for (int i = 0; i < playerCount; i++) {
+            registry.release(game[i]);
+        }
+        games[gameId] = null;
+        if (freeGameCount == freeGameIds.length) {
+            freeGameIds = Arrays.copyOf(freeGameIds, freeGameIds.length * 2);
+        }
+        freeGameIds[freeGameCount++] = gameId;
+        returnToPool(game);
+    }
+
+    /**
+     * Resets the given game by setting the score of every player back to 0.
+     * @param gameId - the id of the game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public void resetGame(int gameId) {
+        int[] game = gameOf(gameId);
+        Arrays.fill(game, game.length / 2, game.length, 0);
+    }
+
+    /**
+     * Updates the score of the given player in the given game using the given diceValues.
+     *
+     * @param gameId - the id of the game.
+     * @param playerName - the name of the player.
+     * @param diceValues - the dice values which the player rolled.
+     * @throws IllegalArgumentException if the game does not exist or the player is not in the game.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     */
+    public void put(int gameId, String playerName, int[] diceValues) {
+        int[] game = gameOf(gameId);
+        int index = indexOf(game, playerName);
+        if (index < 0) {
+            throw new IllegalArgumentException("Given player does not exist in the game!");
+        }
+        game[game.length / 2 + index] += rules.score(diceValues);
+    }
+
+    /**
+     * Returns the score of the given player in the given game, or -1 if the player is not in the game.
+     * @param gameId - the id of the game.
+     * @param playerName - the name of the player.
+     * @return - the score of the given player, or -1 if the player is not in the game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public int get(int gameId, String playerName) {
+        int[] game = gameOf(gameId);
+        int index = indexOf(game, playerName);
+        return index < 0 ? -1 : game[game.length / 2 + index];
+    }
+
+    /**
+     * Returns the players who have the highest score in the given game, in name order.
+     * @param gameId - the id of the game.
+     * @return - the players who have the highest score in the given game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public List<String> getWinners(int gameId) {
+        int[] game = gameOf(gameId);
+        int playerCount = game.length / 2;
+        int highestScore = 0;
+        for (int i = 0; i < playerCount; i++) {
+            highestScore = Math.max(highestScore, game[playerCount + i]);
+        }
+        List<String> winners = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            if (game[playerCount + i] == highestScore) {
+                winners.add(registry.nameOf(game[i]));
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Returns a String representation of the leaderboard of the given game, in the same format as
+     * GreedManager.getLeadboard: "[playerOne (highScore), playerTwo (lowerScore)]".
+     * @param gameId - the id of the game.
+     * @return - a String representation of the leaderboard of the given game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public String getLeadboard(int gameId) {
+        int[] game = gameOf(gameId);
+        int playerCount = game.length / 2;
+        // The high half orders by score from highest to lowest and the low half breaks ties by name order.
+        long[] keys = new long[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            keys[i] = (-(long) game[playerCount + i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < playerCount; i++) {
+            int index = (int) keys[i];
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(registry.nameOf(game[index])).append(" (").append(game[playerCount + index]).append(")");
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Returns the names of the players in the given game, in name order.
+     * @param gameId - the id of the game.
+     * @return - the names of the players in the given game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    public List<String> getPlayerNames(int gameId) {
+        int[] game = gameOf(gameId);
+        List<String> playerNames = new ArrayList<>(game.length / 2);
+        for (int i = 0; i < game.length / 2; i++) {
+            playerNames.add(registry.nameOf(game[i]));
+        }
+        return playerNames;
+    }
+
+    /**
+     * Returns true if the given game exists. Otherwise, return false.
+     * @param gameId - the id of the game.
+     * @return - true if the given game exists. Otherwise, return false.
+     */
+    public boolean hasGame(int gameId) {
+        return gameId >= 0 && gameId < nextGameId && games[gameId] != null;
+    }
+
+    /**
+     * Returns the number of games being hosted.
+     * @return - the number of games being hosted.
+     */
+    public int getGameCount() {
+        return nextGameId - freeGameCount;
+    }
+
+    /**
+     * Returns the registry which holds the name of every player in every game.
+     * @return - the registry which holds the name of every player in every game.
+     */
+    public PlayerRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the rules every game is played with.
+     * @return - the rules every game is played with.
+     */
+    public GreedRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the array of the given game.
+     * @throws IllegalArgumentException if the game does not exist.
+     */
+    private int[] gameOf(int gameId) {
+        if (!hasGame(gameId)) {
+            throw new IllegalArgumentException("Given game does not exist!");
+        }
+        return games[gameId];
+    }
+
+    /**
+     * Returns the index of the given player within the given game, or -1 if they are not in the game.
+     */
+    private int indexOf(int[] game, String playerName) {
+        int id = registry.idOf(playerName);
+        if (id < 0) {
+            return -1;
+        }
+        for (int i = 0; i < game.length / 2; i++) {
+            if (game[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a pooled array for the given number of players with every score at 0, or a new one if there is none.
+     */
+    private int[] takeFromPool(int playerCount) {
+        if (playerCount < pool.size()) {
+            int[] game = pool.get(playerCount).poll();
+            if (game != null) {
+                return game;
+            }
+        }
+        return new int[playerCount * 2];
+    }
+
+    /**
+     * Clears the scores of the given array and keeps it for the next game with the same number of players.
+     */
+    private void returnToPool(int[] game) {
+        int playerCount = game.length / 2;
+        while (pool.size() <= playerCount) {
+            pool.add(new ArrayDeque<>());
+        }
+        ArrayDeque<int[]> arrays = pool.get(playerCount);
+        if (arrays.size() < MAX_POOLED_GAMES) {
+            Arrays.fill(game, playerCount, game.length, 0);
+            arrays.push(game);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/**
+ * GreedEventLog is an append-only binary file which records every put of a GreedManager, so a long game can be
+ * recovered after a crash by replaying the file.
+ *
+ * The file starts with a header which holds the rules of the game and the names of every player in the order of
+ * their ids:
+ *   magic (int), version (short), the rules as written by GreedRules, player count (int),
+ *   then for each player the length of their UTF-8 name (short) followed by the name.
+ * Every event after the header is 8 bytes:
+ *   player id (int), packed roll (unsigned short), score of the roll (unsigned short).
+ * A reset of the game is recorded as an event with a player id of -1. Only rules with at most 65536 distinct rolls
+ * whose scores fit in an unsigned short can be logged.
+ *
+ * Events are collected in a buffer and written through a FileChannel when the buffer fills up. The file is forced
+ * to disk (fsync) once every syncInterval events, so many puts share a single fsync, and whenever sync() or close()
+ * is called. If the process dies in the middle of an event, the incomplete event is ignored by replay and cut off
+ * the next time the log is opened.
+ *
+ * replay memory-maps the file and adds up the events straight into an array of scores, so the leaderboard is only
+ * built once at the end instead of after every event.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class GreedEventLog implements Closeable {
+    public static final int MAGIC = 0x47524C47; // "GRLG"
+    public static final short VERSION = 2;
+    public static final int EVENT_SIZE = 8; // Number of bytes in a single event.
+
+    private static final int RESET = -1; // Player id of an event which resets the game.
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_WINDOW = 1L << 30; // Largest number of bytes mapped at a time.
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final GreedRules rules;
+    private final String[] names;
+    private final int syncInterval;
+    private int unsynced; // Number of events appended since the last fsync.
+
+    /**
+     * Opens the event log at the given path for the players of the given game. If the file does not exist or is
+     * empty, a new log is started. Otherwise new events are appended after the events already in the file.
+     *
+     * @param path - the path of the log file.
+     * @param game - the game whose puts will be recorded.
+     * @param syncInterval - the number of events between two fsyncs, or 0 to only fsync on sync() and close().
+     * @throws IOException if the file cannot be opened, or it is a log for a different set of players.
+     * @throws IllegalArgumentException if syncInterval is negative, or the rolls of the game cannot be logged.
+     */
+    public GreedEventLog(Path path, GreedManager game, int syncInterval) throws IOException {
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException("Given syncInterval must not be negative!");
+        } else if (game.getRules().getRollCount() > 0x10000 || game.getRules().getMaxRollScore() > 0xFFFF) {
+            throw new IllegalArgumentException("Rolls of the given game are too large to be logged!");
+        }
+        this.rules = game.getRules();
+        this.names = game.getPlayerNamesById();
+        this.syncInterval = syncInterval;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader();
+            } else {
+                openExisting();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds a game from the event log at the given path, starting with every score at 0.
+     *
+     * @param path - the path of the log file.
+     * @return - a GreedManager whose scores are the result of every event in the log.
+     * @throws IOException if the file cannot be read or is not a valid event log.
+     */
+    public static GreedManager replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            // The names in the header are already sorted, so keeping them in order makes sorting them again cheap.
+            GreedManager game = new GreedManager(new LinkedHashSet<>(Arrays.asList(header.names)), header.rules);
+            int[] scores = new int[header.names.length];
+            replayEvents(channel, header, scores);
+            game.restoreScores(scores);
+            return game;
+        }
+    }
+
+    /**
+     * Applies every event in the event log at the given path on top of the current scores of the given game.
+     * This is used to recover a game from a GreedSnapshot plus the events which happened after it.
+     *
+     * @param path - the path of the log file.
+     * @param game - the game the events are applied to.
+     * @throws IOException if the file cannot be read, is not a valid event log, or is a log for a different set
+     * of players or different rules.
+     */
+    public static void replay(Path path, GreedManager game) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (!Arrays.equals(header.names, game.getPlayerNamesById())) {
+                throw new IOException("Event log was written for a different set of players!");
+            } else if (!header.rules.equals(game.getRules())) {
+                throw new IOException("Event log was written for different rules!");
+            }
+            int[] scores = game.getScoresById().clone();
+            replayEvents(channel, header, scores);
+            game.restoreScores(scores);
+        }
+    }
+
+    /**
+     * Returns the name of every player in the log, indexed by their id.
+     * @return - the name of every player in the log, indexed by their id.
+     */
+    public String[] getPlayerNames() {
+        return names.clone();
+    }
+
+    /**
+     * Returns the rules of the game in the log.
+     * @return - the rules of the game in the log.
+     */
+    public GreedRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Appends a put to the log.
+     *
+     * @param id - the id of the player who rolled.
+     * @param packedRoll - the roll, packed with the rules of the game.
+     * @param score - the score of the roll.
+     * @throws IOException if the log cannot be written to.
+     */
+    public void append(int id, int packedRoll, int score) throws IOException {
+        write(id, packedRoll, score);
+        syncIfDue();
+    }
+
+    /**
+     * Appends a batch of puts to the log, where each put is made of the id, packed roll and score at the same
+     * index of the given arrays. The whole batch is buffered or written before the log is synced, and if writing
+     * it fails, any part of it which already reached the file is cut off again.
+     *
+     * @param ids - the id of the player of each put.
+     * @param packedRolls - the roll of each put, packed with the rules of the game.
+     * @param scores - the score of the roll of each put.
+     * @throws IOException if the log cannot be written to.
+     * @throws IllegalArgumentException if the arrays do not have the same length.
+     */
+    public void appendAll(int[] ids, int[] packedRolls, int[] scores) throws IOException {
+        write(ids, packedRolls, scores);
+        syncIfDue();
+    }
+
+    /**
+     * Appends a reset of the game to the log.
+     * @throws IOException if the log cannot be written to.
+     */
+    public void appendReset() throws IOException {
+        writeReset();
+        syncIfDue();
+    }
+
+    /**
+     * Writes every buffered event to the file without forcing it to disk.
+     * @throws IOException if the log cannot be written to.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes every buffered event to the file and forces it to disk.
+     * @throws IOException if the log cannot be written to.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Syncs the log and closes the file.
+     * @throws IOException if the log cannot be written to.
+     */
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Buffers a put without syncing the log. GreedManager writes its puts with the write methods before it changes
+     * any score and calls syncIfDue after, so a put which fails to be written leaves the game unchanged, and a put
+     * which is written is also applied even if the sync that follows fails.
+     */
+    void write(int id, int packedRoll, int score) throws IOException {
+        if (buffer.remaining() < EVENT_SIZE) {
+            flush();
+        }
+        buffer.putInt(id).putShort((short) packedRoll).putShort((short) score);
+        unsynced++;
+    }
+
+    /**
+     * Buffers or writes a batch of puts without syncing the log. A batch which does not fit in the buffer is
+     * written through it a buffer at a time, and the file is cut back to where the batch started if that fails,
+     * so a batch which throws is not in the log at all.
+     */
+    void write(int[] ids, int[] packedRolls, int[] scores) throws IOException {
+        if (ids.length != packedRolls.length || ids.length != scores.length) {
+            throw new IllegalArgumentException("Given ids, packedRolls and scores do not have the same length!");
+        }
+        long bytes = (long) ids.length * EVENT_SIZE;
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        if (bytes <= buffer.remaining()) {
+            for (int i = 0; i < ids.length; i++) {
+                buffer.putInt(ids[i]).putShort((short) packedRolls[i]).putShort((short) scores[i]);
+            }
+        } else {
+            long start = channel.position();
+            try {
+                for (int i = 0; i < ids.length; i++) {
+                    if (buffer.remaining() < EVENT_SIZE) {
+                        flush();
+                    }
+                    buffer.putInt(ids[i]).putShort((short) packedRolls[i]).putShort((short) scores[i]);
+                }
+            } catch (IOException e) {
+                buffer.clear();
+                channel.truncate(start);
+                channel.position(start);
+                throw e;
+            }
+        }
+        unsynced += ids.length;
+    }
+
+    /**
+     * Buffers a reset of the game without syncing the log.
+     */
+    void writeReset() throws IOException {
+        write(RESET, 0, 0);
+    }
+
+    /**
+     * Syncs the log if syncInterval puts have been written since the last sync.
+     */
+    void syncIfDue() throws IOException {
+        if (syncInterval > 0 && unsynced >= syncInterval) {
+            sync();
+        }
+    }
+
+    /**
+     * Writes the header of a new log.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSize(rules, names));
+        header.putInt(MAGIC).putShort(VERSION);
+        rules.write(header);
+        header.putInt(names.length);
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) bytes.length).put(bytes);
+        }
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    /**
+     * Checks the header of an existing log and positions the channel after its last complete event.
+     */
+    private void openExisting() throws IOException {
+        Header header = readHeader(channel);
+        if (!Arrays.equals(header.names, names)) {
+            throw new IOException("Event log was written for a different set of players!");
+        } else if (!header.rules.equals(rules)) {
+            throw new IOException("Event log was written for different rules!");
+        }
+        long end = header.size + (channel.size() - header.size) / EVENT_SIZE * EVENT_SIZE;
+        channel.truncate(end);
+        channel.position(end);
+    }
+
+    /**
+     * Returns the number of bytes in the header for the given rules and player names.
+     */
+    private static int headerSize(GreedRules rules, String[] names) {
+        int size = 10 + rules.serializedSize();
+        for (String name : names) {
+            int length = name.getBytes(StandardCharsets.UTF_8).length;
+            if (length > 0xFFFF) {
+                throw new IllegalArgumentException("Player name is too long to be logged!");
+            }
+            size += 2 + length;
+        }
+        return size;
+    }
+
+    /**
+     * Reads and checks the header at the start of the given log file.
+     */
+    private static Header readHeader(FileChannel channel) throws IOException {
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), MAP_WINDOW));
+        try {
+            if (map.getInt() != MAGIC) {
+                throw new IOException("File is not a Greed event log!");
+            }
+            if (map.getShort() != VERSION) {
+                throw new IOException("Event log version is not supported!");
+            }
+            GreedRules rules = GreedRules.read(map);
+            String[] names = new String[map.getInt()];
+            for (int id = 0; id < names.length; id++) {
+                byte[] bytes = new byte[map.getShort() & 0xFFFF];
+                map.get(bytes);
+                names[id] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new Header(rules, names, map.position());
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new IOException("Event log header is incomplete!", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Event log holds impossible rules!", e);
+        }
+    }
+
+    /**
+     * Adds the score of every complete event after the header onto the given scores. Each event is checked
+     * against the rules in the header, and every sum against the largest int, so a damaged log is never silently
+     * replayed.
+     */
+    private static void replayEvents(FileChannel channel, Header header, int[] scores) throws IOException {
+        GreedRules rules = header.rules;
+        long start = header.size;
+        long end = start + (channel.size() - start) / EVENT_SIZE * EVENT_SIZE;
+        for (long position = start; position < end; position += MAP_WINDOW) {
+            long length = Math.min(MAP_WINDOW, end - position);
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            while (map.hasRemaining()) {
+                int id = map.getInt();
+                int packedRoll = map.getShort() & 0xFFFF;
+                int score = map.getShort() & 0xFFFF;
+                if (id == RESET) {
+                    Arrays.fill(scores, 0);
+                } else if (id < 0 || scores.length <= id || rules.getRollCount() <= packedRoll
+                        || rules.score((long) packedRoll) != score || scores[id] > Integer.MAX_VALUE - score) {
+                    throw new IOException("Event log is damaged at byte "
+                            + (position + map.position() - EVENT_SIZE) + "!");
+                } else {
+                    scores[id] += score;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inner class which stores the rules and player names in a log header and the size of the header in bytes.
+     */
+    private static class Header {
+        public GreedRules rules;
+        public String[] names;
+        public long size;
+
+        public Header(GreedRules rules, String[] names, long size) {
+            this.rules = rules;
+            this.names = names;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+/**
+ * GreedIngest scores files of recorded rolls without any user input and builds the final leaderboard.
+ * GreedIngest will provide the following features:
+ * - Reading rolls from a CSV file, or from any channel such as standard input.
+ * - Adding the players of the file to a new game, or adding the rolls onto an existing game.
+ * - Reading a GreedEventLog, the packed binary format of recorded rolls, through GreedEventLog.replay.
+ * - Reporting the line of the first roll which is not valid.
+ *
+ * Every line of a CSV file holds one roll: the name of the player followed by each of the dice values, separated
+ * by commas, such as "player 1,1,5,2,3,4". Names are read as UTF-8 and may contain spaces but not commas. Empty
+ * lines and lines starting with # are skipped, as is a header: the first line which is not skipped, if none of the
+ * fields after the name starts with a digit. Any other line which is not a valid roll is reported, even the first.
+ *
+ * The file is read through a fixed buffer and parsed byte by byte, and a player name is looked up straight from the
+ * bytes of the buffer, so no object is created for a row and memory only grows with the number of players, never
+ * with the size of the file. Rows are collected into a batch of player ids and packed rolls. For a new game, each
+ * batch is scored with the rules and the scores are added onto an array indexed by player, and the leaderboard is
+ * built once when the rolls are finished, the same way GreedEventLog.replay restores a game. For an existing game,
+ * each batch is put into the game like a round of putRound, so its event log, round windows and metrics see every
+ * roll, and the rolls before an invalid line have already been added when it is reported.
+ *
+ * Usage: java GreedIngest file [limit]
+ * The file may be a CSV file, a GreedEventLog, or - to read CSV from standard input. The limit is the number of
+ * rows of the leaderboard which are printed (all of them by default). A limit which is not a number that is 0 or
+ * more exits with the usage, like a missing file.
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class GreedIngest {
+    public static final int BUFFER_SIZE = 1 << 20; // Number of bytes read at a time, and the longest line allowed.
+    private static final int BATCH_SIZE = 4096; // Number of rows scored at a time.
+
+    private final GreedRules rules;
+    private final GreedManager game; // The game the rolls are added onto, or null if a new game is built.
+    private final NameTable players;
+    private int[] scores; // The score of each player of a new game in the rolls read so far, indexed by their id.
+    private final int[] batchIds;
+    private final int[] batchRolls;
+    private int batchSize;
+    private long lineCount;
+    private long rowCount;
+    private boolean headerChecked;
+    private boolean finished;
+
+    /**
+     * Initializes a GreedIngest which builds a new game played with the given rules. Every player who appears in
+     * the rolls is added to the game.
+     * @param rules - the rules of the game.
+     */
+    public GreedIngest(GreedRules rules) {
+        this(rules, null);
+    }
+
+    /**
+     * Initializes a GreedIngest which adds the rolls onto the scores of the given game as they are read, a batch at
+     * a time. Every player who appears in the rolls must already be in the game.
+     * @param game - the game the rolls are added onto.
+     */
+    public GreedIngest(GreedManager game) {
+        this(game.getRules(), game);
+    }
+
+    private GreedIngest(GreedRules rules, GreedManager game) {
+        this.rules = rules;
+        this.game = game;
+        players = new NameTable();
+        batchIds = new int[BATCH_SIZE];
+        batchRolls = new int[BATCH_SIZE];
+        if (game != null) {
+            for (String name : game.getPlayerNamesById()) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                players.add(bytes, 0, bytes.length, name);
+            }
+        }
+        scores = new int[Math.max(players.size(), 16)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        int limit = args.length > 1 ? parseLimit(args[1]) : Integer.MAX_VALUE;
+        if (args.length < 1 || limit < 0) {
+            System.err.println("Usage: java GreedIngest file [limit]");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        GreedManager game;
+        String summary;
+        if (!args[0].equals("-") && isEventLog(Paths.get(args[0]))) {
+            game = GreedEventLog.replay(Paths.get(args[0]));
+            summary = "Replayed the event log of " + game.getPlayerCount() + " players";
+        } else {
+            GreedIngest ingest = new GreedIngest(GreedRules.STANDARD);
+            if (args[0].equals("-")) {
+                ingest.read(Channels.newChannel(System.in));
+            } else {
+                ingest.read(Paths.get(args[0]));
+            }
+            game = ingest.finish();
+            summary = "Scored " + ingest.getRowCount() + " rolls of " + game.getPlayerCount() + " players";
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        game.writeLeaderboard(out, limit);
+        out.flush();
+        // Not printf, whose format parsing loads java.util.regex and would slow down the startup of short runs.
+        System.err.println(summary + " in " + millis + " ms");
+    }
+
+    /**
+     * Returns the given limit, or -1 if it is not a number.
+     */
+    private static int parseLimit(String limit) {
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns true if the file at the given path starts like a GreedEventLog. Otherwise, return false.
+     * @param path - the path of the file.
+     * @return - true if the file at the given path starts like a GreedEventLog. Otherwise, return false.
+     * @throws IOException if the file cannot be read.
+     */
+    public static boolean isEventLog(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == GreedEventLog.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads every roll in the CSV file at the given path.
+     * @param path - the path of the CSV file.
+     * @throws IOException if the file cannot be read or holds a roll which is not valid.
+     */
+    public void read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(channel);
+        }
+    }
+
+    /**
+     * Reads every roll from the given channel, which holds CSV, until it ends. The channel is not closed.
+     * @param channel - the channel the rolls are read from.
+     * @throws IOException if the channel cannot be read or holds a roll which is not valid.
+     * @throws IllegalArgumentException if the rolls would take a player past the highest score a game can hold. The
+     * batch of rolls which would is not added.
+     * @throws IllegalStateException if the rolls are already finished.
+     */
+    public void read(ReadableByteChannel channel) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Rolls are already finished!");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        boolean ended = false;
+        while (!ended) {
+            ended = channel.read(buffer) < 0;
+            int limit = buffer.position();
+            int start = 0;
+            for (int end = start; end < limit; end++) {
+                if (bytes[end] == '\n') {
+                    parseLine(bytes, start, end);
+                    start = end + 1;
+                }
+            }
+            if (ended && start < limit) {
+                parseLine(bytes, start, limit);
+                start = limit;
+            } else if (start == 0 && limit == bytes.length) {
+                throw new IOException("Line " + (lineCount + 1) + " is longer than " + BUFFER_SIZE + " bytes!");
+            }
+            // The start of an unfinished line is moved to the front of the buffer and finished by the next read.
+            System.arraycopy(bytes, start, bytes, 0, limit - start);
+            buffer.position(limit - start);
+        }
+        scoreBatch();
+    }
+
+    /**
+     * Builds the leaderboard from every roll which was read. Returns the new game, or the game given to the
+     * constructor, which already has every roll added onto it. No more rolls can be read afterwards.
+     * @return - the game with every roll added onto it.
+     * @throws IllegalArgumentException if a new game would have fewer than 2 players.
+     * @throws IllegalStateException if the rolls are already finished.
+     */
+    public GreedManager finish() {
+        if (finished) {
+            throw new IllegalStateException("Rolls are already finished!");
+        }
+        finished = true;
+        if (game != null) {
+            return game;
+        }
+
+        // The new game gives ids in name order, so each score is moved to the id of its player in the new game.
+        Set<String> names = new HashSet<>();
+        for (int id = 0; id < players.size(); id++) {
+            names.add(players.nameOf(id));
+        }
+        GreedManager newGame = new GreedManager(names, rules);
+        String[] sortedNames = newGame.getPlayerNamesById();
+        int[] sortedScores = new int[sortedNames.length];
+        for (int id = 0; id < players.size(); id++) {
+            sortedScores[Arrays.binarySearch(sortedNames, players.nameOf(id))] = scores[id];
+        }
+        newGame.restoreScores(sortedScores);
+        return newGame;
+    }
+
+    /**
+     * Returns the number of rolls which were read.
+     * @return - the number of rolls which were read.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of players who are known, including the players of the game given to the constructor.
+     * @return - the number of players who are known.
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Parses the line between start (inclusive) and end (exclusive) of the given bytes and adds its roll to the
+     * batch.
+     */
+    private void parseLine(byte[] bytes, int start, int end) throws IOException {
+        lineCount++;
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (start == end || bytes[start] == '#') {
+            return;
+        }
+        int comma = start;
+        while (comma < end && bytes[comma] != ',') {
+            comma++;
+        }
+        boolean header = !headerChecked && isHeader(bytes, comma, end);
+        headerChecked = true;
+        if (header) {
+            return;
+        } else if (comma == end) {
+            throw invalidLine("does not hold " + rules.getDiceCount() + " dice values");
+        }
+
+        int position = skipSpaces(bytes, comma + 1, end);
+        int sides = rules.getSides();
+        int packedRoll = 0;
+        for (int i = 0; i < rules.getDiceCount(); i++) {
+            if (i > 0) {
+                if (position >= end || bytes[position] != ',') {
+                    throw invalidLine("does not hold " + rules.getDiceCount() + " dice values");
+                }
+                position = skipSpaces(bytes, position + 1, end);
+            }
+            int diceValue = 0;
+            int digits = 0;
+            while (position < end && isDigit(bytes[position]) && digits < 4) {
+                diceValue = diceValue * 10 + bytes[position++] - '0';
+                digits++;
+            }
+            if (diceValue < 1 || sides < diceValue || (position < end && isDigit(bytes[position]))) {
+                throw invalidLine("holds a dice value which is not possible");
+            }
+            packedRoll = packedRoll * sides + diceValue - 1;
+            position = skipSpaces(bytes, position, end);
+        }
+        if (position != end) {
+            throw invalidLine("does not hold " + rules.getDiceCount() + " dice values");
+        }
+
+        batchIds[batchSize] = playerId(bytes, start, comma);
+        batchRolls[batchSize] = packedRoll;
+        batchSize++;
+        if (batchSize == BATCH_SIZE) {
+            scoreBatch();
+        }
+    }
+
+    /**
+     * Returns the id of the player whose name is between from (inclusive) and to (exclusive) of the given bytes,
+     * adding them if a new game is being built.
+     */
+    private int playerId(byte[] bytes, int from, int to) throws IOException {
+        int id = players.find(bytes, from, to);
+        if (id >= 0) {
+            return id;
+        } else if (game != null) {
+            throw invalidLine("names a player who does not exist in the game");
+        }
+        id = players.add(bytes, from, to, new String(bytes, from, to - from, StandardCharsets.UTF_8));
+        if (id == scores.length) {
+            scores = Arrays.copyOf(scores, scores.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Scores every roll in the batch and adds the scores onto the players who rolled them.
+     */
+    private void scoreBatch() {
+        if (game != null) {
+            if (batchSize > 0) {
+                boolean full = batchSize == BATCH_SIZE;
+                game.putPacked(full ? batchIds : Arrays.copyOf(batchIds, batchSize),
+                        full ? batchRolls : Arrays.copyOf(batchRolls, batchSize));
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                int score = rules.score((long) batchRolls[i]);
+                if (scores[batchIds[i]] > Integer.MAX_VALUE - score) {
+                    // Takes back the rolls of the batch which were already added, so the batch changes nothing.
+                    for (int j = i - 1; j >= 0; j--) {
+                        scores[batchIds[j]] -= rules.score((long) batchRolls[j]);
+                    }
+                    throw new IllegalArgumentException("Given rolls would take the score of a player past the highest"
+                            + " score the game can hold!");
+                }
+                scores[batchIds[i]] += score;
+            }
+        }
+        rowCount += batchSize;
+        batchSize = 0;
+    }
+
+    /**
+     * Returns true if the line which ends at the given end has a field after the name, and none of the fields after
+     * the name starts with a digit. comma is the position of the first comma of the line, or end if there is none.
+     */
+    private static boolean isHeader(byte[] bytes, int comma, int end) {
+        if (comma == end) {
+            return false;
+        }
+        for (int position = comma; position < end; position++) {
+            if (bytes[position] == ',') {
+                int field = skipSpaces(bytes, position + 1, end);
+                if (field < end && isDigit(bytes[field])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private IOException invalidLine(String reason) {
+        return new IOException("Line " + lineCount + " " + reason + "!");
+    }
+
+    private static int skipSpaces(byte[] bytes, int position, int end) {
+        while (position < end && bytes[position] == ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isDigit(byte b) {
+        return '0' <= b && b <= '9';
+    }
+
+    /**
+     * Inner class which gives every player name an id in the order the names are added. A name is looked up by its
+     * UTF-8 bytes in an open addressing hash table, so looking up a name does not create a String. Each slot holds
+     * the hash of its name next to the id, so a lookup only reads the bytes of a name whose hash matches, and the
+     * bytes of every name are kept one after another in a single array.
+     */
+    private static class NameTable {
+        private byte[] bytes = new byte[1024]; // The UTF-8 bytes of every name, one after another.
+        private int[] offsets = new int[17]; // The bytes of the name of id i are from offsets[i] to offsets[i + 1].
+        private String[] names = new String[16];
+        private long[] slots = new long[32]; // The hash of a name in the high half and its id + 1 in the low half.
+        private int size;
+
+        public int find(byte[] key, int from, int to) {
+            int hash = hash(key, from, to);
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if ((int) (slots[slot] >>> 32) == hash) {
+                    int id = (int) slots[slot] - 1;
+                    if (equals(id, key, from, to)) {
+                        return id;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        public int add(byte[] key, int from, int to, String name) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            int length = to - from;
+            while (bytes.length - offsets[size] < length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            System.arraycopy(key, from, bytes, offsets[size], length);
+            offsets[size + 1] = offsets[size] + length;
+            names[size] = name;
+            size++;
+            if (size * 2 > slots.length) {
+                slots = new long[slots.length * 2];
+                for (int id = 0; id < size; id++) {
+                    insert(id);
+                }
+            } else {
+                insert(size - 1);
+            }
+            return size - 1;
+        }
+
+        public String nameOf(int id) {
+            return names[id];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void insert(int id) {
+            int hash = hash(bytes, offsets[id], offsets[id + 1]);
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = ((long) hash << 32) | (id + 1);
+        }
+
+        private boolean equals(int id, byte[] key, int from, int to) {
+            int start = offsets[id];
+            if (offsets[id + 1] - start != to - from) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (bytes[start + i - from] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(byte[] key, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + key[i];
+            }
+            // Names which only differ in their last characters have nearby hashes, so they are spread out before
+            // they pick a slot to keep the runs of full slots short.
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * GreedLoadGenerator measures how a GreedServer holds up under many clients at once. Every connection sets up its
+ * own game, then sends a fixed number of requests one at a time and waits for each response before sending the
+ * next. Most requests are rolls, with some score and leaderboard reads mixed in. Every connection ends its game
+ * before it quits, so the server is left without any of the games the load test created.
+ * GreedLoadGenerator will report the following:
+ * - The number of requests per second across every connection.
+ * - The median and 99th percentile latency of a single request.
+ * - The number of requests the server answered with an error.
+ *
+ * Usage: java GreedLoadGenerator [port] [connections] [requests per connection]
+ */
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+public class GreedLoadGenerator {
+    private static final int PLAYERS_PER_GAME = 4;
+    public static final int MAX_REQUESTS = Integer.MAX_VALUE - 8; // Most latencies a single array can hold.
+
+    private final int port;
+    private final int connections;
+    private final int requestsPerConnection;
+
+    /**
+     * Initializes a GreedLoadGenerator for the server on the loopback address at the given port.
+     *
+     * @param port - the port of the server.
+     * @param connections - the number of connections opened at the same time.
+     * @param requestsPerConnection - the number of requests sent on each connection after its game is set up.
+     * @throws IllegalArgumentException if connections or requestsPerConnection is not positive, or there would be
+     * more than MAX_REQUESTS requests in total.
+     */
+    public GreedLoadGenerator(int port, int connections, int requestsPerConnection) {
+        if (connections <= 0 || requestsPerConnection <= 0) {
+            throw new IllegalArgumentException("A load test needs at least 1 connection and 1 request!");
+        } else if ((long) connections * requestsPerConnection > MAX_REQUESTS) {
+            throw new IllegalArgumentException("A load test can send at most " + MAX_REQUESTS + " requests!");
+        }
+        this.port = port;
+        this.connections = connections;
+        this.requestsPerConnection = requestsPerConnection;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GreedServer.DEFAULT_PORT;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        System.out.println(new GreedLoadGenerator(port, connections, requests).run());
+    }
+
+    /**
+     * Runs the load test and waits for every connection to finish.
+     * @return - the throughput and latencies of the load test.
+     * @throws IOException if any connection fails.
+     */
+    public Result run() throws IOException {
+        ExecutorService executor = LineServer.newConnectionExecutor();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            String prefix = "load-" + Long.toHexString(System.nanoTime()) + "-";
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                String gameName = prefix + i;
+                futures.add(executor.submit(() -> runConnection(gameName)));
+            }
+            long[] latencies = new long[connections * requestsPerConnection];
+            int errors = 0;
+            int n = 0;
+            for (Future<long[]> future : futures) {
+                long[] connectionLatencies = future.get();
+                for (int i = 0; i < requestsPerConnection; i++) {
+                    latencies[n++] = connectionLatencies[i];
+                }
+                errors += (int) connectionLatencies[requestsPerConnection];
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new Result(latencies.length, errors, elapsed, latencies);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Load test was interrupted!");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sets up a game on a new connection, then sends every request on it and ends the game.
+     * Returns the latency of each request in nanoseconds, followed by the number of errors.
+     */
+    private long[] runConnection(String gameName) throws IOException {
+        long[] latencies = new long[requestsPerConnection + 1];
+        SplittableRandom rand = new SplittableRandom(gameName.hashCode());
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            for (int player = 0; player < PLAYERS_PER_GAME; player++) {
+                send(in, out, "JOIN\t" + gameName + "\tplayer " + player);
+            }
+            send(in, out, "ROLL\t" + gameName + "\tplayer 0");
+
+            int errors = 0;
+            for (int i = 0; i < requestsPerConnection; i++) {
+                String player = "player " + rand.nextInt(PLAYERS_PER_GAME);
+                int kind = rand.nextInt(10);
+                String request;
+                if (kind < 7) {
+                    request = "ROLL\t" + gameName + "\t" + player;
+                } else if (kind < 9) {
+                    request = "GET\t" + gameName + "\t" + player;
+                } else {
+                    request = "LEADERBOARD\t" + gameName;
+                }
+                long start = System.nanoTime();
+                String response = send(in, out, request);
+                latencies[i] = System.nanoTime() - start;
+                if (!response.startsWith("OK")) {
+                    errors++;
+                }
+            }
+            send(in, out, "END\t" + gameName);
+            out.write("QUIT\n");
+            out.flush();
+            latencies[requestsPerConnection] = errors;
+        }
+        return latencies;
+    }
+
+    /**
+     * Sends a single request and returns the response.
+     */
+    private static String send(BufferedReader in, Writer out, String request) throws IOException {
+        out.write(request);
+        out.write('\n');
+        out.flush();
+        String response = in.readLine();
+        if (response == null) {
+            throw new EOFException("Server closed the connection!");
+        }
+        return response;
+    }
+
+    /**
+     * Class which stores the results of a load test.
+     */
+    public static class Result {
+        private final int requests;
+        private final int errors;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+
+        public Result(int requests, int errors, long elapsedNanos, long[] sortedLatencies) {
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        /**
+         * Returns the number of requests sent.
+         * @return - the number of requests sent.
+         */
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * Returns the number of requests the server answered with an error.
+         * @return - the number of requests the server answered with an error.
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Returns the number of requests answered per second.
+         * @return - the number of requests answered per second.
+         */
+        public double getRequestsPerSecond() {
+            return requests / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        /**
+         * Returns the latency, in microseconds, which the given fraction of requests were faster than or equal to.
+         * @param fraction - the fraction of requests, between 0 and 1.
+         * @return - the latency at the given percentile, in microseconds.
+         * @throws IllegalArgumentException if fraction is not between 0 and 1.
+         */
+        public double getLatencyMicros(double fraction) {
+            if (fraction < 0 || fraction > 1) {
+                throw new IllegalArgumentException("Given fraction must be between 0 and 1!");
+            }
+            int index = (int) Math.ceil(fraction * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1e3;
+        }
+
+        public String toString() {
+            return String.format("%d requests, %d errors, %.0f requests/s, p50 %.1f us, p99 %.1f us",
+                    requests, errors, getRequestsPerSecond(), getLatencyMicros(0.5), getLatencyMicros(0.99));
+        }
+    }
+}
@@ -4,13 +4,31 @@
  * This program allows the user to play a game of Greed, a press-your-luck dice rolling game.
  * The user will initially be prompted for the number of players and the name of each player.
  * The user can play an infinite number of rounds
+ * Given a file of recorded rolls, the rolls are scored without any user input by GreedIngest instead.
+ * Given --serve, games are hosted for clients over a local socket by GreedServer instead.
+ *
+ * Usage: java GreedMain [rolls file [limit]]
+ *        java GreedMain --serve [port] [idle timeout in minutes]
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 public class GreedMain {
-
     public static void main(String[] args) {
+        if (args.length > 0) {
+            try {
+                if (args[0].equals("--serve")) {
+                    GreedServer.main(Arrays.copyOfRange(args, 1, args.length));
+                    return;
+                }
+                GreedIngest.main(args);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
         Scanner console = new Scanner(System.in);
         intro();
         GreedManager game = new GreedManager(initializePlayers(console));
@@ -72,12 +90,16 @@ public class GreedMain {
 
     /**
      * Plays one round of Greed by prompting each player for the values of each dice on their roll.
+     * The scores of every player are updated together once the round has finished.
      *
      * @param round - the round number the players are on.
      * @param console - used for user input.
      * @param game - the game that is currently being played.
      */
     public static void playOneRound(int round, Scanner console, GreedManager game) {
+        String[] playerNames = new String[game.getPlayerCount()];
+        int[][] rolls = new int[game.getPlayerCount()][];
+        int turn = 0;
         for (String playerName : game.getPlayerNames()) {
             System.out.println("It is " + playerName + "'s turn! ");
 
@@ -105,18 +127,20 @@ public class GreedMain {
                     diceValues[i] = diceValue;
                 }
             } else {
-                Random rand = new Random();
+                // Every die is rolled at once and then shown one at a time.
+                Dice.ROLLER.roll(diceValues);
                 for (int i = 0; i < GreedManager.DICE_COUNT; i++) {
                     System.out.print("Press any key to generate a random dice value: ");
                     console.nextLine();
-                    int diceValue = rand.nextInt(GreedManager.SIDES) + 1;
-                    System.out.println("A roll of " + diceValue + " was generated!");
-                    diceValues[i] = diceValue;
+                    System.out.println("A roll of " + diceValues[i] + " was generated!");
                 }
             }
             System.out.println(playerName + " has rolled the following dice values: " + Arrays.toString(diceValues));
-            game.put(playerName, diceValues);
+            playerNames[turn] = playerName;
+            rolls[turn] = diceValues;
+            turn++;
         }
+        game.putRound(playerNames, rolls);
         System.out.println("Round " + round + " has finished!");
     }
 
@@ -129,11 +153,10 @@ public class GreedMain {
     public static void displayLeaderboard(GreedManager game) {
         System.out.println("LEADEBOARD");
         System.out.println("----------------------------------");
-        String leaderboard = game.getLeadboard();
-        leaderboard = leaderboard.substring(1, leaderboard.length() - 1);
-        String[] players = leaderboard.split(",");
-        for (int i = 0; i < players.length; i++) {
-            System.out.println((i + 1) + ". " + players[i].trim());
+        try {
+            game.writeLeaderboard(System.out, game.getPlayerCount());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -166,4 +189,14 @@ public class GreedMain {
         System.out.println();
         return !response.equals("q");
     }
+
+    /**
+     * Inner class which holds the roller of the random dice, so it is only created once a game is played and
+     * scoring a file of recorded rolls starts without it.
+     */
+    private static class Dice {
+        // Rolls the random dice of every player. Setting the greed.seed system property replays the same rolls.
+        private static final DiceRoller ROLLER = Long.getLong("greed.seed") == null ? new DiceRoller()
+                : new DiceRoller(GreedRules.STANDARD, Long.getLong("greed.seed"));
+    }
 }
\ No newline at end of file
@@ -5,22 +5,76 @@
  * GreedManager will provide the following features:
  * - Defining the number of dice the players will be using.
  * - Defining the number of sides on the dice.
+ * - Defining the score of each triple and single die of each face with GreedRules.
  * - Updating the score of a player.
+ * - Updating the scores of a whole round of players at once.
  * - Retrieving the score of a specific player.
  * - Retrieving the list of players with the highest scores.
  * - Retrieving the list of all players.
  * - Retrieving the leaderboard.
- * -
+ * - Retrieving the rank of a specific player.
+ * - Retrieving the players with the k highest scores.
+ * - Streaming, paging and writing out the leaderboard one row at a time.
+ * - Retrieving the highest score and the number of players who reached a given score.
+ * - Optionally keeping leaderboards over the last few rounds in RoundWindows.
+ * - Caching the rendered leaderboard, the winners and the top k players until a change could affect them.
+ * - Optionally recording every put in a GreedEventLog so the game can be recovered after a crash.
+ * - Optionally counting puts and timing put, leaderboard updates and getLeadboard in GreedMetrics.
+ *
+ * Every player is given an int id when the game is created (their position when the names are sorted). The score
+ * of each player is stored in an int array indexed by their id and the leaderboard is a ScoreTree over those ids,
+ * so updating a score, retrieving a score, retrieving a rank and retrieving the top k players never have to
+ * re-sort or scan the whole leaderboard, and none of them create or touch a per-player object.
+ * Every score is a multiple of SCORE_STEP, so a ScoreBuckets index also counts the players at each score. It makes
+ * retrieving the highest score constant time and the winners O(w) for w winners, and it only keeps the scores some
+ * player holds, so it works for any number of rounds. Counting the players above a score is O(log n) in the
+ * ScoreTree. A put which would take a score past the largest int is rejected before anything changes.
+ *
+ * getLeadboard, getWinners and getTopPlayers keep the last result they built as an unmodifiable view, so polling
+ * them while nothing changes returns the same object in constant time. Every score change bumps a version counter
+ * and drops the rendered leaderboard. The winners are only dropped when a player reaches the highest score, and
+ * the top k players are only dropped when a player reaches the last of the top k, so puts further down the
+ * leaderboard keep those views.
+ *
+ * A game is played with the standard rules (DICE_COUNT dice with SIDES sides) unless it is given other GreedRules.
+ * The rules are compiled into a table which holds the score of every possible roll, and a roll is packed into a
+ * single number by reading its dice values as the digits of a base-sides number, so scoring a roll is a single
+ * array lookup no matter which rules are used. The static score, pack and unpack methods use the standard rules.
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class GreedManager {
-    public static final int DICE_COUNT = 5; // Number of dice we're using.
-    public static final int SIDES = 6; // Number of sides on the dice.
+    public static final int DICE_COUNT = 5; // Number of dice we're using in the standard rules.
+    public static final int SIDES = 6; // Number of sides on the dice in the standard rules.
+    // Number of distinct ordered rolls in the standard rules (SIDES^DICE_COUNT).
+    public static final int ROLL_COUNT = GreedRules.STANDARD.getRollCount();
+    // Every score in the standard rules is a multiple of this value.
+    public static final int SCORE_STEP = GreedRules.STANDARD.getScoreStep();
+    private static final int CHUNK_SIZE = 256; // Number of rows fetched from the leaderboard at a time.
 
-    private List<Player> players;
-    private Set<String> playerNames;
+    private GreedRules rules;
+    private Set<String> playerNames; // An unmodifiable view of names, which never follows the caller's set.
+    private Map<String, Integer> ids; // The id of each player.
+    private String[] names; // The name of each player, indexed by id.
+    private int[] scores; // The score of each player, indexed by id.
+    private ScoreTree leaderboard;
+    private ScoreBuckets buckets;
+    private GreedEventLog eventLog; // Records every put when it is not null.
+    private GreedMetrics metrics; // Counts and times every operation when it is not null.
+    private RoundWindow[] windows; // Leaderboards over the last few rounds, or null if there are none.
+    private long version; // Changes every time any score changes.
+    private int[] batchSlots; // Slot + 1 of each player in the batch being applied, indexed by id, or 0.
+    private String leaderboardView; // The rendered leaderboard, or null if it has to be rendered again.
+    private List<String> winnersView; // The winners, or null if they have to be found again.
+    private int winnersScore; // The highest score when winnersView was built.
+    private List<String> topPlayersView; // The top topPlayersK players, or null if they have to be found again.
+    private int topPlayersK;
+    private int topPlayersLastId; // The id of the last player in topPlayersView, or -1 if any put may change it.
 
     /**
      * Initializes a GreedManager object. The scores of each player in the given set of player name will be
@@ -29,15 +83,63 @@ public class GreedManager {
      * @param playerNames - the set of player names who will be playing in the game of Greed.
      */
     public GreedManager(Set<String> playerNames) {
-        if (playerNames.size() < 2) {
+        this(playerNames, GreedRules.STANDARD);
+    }
+
+    /**
+     * Initializes a GreedManager object which plays with the given rules. The scores of each player in the given
+     * set of player name will be set to 0 initially.
+     *
+     * @param playerNames - the set of player names who will be playing in the game of Greed.
+     * @param rules - the rules of the game.
+     */
+    public GreedManager(Set<String> playerNames, GreedRules rules) {
+        this(playerNames, rules, 2);
+    }
+
+    /**
+     * Initializes a GreedManager object which holds only part of a game, such as the players of one LocalShard,
+     * and so may have fewer than 2 players.
+     * @param playerNames - the set of player names held by this part of the game.
+     * @param rules - the rules of the game.
+     * @return - a GreedManager for the given players, which may be empty.
+     */
+    static GreedManager forShard(Set<String> playerNames, GreedRules rules) {
+        return new GreedManager(playerNames, rules, 0);
+    }
+
+    /**
+     * Initializes a GreedManager object which needs at least the given number of players.
+     */
+    private GreedManager(Set<String> playerNames, GreedRules rules, int minimumPlayers) {
+        if (playerNames.size() < minimumPlayers) {
             throw new IllegalArgumentException("Greed can only be played with 2 or more players!");
         }
 
-        this.playerNames = playerNames;
-        players = new ArrayList<>();
-        for (String playerName : playerNames) {
-            players.add(new Player(playerName, 0));
+        this.rules = rules;
+        names = playerNames.toArray(new String[0]);
+        Arrays.sort(names);
+        ids = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            ids.put(names[id], id);
         }
+        this.playerNames = new AbstractSet<String>() {
+            public Iterator<String> iterator() {
+                return Collections.unmodifiableList(Arrays.asList(names)).iterator();
+            }
+
+            public int size() {
+                return names.length;
+            }
+
+            public boolean contains(Object playerName) {
+                return ids.containsKey(playerName);
+            }
+        };
+        scores = new int[names.length];
+        leaderboard = new ScoreTree(scores);
+        buckets = new ScoreBuckets(names.length, rules.getScoreStep());
+        initializePlayers();
     }
 
     /**
@@ -50,22 +152,143 @@ public class GreedManager {
      * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice the players
      * are using.
      * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     * @throws IllegalArgumentException if the roll would take the player past the highest score the game can hold.
      */
     public void put(String playerName, int[] diceValues) {
-        if (!isValidPlayer(playerName)) {
-            throw new IllegalArgumentException("Given player does not exist in the game!");
-        } else if (diceValues.length != DICE_COUNT) {
-            throw new IllegalArgumentException("Given diceValues did not roll the correct amount of dices!");
+        long start = metrics != null ? System.nanoTime() : 0;
+        int id;
+        int packedRoll;
+        try {
+            if (!isValidPlayer(playerName)) {
+                throw new IllegalArgumentException("Given player does not exist in the game!");
+            } else if (diceValues.length != rules.getDiceCount()) {
+                throw new IllegalArgumentException("Given diceValues did not roll the correct amount of dices!");
+            }
+            id = ids.get(playerName);
+            packedRoll = (int) rules.pack(diceValues);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            countInvalidRoll();
+            throw e;
+        }
+
+        applyRoll(id, packedRoll);
+        if (metrics != null) {
+            metrics.putHistogram().recordSince(start);
         }
+    }
 
-        int score = 0;
-        int[] valueCount = getOccurences(diceValues);
+    /**
+     * Updates the scores of every player in the given map using the dice values they are mapped to.
+     * Every roll is validated and scored before any score is changed, so if any player or roll is invalid
+     * no score is updated at all. The scores of each player are summed, the whole batch is recorded in the event
+     * log if there is one, and only then is the leaderboard updated, once for each player.
+     *
+     * @param rolls - the name of each player mapped to the dice values which they rolled.
+     * @throws IllegalArgumentException if any of the players does not exist in the game.
+     * @throws IllegalArgumentException if the length of any of the dice values does not equal to the number of dice
+     * the players are using.
+     * @throws IndexOutOfBoundsException if any of the dice values is not a valid dice roll.
+     * @throws IllegalArgumentException if the rolls would take a player past the highest score the game can hold.
+     */
+    public void putAll(Map<String, int[]> rolls) {
+        int[] rollIds = new int[rolls.size()];
+        int[] packedRolls = new int[rolls.size()];
+        int i = 0;
+        try {
+            for (Map.Entry<String, int[]> roll : rolls.entrySet()) {
+                rollIds[i] = idOf(roll.getKey());
+                packedRolls[i] = (int) rules.pack(roll.getValue());
+                i++;
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            countInvalidRoll();
+            throw e;
+        }
+        applyRolls(rollIds, packedRolls);
+    }
 
-        for (int i = 0; i < SIDES; i++) {
-            score += evaluateScore(i, valueCount);
+    /**
+     * Updates the score of the player at each index of playerNames using the dice values at the same index of
+     * rolls. A player may appear more than once, in which case all of their rolls are added to their score.
+     * Every roll is validated and scored before any score is changed, so if any player or roll is invalid
+     * no score is updated at all. The scores of each player are summed, the whole batch is recorded in the event
+     * log if there is one, and only then is the leaderboard updated, once for each player.
+     *
+     * @param playerNames - the names of the players who rolled.
+     * @param rolls - the dice values which each player rolled.
+     * @throws IllegalArgumentException if playerNames and rolls do not have the same length.
+     * @throws IllegalArgumentException if any of the players does not exist in the game.
+     * @throws IllegalArgumentException if the length of any of the dice values does not equal to the number of dice
+     * the players are using.
+     * @throws IndexOutOfBoundsException if any of the dice values is not a valid dice roll.
+     * @throws IllegalArgumentException if the rolls would take a player past the highest score the game can hold.
+     */
+    public void putRound(String[] playerNames, int[][] rolls) {
+        int[] rollIds = new int[playerNames.length];
+        int[] packedRolls = new int[playerNames.length];
+        try {
+            if (playerNames.length != rolls.length) {
+                throw new IllegalArgumentException("Given playerNames and rolls do not have the same length!");
+            }
+            for (int i = 0; i < playerNames.length; i++) {
+                rollIds[i] = idOf(playerNames[i]);
+                packedRolls[i] = (int) rules.pack(rolls[i]);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            countInvalidRoll();
+            throw e;
         }
+        applyRolls(rollIds, packedRolls);
+    }
+
+    /**
+     * Returns the score of the given dice values using the standard rules.
+     *
+     * @param diceValues - the dice values which were rolled.
+     * @return - the score of the given dice values.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to DICE_COUNT.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     */
+    public static int score(int[] diceValues) {
+        return GreedRules.STANDARD.score(diceValues);
+    }
 
-        updateLeaderboard(playerName, score);
+    /**
+     * Returns the score of the given packed roll using the standard rules.
+     *
+     * @param packedRoll - the roll packed with pack(int[]).
+     * @return - the score of the given packed roll.
+     * @throws IndexOutOfBoundsException if packedRoll is not between 0 (inclusive) and ROLL_COUNT (exclusive).
+     */
+    public static int score(long packedRoll) {
+        return GreedRules.STANDARD.score(packedRoll);
+    }
+
+    /**
+     * Packs the given dice values into a single number between 0 (inclusive) and ROLL_COUNT (exclusive) by
+     * treating each dice value minus one as a base-SIDES digit. The first die is the most significant digit.
+     * One example may include:
+     * [1, 1, 1, 1, 2] is packed into 1 and [2, 1, 1, 1, 1] is packed into 1296.
+     *
+     * @param diceValues - the dice values which were rolled.
+     * @return - the packed roll.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to DICE_COUNT.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     */
+    public static long pack(int[] diceValues) {
+        return GreedRules.STANDARD.pack(diceValues);
+    }
+
+    /**
+     * Unpacks the given packed roll into the given array of dice values. This is the reverse of pack(int[]).
+     *
+     * @param packedRoll - the roll packed with pack(int[]).
+     * @param diceValues - the array the dice values are written into.
+     * @throws IndexOutOfBoundsException if packedRoll is not between 0 (inclusive) and ROLL_COUNT (exclusive).
+     * @throws IllegalArgumentException if the length of diceValues does not equal to DICE_COUNT.
+     */
+    public static void unpack(long packedRoll, int[] diceValues) {
+        GreedRules.STANDARD.unpack(packedRoll, diceValues);
     }
 
     /**
@@ -78,28 +301,89 @@ public class GreedManager {
         if (!isValidPlayer(playerName)) {
             return -1;
         }
-        int playerIndex = indexOf(playerName);
-        Player player = players.get(playerIndex);
-        return player.score;
+        return scores[ids.get(playerName)];
     }
 
     /**
-     * Returns the list of players who have the highest scores in the game.
-     * @return - the list of players who have the highest scores in the game.
+     * Returns the rank of the given player on the leaderboard if they exist within the game, where the player
+     * at the top of the leaderboard has a rank of 1. Otherwise, the player does not exist in the game, so return -1.
+     * @param playerName - the name of the given player.
+     * @return - the rank of the given player if they exist within the game. Otherwise, return -1.
+     */
+    public int getRank(String playerName) {
+        if (!isValidPlayer(playerName)) {
+            return -1;
+        }
+        return leaderboard.rankOf(ids.get(playerName)) + 1;
+    }
+
+    /**
+     * Returns the names of the k players at the top of the leaderboard, ordered the same way as the leaderboard.
+     * If there are fewer than k players in the game, every player is returned. The result for the last k asked for
+     * is cached until a player reaches it.
+     * @param k - the number of players to return.
+     * @return - an unmodifiable list of the names of the k players at the top of the leaderboard.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<String> getTopPlayers(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Given k must not be negative!");
+        }
+        if (topPlayersView == null || topPlayersK != k) {
+            int[] topIds = leaderboard.ids(0, k);
+            topPlayersView = Collections.unmodifiableList(namesOf(topIds));
+            topPlayersK = k;
+            topPlayersLastId = 0 < k && k < names.length ? topIds[k - 1] : -1;
+        }
+        return topPlayersView;
+    }
+
+    /**
+     * Returns the list of players who have the highest scores in the game. The result is cached until a player
+     * reaches the highest score.
+     * @return - an unmodifiable list of the players who have the highest scores in the game.
      */
     public List<String> getWinners() {
-        List<String> winners = new ArrayList<>();
-        int highestScore = players.get(0).score;
-        int i = 0;
-        while (i < players.size() && players.get(i).score == highestScore) {
-            winners.add(players.get(i).name);
-            i++;
+        if (winnersView == null) {
+            winnersScore = buckets.getHighestScore();
+            int[] winnerIds = leaderboard.ids(0, buckets.countWithScore(winnersScore));
+            winnersView = Collections.unmodifiableList(namesOf(winnerIds));
         }
-        return winners;
+        return winnersView;
     }
 
     /**
-     * Returns the set of player names who are currently in the game.
+     * Returns the highest score of any player in the game.
+     * @return - the highest score of any player in the game.
+     */
+    public int getHighestScore() {
+        return buckets.getHighestScore();
+    }
+
+    /**
+     * Returns the number of players whose score is greater than or equal to the given score.
+     * @param score - the score to compare against.
+     * @return - the number of players whose score is greater than or equal to the given score.
+     */
+    public int getPlayerCountAtLeast(int score) {
+        return leaderboard.countAtLeast(score);
+    }
+
+    /**
+     * Returns the number of players who would come before a player with the given name and score on the
+     * leaderboard, whether or not that player is in the game. Used to rank a player of another game, such as
+     * another shard of a ShardedLeaderboard, against the players of this game.
+     * @param score - the score of the player.
+     * @param playerName - the name of the player.
+     * @return - the number of players who would come before the given player.
+     */
+    public int getPlayerCountBefore(int score, String playerName) {
+        int position = Arrays.binarySearch(names, playerName);
+        return leaderboard.countBefore(score, position >= 0 ? position : -position - 1);
+    }
+
+    /**
+     * Returns the set of player names who are currently in the game, in name order. The set cannot be modified.
      * @return the set of player names who are currently in the game.
      */
     public Set<String> getPlayerNames() {
@@ -112,10 +396,105 @@ public class GreedManager {
      * located near the front of the list and players with lower scores are near the end of the list.
      * One example may include:
      * "[playerOne (highScore), playerTwo (lowerScore), playerThree (2), playerFour (0)]
+     * The result is cached until any score changes.
      * @return - a String represented of the leaderboard.
      */
     public String getLeadboard() {
-        return players.toString();
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (leaderboardView == null) {
+            StringBuilder sb = new StringBuilder("[");
+            int[] chunk = new int[CHUNK_SIZE];
+            for (int from = 0; from < names.length; from += CHUNK_SIZE) {
+                int count = leaderboard.copyIds(from, CHUNK_SIZE, chunk);
+                for (int i = 0; i < count; i++) {
+                    if (sb.length() > 1) {
+                        sb.append(", ");
+                    }
+                    sb.append(names[chunk[i]]).append(" (").append(scores[chunk[i]]).append(")");
+                }
+            }
+            leaderboardView = sb.append("]").toString();
+        }
+        if (metrics != null) {
+            metrics.leaderboardHistogram().recordSince(start);
+        }
+        return leaderboardView;
+    }
+
+    /**
+     * Returns the given page of the leaderboard, where page 0 holds the pageSize players at the top of the
+     * leaderboard. Only the requested rows are visited, so a page costs O(log n + pageSize).
+     *
+     * @param page - the number of the page, starting at 0.
+     * @param pageSize - the number of rows on each page.
+     * @return - the rows on the given page, which is empty if the page is past the end of the leaderboard.
+     * @throws IllegalArgumentException if page is negative or pageSize is not positive.
+     */
+    public List<LeaderboardEntry> getLeaderboardPage(int page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Given page must not be negative and pageSize must be positive!");
+        }
+        long from = (long) page * pageSize;
+        if (from >= names.length) {
+            return new ArrayList<>();
+        }
+        int[] pageIds = leaderboard.ids((int) from, pageSize);
+        List<LeaderboardEntry> entries = new ArrayList<>(pageIds.length);
+        for (int i = 0; i < pageIds.length; i++) {
+            entries.add(new LeaderboardEntry((int) from + i + 1, names[pageIds[i]], scores[pageIds[i]]));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns a Stream over the rows of the leaderboard from the top down. Rows are fetched from the leaderboard
+     * a chunk at a time as the Stream is consumed, so taking the first k rows only costs O(log n + k).
+     * The game must not be updated while the Stream is in use.
+     *
+     * @return - a Stream over the rows of the leaderboard.
+     */
+    public Stream<LeaderboardEntry> streamLeaderboard() {
+        Spliterator<LeaderboardEntry> spliterator = Spliterators.spliterator(new LeaderboardIterator(),
+                names.length, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Writes up to limit rows of the leaderboard, from the top down, straight to the given output.
+     * Each row is written on its own line in the format "rank. name (score)".
+     *
+     * @param out - the output the leaderboard is written to.
+     * @param limit - the largest number of rows written.
+     * @throws IOException if the output cannot be written to.
+     */
+    public void writeLeaderboard(Appendable out, int limit) throws IOException {
+        int[] chunk = new int[CHUNK_SIZE];
+        int rows = Math.min(Math.max(limit, 0), names.length);
+        String lineSeparator = System.lineSeparator();
+        for (int from = 0; from < rows; from += CHUNK_SIZE) {
+            int count = leaderboard.copyIds(from, Math.min(CHUNK_SIZE, rows - from), chunk);
+            for (int i = 0; i < count; i++) {
+                out.append(String.valueOf(from + i + 1)).append(". ").append(names[chunk[i]]).append(" (")
+                        .append(String.valueOf(scores[chunk[i]])).append(")").append(lineSeparator);
+            }
+        }
+    }
+
+    /**
+     * Returns a number which changes every time any score changes, including resets. Callers which poll the
+     * leaderboard can skip their work while the version stays the same.
+     * @return - the version of the scores.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the rules the game is played with.
+     * @return - the rules the game is played with.
+     */
+    public GreedRules getRules() {
+        return rules;
     }
 
     /**
@@ -123,7 +502,7 @@ public class GreedManager {
      * @return - the number of players in the game.
      */
     public int getPlayerCount() {
-        return players.size();
+        return names.length;
     }
 
     /**
@@ -132,136 +511,429 @@ public class GreedManager {
      * @return - true if playerName exists within the game. Otherwise, return false.
      */
     public boolean isValidPlayer(String playerName) {
-        return playerNames.contains(playerName);
+        return ids.containsKey(playerName);
     }
 
     /**
      * Resets game by resetting the scores of each player down to zero.
      */
     public void resetGame() {
-        Set<String> playerNames = this.getPlayerNames();
-        players = new ArrayList<>();
-        for (String playerName : playerNames) {
-            players.add(new Player(playerName, 0));
+        if (eventLog != null) {
+            try {
+                eventLog.writeReset();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
+        initializePlayers();
+        if (windows != null) {
+            for (RoundWindow window : windows) {
+                window.reset();
+            }
+        }
+        syncEventLog();
     }
 
     /**
-     * Returns the index in which the given player is located in this.players.
-     * @param playerName - the name of the given player.
-     * @return - the index in which the given player is located in this.players.
+     * Starts keeping a leaderboard of the points each player scores over the given number of rounds: the current
+     * round and the rounds - 1 rounds before it. A window of 1 round is the leaderboard of the current round.
+     * Every window starts empty and is updated on each put from now on. A game without windows only checks a
+     * null field on each put.
+     *
+     * @param rounds - the number of rounds in the window.
+     * @return - the window, which can be queried at any time.
+     * @throws IllegalArgumentException if rounds is not positive.
+     */
+    public RoundWindow addWindow(int rounds) {
+        RoundWindow window = new RoundWindow(names, rounds);
+        windows = windows == null ? new RoundWindow[] {window} : Arrays.copyOf(windows, windows.length + 1);
+        windows[windows.length - 1] = window;
+        return window;
+    }
+
+    /**
+     * Ends the current round and starts the next one, which drops the oldest round out of every window.
+     * Only windows are affected; the all-time scores keep growing.
      */
-    private int indexOf(String playerName) {
-        for (int i = 0; i < players.size(); i++) {
-            Player player = players.get(i);
-            if (playerName.equals(player.name)) {
-                return i;
+    public void endRound() {
+        if (windows != null) {
+            for (RoundWindow window : windows) {
+                window.endRound();
             }
         }
-        return -1;
     }
 
     /**
-     * Returns the occurences of the given dice values
+     * Records every put and every reset of this game in the given GreedEventLog from now on.
+     * The log only holds what happens after it is set, so it should be set before the first put, or the caller
+     * should save a GreedSnapshot of the game at the same moment. Pass null to stop recording.
+     *
+     * @param eventLog - the log every put is recorded in, or null.
+     * @throws IllegalArgumentException if the log was created for a different set of players.
+     */
+    public void setEventLog(GreedEventLog eventLog) {
+        if (eventLog != null && !Arrays.equals(eventLog.getPlayerNames(), names)) {
+            throw new IllegalArgumentException("Given eventLog was created for a different set of players!");
+        }
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Counts and times the operations of this game in the given GreedMetrics from now on, and lets the metrics
+     * read their gauges from this game. Pass null to stop, which brings the cost of every operation back to a
+     * single null check.
      *
-     * @param diceValues - the given dice values.
-     * @return - the occurences of the given dice values.
-     */
-    private int[] getOccurences(int[] diceValues) {
-        int[] valueCount = new int[SIDES];
-        for (int diceValue : diceValues) {
-            if (diceValue <= 0 || SIDES < diceValue) {
-                throw new IndexOutOfBoundsException("Given diceValues contains an illegal dice value!");
+     * @param metrics - the metrics every operation is recorded in, or null.
+     */
+    public void setMetrics(GreedMetrics metrics) {
+        if (metrics != null) {
+            metrics.attach(this);
+        }
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics of this game, or null if the game is not being measured.
+     * @return - the metrics of this game, or null.
+     */
+    public GreedMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of players on the leaderboard. Used by GreedMetrics.
+     * @return - the number of players on the leaderboard.
+     */
+    int getLeaderboardSize() {
+        return leaderboard.size();
+    }
+
+    /**
+     * Returns the name of every player, indexed by their id. The returned array must not be modified.
+     * Used by GreedEventLog and GreedSnapshot, which store players by id.
+     * @return - the name of every player, indexed by their id.
+     */
+    String[] getPlayerNamesById() {
+        return names;
+    }
+
+    /**
+     * Returns the score of every player, indexed by their id. The returned array must not be modified.
+     * Used by GreedEventLog and GreedSnapshot, which store players by id.
+     * @return - the score of every player, indexed by their id.
+     */
+    int[] getScoresById() {
+        return scores;
+    }
+
+    /**
+     * Updates the scores of the players with the given ids using the packed roll at the same index, exactly like
+     * putRound does. Used by GreedIngest, which already knows the id of every player and packs every roll as it
+     * parses it.
+     * @param rollIds - the id of the player who made each roll.
+     * @param packedRolls - each roll, packed by the rules of the game.
+     * @throws IllegalArgumentException if the arrays do not have the same length, or any id or packed roll is not
+     * valid.
+     * @throws IllegalArgumentException if the rolls would take a player past the highest score the game can hold.
+     */
+    void putPacked(int[] rollIds, int[] packedRolls) {
+        try {
+            if (rollIds.length != packedRolls.length) {
+                throw new IllegalArgumentException("Given rollIds and packedRolls do not have the same length!");
             }
-            valueCount[diceValue - 1]++;
+            for (int i = 0; i < rollIds.length; i++) {
+                if (rollIds[i] < 0 || names.length <= rollIds[i] || packedRolls[i] < 0
+                        || rules.getRollCount() <= packedRolls[i]) {
+                    throw new IllegalArgumentException("Given rolls contain an invalid id or packed roll!");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            countInvalidRoll();
+            throw e;
         }
-        return valueCount;
+        applyRolls(rollIds, packedRolls);
     }
 
     /**
-     * Updates the leaderboard by putting the given playerName and their score in the correct position.
-     * @param playerName - the given player
-     * @param score - the score of the player
+     * Replaces the score of every player with the given scores, indexed by id, and rebuilds the leaderboard once.
+     * Used by GreedEventLog and GreedSnapshot to restore a game without replaying it one put at a time.
+     * @param restoredScores - the score of every player, indexed by their id.
+     * @throws IllegalArgumentException if the number of scores does not equal to the number of players, or any
+     * score is negative or not a multiple of the score step of the rules.
+     */
+    void restoreScores(int[] restoredScores) {
+        if (restoredScores.length != names.length) {
+            throw new IllegalArgumentException("Given scores do not match the number of players!");
+        }
+        for (int score : restoredScores) {
+            if (score < 0 || score % rules.getScoreStep() != 0) {
+                throw new IllegalArgumentException("Given scores contain an impossible score!");
+            }
+        }
+        System.arraycopy(restoredScores, 0, scores, 0, scores.length);
+        buckets.rebuild(scores);
+
+        // Sorting one long per player keeps this to primitives: the high half orders by score
+        // from highest to lowest and the low half breaks ties by id, which is the name order.
+        long[] keys = new long[scores.length];
+        for (int id = 0; id < scores.length; id++) {
+            keys[id] = (-(long) scores[id] << 32) | id;
+        }
+        Arrays.sort(keys);
+        int[] orderedIds = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            orderedIds[i] = (int) keys[i];
+        }
+        leaderboard.build(orderedIds);
+        dropViews();
+    }
+
+    /**
+     * Sets the score of every player to 0 and puts each of them on the leaderboard.
+     */
+    private void initializePlayers() {
+        Arrays.fill(scores, 0);
+        buckets.reset();
+        int[] orderedIds = new int[names.length];
+        for (int id = 0; id < names.length; id++) {
+            orderedIds[id] = id;
+        }
+        leaderboard.build(orderedIds);
+        dropViews();
+    }
+
+    /**
+     * Bumps the version and drops every cached view after the scores were changed all at once.
+     */
+    private void dropViews() {
+        version++;
+        leaderboardView = null;
+        winnersView = null;
+        topPlayersView = null;
+    }
+
+    /**
+     * Returns the names of the players with the given ids, in the same order.
+     * @param playerIds - the ids of the players.
+     * @return - the names of the players with the given ids.
+     */
+    private List<String> namesOf(int[] playerIds) {
+        List<String> playerNames = new ArrayList<>(playerIds.length);
+        for (int id : playerIds) {
+            playerNames.add(names[id]);
+        }
+        return playerNames;
+    }
+
+    /**
+     * Returns the id of the given player.
+     * @param playerName - the name of the given player.
+     * @return - the id of the given player.
+     * @throws IllegalArgumentException if the given playerName does not exist in the game.
+     */
+    private int idOf(String playerName) {
+        Integer id = ids.get(playerName);
+        if (id == null) {
+            throw new IllegalArgumentException("Given player does not exist in the game!");
+        }
+        return id;
+    }
+
+    /**
+     * Applies the packed roll at each index of packedRolls to the player whose id is at the same index of rollIds.
+     * The scores of each player are summed first and every new score is checked, then the whole batch is recorded
+     * in the event log, and only then is each player moved once on the leaderboard, in the order of their first
+     * roll. A batch which cannot be held or fails to be recorded leaves the game unchanged.
+     * @param rollIds - the ids of the players.
+     * @param packedRolls - the roll each player rolled, packed with the rules of the game.
+     */
+    private void applyRolls(int[] rollIds, int[] packedRolls) {
+        int[] rollScores = new int[rollIds.length];
+        int[] playerIds = new int[rollIds.length]; // The players in the batch, in the order of their first roll.
+        long[] deltas = new long[rollIds.length]; // The sum of the scores of each player in playerIds.
+        if (batchSlots == null) {
+            batchSlots = new int[names.length];
+        }
+        int playerCount = 0;
+        try {
+            for (int i = 0; i < rollIds.length; i++) {
+                rollScores[i] = rules.score((long) packedRolls[i]);
+                int slot = batchSlots[rollIds[i]] - 1;
+                if (slot < 0) {
+                    slot = playerCount++;
+                    batchSlots[rollIds[i]] = slot + 1;
+                    playerIds[slot] = rollIds[i];
+                }
+                deltas[slot] += rollScores[i];
+            }
+        } finally {
+            for (int i = 0; i < playerCount; i++) {
+                batchSlots[playerIds[i]] = 0;
+            }
+        }
+
+        try {
+            for (int i = 0; i < playerCount; i++) {
+                checkScore(playerIds[i], deltas[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            countInvalidRoll();
+            throw e;
+        }
+        if (eventLog != null) {
+            try {
+                eventLog.write(rollIds, packedRolls, rollScores);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        for (int i = 0; i < playerCount; i++) {
+            addScore(playerIds[i], (int) deltas[i]);
+        }
+        if (metrics != null) {
+            for (int i = 0; i < rollIds.length; i++) {
+                metrics.countPut();
+            }
+        }
+        syncEventLog();
+    }
+
+    /**
+     * Scores the given packed roll, records it in the event log if there is one and adds the score onto the
+     * given player. The new score is checked and the roll is recorded before the score changes, so a roll that
+     * cannot be held or fails to be recorded leaves the game unchanged.
+     * @param id - the id of the player who rolled.
+     * @param packedRoll - the roll packed with the rules of the game.
+     */
+    private void applyRoll(int id, int packedRoll) {
+        int score = rules.score((long) packedRoll);
+        try {
+            checkScore(id, score);
+        } catch (IllegalArgumentException e) {
+            countInvalidRoll();
+            throw e;
+        }
+        if (eventLog != null) {
+            try {
+                eventLog.write(id, packedRoll, score);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        addScore(id, score);
+        if (metrics != null) {
+            metrics.countPut();
+        }
+        syncEventLog();
+    }
+
+    /**
+     * Adds the given score onto the given player on the all-time leaderboard and in every window.
+     * @param id - the id of the player.
+     * @param score - the score to add.
+     */
+    private void addScore(int id, int score) {
+        updateLeaderboard(id, score);
+        if (windows != null) {
+            for (RoundWindow window : windows) {
+                window.add(id, score);
+            }
+        }
+    }
+
+    /**
+     * Syncs the event log if it is due for a sync. This happens after the scores were changed, so the puts it
+     * syncs are already part of the game even if the sync fails.
      */
-    private void updateLeaderboard(String playerName, int score) {
-        int playerIndex = indexOf(playerName);
-        Player player = players.get(playerIndex);
-        player.score += score;
-        Collections.sort(players);
-    }
-
-    /**
-     * Evaluate the score by using the scoring method of the game.
-     * @param roll - the given roll value.
-     * @param valueCount - the occurence of each roll value.
-     * @return - the score by using the scoring mehtod of the game.
-     */
-    private int evaluateScore(int roll, int[] valueCount) {
-        int numOfTriples = valueCount[roll] / 3;
-        int remainder = valueCount[roll] - (numOfTriples * 3);
-        if (roll == 0) { // Roll of one
-            return (1000 * numOfTriples) + (100 * remainder);
-        } else if (roll == 1) { // Roll of two
-            return (200 * numOfTriples);
-        } else if (roll == 2) { // Roll of three
-            return (300 * numOfTriples);
-        } else if (roll == 3) { // Roll of four
-            return (400 * numOfTriples);
-        } else if (roll == 4) { // Roll of five
-            return (500 * numOfTriples) + (50 * remainder);
-        } else { // Roll of 6
-            return (600 * numOfTriples);
-        }
-    }
-
-    /**
-     * Inner class which stores information for a single player.
-     * A Player is defined by their name and their score.
-     */
-    private static class Player implements Comparable<Player> {
-        public String name;
-        public int score;
-
-        /**
-         * Constructs a new Player with the given name and given score
-         * @param name - name of the Player
-         * @param score - score of the Player
-         */
-        public Player(String name, int score) {
-            this.name = name;
-            this.score = score;
-        }
-
-        /**
-         * If the score of this Player and the other Player are not equal:
-         * Return a negative integer or a positive integer as the score of this Player is greater than
-         * or less than the other Player.
-         *
-         * Otherwise, return a negative integer, zero, or a positive integer as the name of this Player
-         * is lexicographically less than, equal to, or greater than the other Player.
-         * @param other - the other Player.
-         * @return - if the scores are not equal, return a negative integer or a positive integer as the
-         * score of this Player is greater than or less than the other Player. Otherwise, return a negative integer,
-         * zero, or a positive integer as the name of this Player is lexicographically less than, equal to, or greater
-         * than the other Player.
-         */
-        public int compareTo(Player other) {
-            if (this.score != other.score) {
-                return other.score - this.score;
-            } else {
-                return this.name.compareTo(other.name);
+    private void syncEventLog() {
+        if (eventLog != null) {
+            try {
+                eventLog.syncIfDue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
+    }
+
+    /**
+     * Checks that adding the given score onto the given player gives a score the game can hold.
+     * @param id - the id of the player.
+     * @param score - the score to add.
+     * @throws IllegalArgumentException if the new score would overflow an int.
+     */
+    private void checkScore(int id, long score) {
+        if (!buckets.canHold(scores[id] + score)) {
+            throw new IllegalArgumentException("Given rolls would take the score of a player past the highest score"
+                    + " the game can hold!");
+        }
+    }
+
+    /**
+     * Counts a rejected put in the metrics, if there are any.
+     */
+    private void countInvalidRoll() {
+        if (metrics != null) {
+            metrics.countInvalidRoll();
+        }
+    }
 
-        /**
-         * Returns a String representation of this Player. A Player will have their name and
-         * their score attached to them.
-         * One example may include:
-         * "playerName (score)"
-         * @return - a String representation of this Player.
-         */
-        public String toString() {
-            return name + " (" + score + ")";
+    /**
+     * Updates the leaderboard by putting the given player and their score in the correct position.
+     * The player is taken off the leaderboard before their score changes so the tree never holds a player
+     * in the wrong position.
+     * @param id - the id of the given player
+     * @param score - the score of the player
+     */
+    private void updateLeaderboard(int id, int score) {
+        if (score == 0) {
+            return;
+        }
+        long start = metrics != null ? System.nanoTime() : 0;
+        checkScore(id, score);
+        // The buckets check both scores before changing anything, so they are moved before the player leaves the tree.
+        buckets.move(scores[id], scores[id] + score);
+        leaderboard.remove(id);
+        scores[id] += score;
+        leaderboard.add(id);
+        version++;
+        leaderboardView = null;
+        if (scores[id] >= winnersScore) {
+            winnersView = null;
+        }
+        if (topPlayersLastId < 0 || scores[id] > scores[topPlayersLastId]
+                || (scores[id] == scores[topPlayersLastId] && id <= topPlayersLastId)) {
+            topPlayersView = null;
+        }
+        if (metrics != null) {
+            metrics.updateLeaderboardHistogram().recordSince(start);
+        }
+    }
+
+    /**
+     * Inner class which walks the leaderboard from the top down, fetching the ids of the next CHUNK_SIZE players
+     * whenever it runs out.
+     */
+    private class LeaderboardIterator implements Iterator<LeaderboardEntry> {
+        private final int[] chunk = new int[CHUNK_SIZE];
+        private int chunkStart; // Rank of the player at chunk[0], starting at 0.
+        private int chunkCount; // Number of ids in chunk.
+        private int next; // Rank of the next player returned, starting at 0.
+
+        public boolean hasNext() {
+            return next < leaderboard.size();
+        }
+
+        public LeaderboardEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next >= chunkStart + chunkCount) {
+                chunkStart = next;
+                chunkCount = leaderboard.copyIds(next, CHUNK_SIZE, chunk);
+            }
+            int id = chunk[next - chunkStart];
+            next++;
+            return new LeaderboardEntry(next, names[id], scores[id]);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,335 @@
+/**
+ * GreedMetrics records how a GreedManager is being used once it is given to GreedManager.setMetrics.
+ * GreedMetrics will provide the following features:
+ * - Counting the rolls which were added onto a score and the puts which were rejected as invalid.
+ * - Recording the latency of put, of updating the leaderboard and of rendering the leaderboard in a
+ *   LatencyHistogram.
+ * - Reading the number of players, the size of the leaderboard, the highest score and the number of winners
+ *   straight from the game whenever they are asked for.
+ * - Taking a Snapshot of every value at once.
+ * - Publishing every value as a JMX MXBean.
+ *
+ * A game without metrics only checks a null field on each operation, so leaving metrics off costs next to nothing.
+ * Like LatencyHistogram, GreedMetrics is written by the thread which uses the game and may be read from any thread.
+ * The gauges are read from the game without locking, so they may be slightly out of date while the game is being
+ * updated.
+ */
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GreedMetrics implements GreedMetricsMXBean {
+    private final AtomicLong puts;
+    private final AtomicLong invalidRolls;
+    private final LatencyHistogram putLatency;
+    private final LatencyHistogram updateLeaderboardLatency;
+    private final LatencyHistogram leaderboardLatency;
+    private volatile GreedManager game;
+    private ObjectName objectName;
+
+    /**
+     * Initializes a GreedMetrics object where every count is 0.
+     */
+    public GreedMetrics() {
+        puts = new AtomicLong();
+        invalidRolls = new AtomicLong();
+        putLatency = new LatencyHistogram();
+        updateLeaderboardLatency = new LatencyHistogram();
+        leaderboardLatency = new LatencyHistogram();
+    }
+
+    /**
+     * Returns the number of rolls which were added onto the score of a player, including the rolls of putAll
+     * and putRound.
+     * @return - the number of rolls which were added onto the score of a player.
+     */
+    public long getPutCount() {
+        return puts.get();
+    }
+
+    /**
+     * Returns the number of calls to put, putAll or putRound which were rejected because of an unknown player or
+     * an invalid roll.
+     * @return - the number of rejected calls.
+     */
+    public long getInvalidRollCount() {
+        return invalidRolls.get();
+    }
+
+    /**
+     * Returns the number of players in the game, or 0 if the metrics are not attached to a game.
+     * @return - the number of players in the game.
+     */
+    public int getPlayerCount() {
+        GreedManager game = this.game;
+        return game == null ? 0 : game.getPlayerCount();
+    }
+
+    /**
+     * Returns the number of players on the leaderboard, or 0 if the metrics are not attached to a game.
+     * @return - the number of players on the leaderboard.
+     */
+    public int getLeaderboardSize() {
+        GreedManager game = this.game;
+        return game == null ? 0 : game.getLeaderboardSize();
+    }
+
+    /**
+     * Returns the highest score in the game, or 0 if the metrics are not attached to a game.
+     * @return - the highest score in the game.
+     */
+    public int getHighestScore() {
+        GreedManager game = this.game;
+        return game == null ? 0 : game.getHighestScore();
+    }
+
+    /**
+     * Returns the number of players who share the highest score, or 0 if the metrics are not attached to a game.
+     * @return - the number of players who share the highest score.
+     */
+    public int getWinnerCount() {
+        GreedManager game = this.game;
+        return game == null ? 0 : game.getPlayerCountAtLeast(game.getHighestScore());
+    }
+
+    /**
+     * Returns the latency of a single put.
+     * @return - the latency of a single put.
+     */
+    public Latency getPutLatency() {
+        return new Latency(putLatency);
+    }
+
+    /**
+     * Returns the latency of moving a single player on the leaderboard.
+     * @return - the latency of moving a single player on the leaderboard.
+     */
+    public Latency getUpdateLeaderboardLatency() {
+        return new Latency(updateLeaderboardLatency);
+    }
+
+    /**
+     * Returns the latency of rendering the whole leaderboard with getLeadboard.
+     * @return - the latency of rendering the whole leaderboard.
+     */
+    public Latency getLeaderboardLatency() {
+        return new Latency(leaderboardLatency);
+    }
+
+    /**
+     * Returns every metric at once.
+     * @return - every metric at once.
+     */
+    public Snapshot getSnapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Sets every count back to 0 and forgets every recorded latency.
+     */
+    public void reset() {
+        puts.set(0);
+        invalidRolls.set(0);
+        putLatency.reset();
+        updateLeaderboardLatency.reset();
+        leaderboardLatency.reset();
+    }
+
+    /**
+     * Registers these metrics with the platform MBeanServer as "Greed:type=GreedMetrics,name=" followed by the
+     * given name.
+     * @param name - the name the metrics are registered under.
+     * @return - the name of the registered MBean.
+     * @throws JMException if the metrics cannot be registered, for example because the name is already taken.
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        ObjectName newName = new ObjectName("Greed:type=GreedMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+        objectName = newName;
+        return objectName;
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBeanServer if they were registered.
+     * @throws JMException if the metrics cannot be unregistered.
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    /**
+     * Reads the gauges from the given game from now on. Called by GreedManager.setMetrics.
+     */
+    void attach(GreedManager game) {
+        this.game = game;
+    }
+
+    /**
+     * Counts a single roll which was added onto the score of a player.
+     */
+    void countPut() {
+        puts.lazySet(puts.get() + 1);
+    }
+
+    /**
+     * Counts a single call which was rejected because of an unknown player or an invalid roll.
+     */
+    void countInvalidRoll() {
+        invalidRolls.lazySet(invalidRolls.get() + 1);
+    }
+
+    /**
+     * Returns the histogram of put latencies.
+     */
+    LatencyHistogram putHistogram() {
+        return putLatency;
+    }
+
+    /**
+     * Returns the histogram of leaderboard update latencies.
+     */
+    LatencyHistogram updateLeaderboardHistogram() {
+        return updateLeaderboardLatency;
+    }
+
+    /**
+     * Returns the histogram of leaderboard rendering latencies.
+     */
+    LatencyHistogram leaderboardHistogram() {
+        return leaderboardLatency;
+    }
+
+    /**
+     * Class which summarizes a LatencyHistogram. Every value is in nanoseconds.
+     */
+    public static class Latency {
+        private final long count;
+        private final double mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        public Latency(LatencyHistogram histogram) {
+            count = histogram.getCount();
+            mean = histogram.getMean();
+            p50 = histogram.getValueAtPercentile(50);
+            p99 = histogram.getValueAtPercentile(99);
+            p999 = histogram.getValueAtPercentile(99.9);
+            max = histogram.getMax();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public String toString() {
+            return String.format("count %d, mean %.0f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns",
+                    count, mean, p50, p99, p999, max);
+        }
+    }
+
+    /**
+     * Class which holds the value of every metric at the moment it was taken.
+     */
+    public static class Snapshot {
+        private final long putCount;
+        private final long invalidRollCount;
+        private final int playerCount;
+        private final int leaderboardSize;
+        private final int highestScore;
+        private final int winnerCount;
+        private final Latency putLatency;
+        private final Latency updateLeaderboardLatency;
+        private final Latency leaderboardLatency;
+
+        private Snapshot(GreedMetrics metrics) {
+            putCount = metrics.getPutCount();
+            invalidRollCount = metrics.getInvalidRollCount();
+            playerCount = metrics.getPlayerCount();
+            leaderboardSize = metrics.getLeaderboardSize();
+            highestScore = metrics.getHighestScore();
+            winnerCount = metrics.getWinnerCount();
+            putLatency = metrics.getPutLatency();
+            updateLeaderboardLatency = metrics.getUpdateLeaderboardLatency();
+            leaderboardLatency = metrics.getLeaderboardLatency();
+        }
+
+        public long getPutCount() {
+            return putCount;
+        }
+
+        public long getInvalidRollCount() {
+            return invalidRollCount;
+        }
+
+        public int getPlayerCount() {
+            return playerCount;
+        }
+
+        public int getLeaderboardSize() {
+            return leaderboardSize;
+        }
+
+        public int getHighestScore() {
+            return highestScore;
+        }
+
+        public int getWinnerCount() {
+            return winnerCount;
+        }
+
+        public Latency getPutLatency() {
+            return putLatency;
+        }
+
+        public Latency getUpdateLeaderboardLatency() {
+            return updateLeaderboardLatency;
+        }
+
+        public Latency getLeaderboardLatency() {
+            return leaderboardLatency;
+        }
+
+        public String toString() {
+            String lineSeparator = System.lineSeparator();
+            return "puts: " + putCount + lineSeparator
+                    + "invalid rolls: " + invalidRollCount + lineSeparator
+                    + "players: " + playerCount + lineSeparator
+                    + "leaderboard size: " + leaderboardSize + lineSeparator
+                    + "highest score: " + highestScore + lineSeparator
+                    + "winners: " + winnerCount + lineSeparator
+                    + "put: " + putLatency + lineSeparator
+                    + "update leaderboard: " + updateLeaderboardLatency + lineSeparator
+                    + "leaderboard: " + leaderboardLatency;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * GreedMetricsMXBean is the management interface of GreedMetrics, which lets JMX clients such as JConsole read the
+ * metrics of a running game. Every latency is in nanoseconds.
+ */
+
+public interface GreedMetricsMXBean {
+    long getPutCount();
+
+    long getInvalidRollCount();
+
+    int getPlayerCount();
+
+    int getLeaderboardSize();
+
+    int getHighestScore();
+
+    int getWinnerCount();
+
+    GreedMetrics.Latency getPutLatency();
+
+    GreedMetrics.Latency getUpdateLeaderboardLatency();
+
+    GreedMetrics.Latency getLeaderboardLatency();
+
+    void reset();
+}
@@ -0,0 +1,195 @@
+/**
+ * GreedOdds computes the exact odds of a game of Greed instead of estimating them with a simulation.
+ * GreedOdds will provide the following features:
+ * - Counting the rolls which give each score.
+ * - Retrieving the probability distribution of the score of a single roll.
+ * - Retrieving the expected score of a round.
+ * - Retrieving the probability distribution of the total score after any number of rounds.
+ *
+ * The score of a roll only depends on how many dice show each face, so instead of visiting all sides^dice rolls,
+ * GreedOdds visits each way of splitting the dice between the faces once and weighs it by the number of rolls
+ * which split the dice that way (a multinomial coefficient). For the standard rules that is 252 splits instead of
+ * 7776 rolls.
+ *
+ * Every score is a multiple of the score step of the rules, so a distribution is an array indexed by score / step.
+ * The distribution after k rounds is the distribution after k - 1 rounds convolved with the distribution of a
+ * single roll, which only touches the few scores a single roll can have. Each distribution is memoized, and a new
+ * one is built from the closest memoized distribution with fewer rounds.
+ *
+ * Usage: java GreedOdds [rounds]
+ */
+
+import java.util.*;
+
+public class GreedOdds {
+    private final GreedRules rules;
+    private final int step;
+    private final long[] rollCounts; // rollCounts[k] is the number of rolls with a score of k * step.
+    private final ScoreDistribution rollDistribution;
+    private final int[] possibleScores; // Indices of rollCounts which are not 0.
+    private final TreeMap<Integer, ScoreDistribution> roundDistributions;
+
+    /**
+     * Initializes a GreedOdds object for the standard rules.
+     */
+    public GreedOdds() {
+        this(GreedRules.STANDARD);
+    }
+
+    /**
+     * Initializes a GreedOdds object for the given rules and computes the distribution of a single roll.
+     * @param rules - the rules of the game.
+     */
+    public GreedOdds(GreedRules rules) {
+        this.rules = rules;
+        step = rules.getScoreStep();
+        rollCounts = new long[rules.getMaxRollScore() / step + 1];
+        countRolls(1, rules.getDiceCount(), 1, 0);
+
+        double[] probabilities = new double[rollCounts.length];
+        int possible = 0;
+        for (int k = 0; k < rollCounts.length; k++) {
+            probabilities[k] = (double) rollCounts[k] / rules.getRollCount();
+            if (rollCounts[k] != 0) {
+                possible++;
+            }
+        }
+        possibleScores = new int[possible];
+        for (int k = 0, i = 0; k < rollCounts.length; k++) {
+            if (rollCounts[k] != 0) {
+                possibleScores[i++] = k;
+            }
+        }
+        rollDistribution = new ScoreDistribution(step, probabilities);
+        roundDistributions = new TreeMap<>();
+        roundDistributions.put(0, new ScoreDistribution(step, new double[] {1}));
+        roundDistributions.put(1, rollDistribution);
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        GreedOdds odds = new GreedOdds();
+        System.out.println("Score of a single roll:");
+        System.out.print(odds.getRollDistribution());
+        System.out.printf("Expected score per round: %.4f%n", odds.getExpectedScorePerRound());
+        ScoreDistribution total = odds.getDistributionAfter(rounds);
+        System.out.printf("After %d rounds: mean %.1f, standard deviation %.1f%n", rounds, total.getMean(),
+                Math.sqrt(total.getVariance()));
+        for (double fraction : new double[] {0.01, 0.1, 0.5, 0.9, 0.99}) {
+            System.out.printf("  %4.0f%% of players score at most %d%n", fraction * 100, total.getPercentile(fraction));
+        }
+    }
+
+    /**
+     * Returns the rules the odds are computed for.
+     * @return - the rules the odds are computed for.
+     */
+    public GreedRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the number of distinct ordered rolls which have exactly the given score.
+     * @param score - the score.
+     * @return - the number of rolls which have exactly the given score.
+     */
+    public long getRollCount(int score) {
+        if (score < 0 || score % step != 0 || score / step >= rollCounts.length) {
+            return 0;
+        }
+        return rollCounts[score / step];
+    }
+
+    /**
+     * Returns the probability distribution of the score of a single roll.
+     * @return - the probability distribution of the score of a single roll.
+     */
+    public ScoreDistribution getRollDistribution() {
+        return rollDistribution;
+    }
+
+    /**
+     * Returns the expected score of a single round, in which every player rolls once.
+     * @return - the expected score of a single round.
+     */
+    public double getExpectedScorePerRound() {
+        return rollDistribution.getMean();
+    }
+
+    /**
+     * Returns the probability distribution of the total score of a player after the given number of rounds.
+     *
+     * @param rounds - the number of rounds.
+     * @return - the probability distribution of the total score after the given number of rounds.
+     * @throws IllegalArgumentException if rounds is negative, or the highest possible total score is larger than
+     * Integer.MAX_VALUE.
+     */
+    public synchronized ScoreDistribution getDistributionAfter(int rounds) {
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Given rounds must not be negative!");
+        } else if ((long) rules.getMaxRollScore() * rounds > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Given rounds can reach a score which is too large!");
+        }
+        ScoreDistribution memoized = roundDistributions.get(rounds);
+        if (memoized != null) {
+            return memoized;
+        }
+
+        Map.Entry<Integer, ScoreDistribution> closest = roundDistributions.floorEntry(rounds);
+        double[] current = closest.getValue().toArray();
+        for (int round = closest.getKey(); round < rounds; round++) {
+            current = convolveWithRoll(current);
+        }
+        ScoreDistribution distribution = new ScoreDistribution(step, current);
+        roundDistributions.put(rounds, distribution);
+        return distribution;
+    }
+
+    /**
+     * Returns the distribution of one more roll on top of the given distribution.
+     */
+    private double[] convolveWithRoll(double[] current) {
+        double[] next = new double[current.length + rollCounts.length - 1];
+        for (int k : possibleScores) {
+            double p = rollDistribution.probabilityAt(k);
+            for (int j = 0; j < current.length; j++) {
+                next[j + k] += current[j] * p;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Adds every way of splitting the remaining dice between the given face and the faces after it onto rollCounts.
+     * ways is the number of ordered rolls which split the dice between the earlier faces the same way, and score is
+     * the score of the dice on the earlier faces.
+     */
+    private void countRolls(int face, int remaining, long ways, int score) {
+        if (face == rules.getSides()) {
+            rollCounts[(score + faceScore(face, remaining)) / step] += ways;
+            return;
+        }
+        for (int n = 0; n <= remaining; n++) {
+            countRolls(face + 1, remaining - n, ways * binomial(remaining, n), score + faceScore(face, n));
+        }
+    }
+
+    /**
+     * Returns the score of n dice showing the given face.
+     */
+    private int faceScore(int face, int n) {
+        return (n / 3) * rules.getTripleScore(face) + (n % 3) * rules.getSingleScore(face);
+    }
+
+    /**
+     * Returns the number of ways to choose k of n dice.
+     */
+    private static long binomial(int n, int k) {
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,462 @@
+/**
+ * GreedRules defines how a game of Greed is played and scored:
+ * - The number of dice each player rolls.
+ * - The number of sides on the dice.
+ * - The score of each triple of a face, and the score of each die of a face that is not part of a triple.
+ * A roll is scored face by face: n dice showing a face score (n / 3) times its triple score plus (n % 3) times its
+ * single score. The standard rules are 5 six-sided dice, where triples score 1000 for ones and 100 times the face
+ * otherwise, a single one scores 100 and a single five scores 50.
+ *
+ * The rules are compiled once when they are created. Since the score of each face only depends on how many dice
+ * show it, a table holds the score of every face for every count. When there are at most MAX_TABLE_SIZE distinct
+ * rolls, the score of every roll is also computed ahead of time into a table indexed by the packed roll, so scoring
+ * a roll is a single array lookup. Otherwise a roll is scored by counting its faces and adding up their scores
+ * from the first table. The face counts are packed into the bits of a single long when they fit, and are kept in
+ * an array reused by each thread when they do not, so scoring a roll never allocates.
+ *
+ * A roll is packed into a single number by reading its dice values minus one as the digits of a base-sides number,
+ * with the first die as the most significant digit.
+ */
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class GreedRules {
+    public static final int MAX_TABLE_SIZE = 1 << 20; // Largest number of rolls which are scored ahead of time.
+    public static final int MAX_DICE_COUNT = 255; // Largest number of dice.
+    public static final int MAX_SIDES = 255; // Largest number of sides on the dice.
+
+    public static final GreedRules STANDARD = new GreedRules(GreedManager.DICE_COUNT, GreedManager.SIDES,
+            new int[] {1000, 200, 300, 400, 500, 600}, new int[] {100, 0, 0, 0, 50, 0});
+
+    private final int diceCount;
+    private final int sides;
+    private final int[] tripleScores;
+    private final int[] singleScores;
+    private final int rollCount;
+    private final int[] faceScores; // faceScores[(face - 1) * (diceCount + 1) + n] is the score of n dice showing face.
+    private final int[] scoreTable; // Score of every roll indexed by packed roll, or null if there are too many rolls.
+    private final int countBits; // Bits for the count of each face when the counts fit in a long, or 0 otherwise.
+    private final ThreadLocal<int[]> valueCounts; // Face counts of each thread when they do not fit in a long.
+    private final int scoreStep;
+    private final int maxRollScore;
+
+    /**
+     * Initializes and compiles a GreedRules object.
+     *
+     * @param diceCount - the number of dice each player rolls.
+     * @param sides - the number of sides on the dice.
+     * @param tripleScores - the score of a triple of each face, where index 0 is the face 1.
+     * @param singleScores - the score of a single die of each face which is not part of a triple, where index 0 is
+     * the face 1.
+     * @throws IllegalArgumentException if diceCount is not between 1 and MAX_DICE_COUNT, sides is not between 1 and
+     * MAX_SIDES, the number of distinct rolls is larger than Integer.MAX_VALUE, the length of either array does not
+     * equal to sides, any score is negative, or the highest possible score of a roll is larger than
+     * Integer.MAX_VALUE.
+     */
+    public GreedRules(int diceCount, int sides, int[] tripleScores, int[] singleScores) {
+        if (diceCount <= 0 || MAX_DICE_COUNT < diceCount) {
+            throw new IllegalArgumentException("Given diceCount must be between 1 and " + MAX_DICE_COUNT + "!");
+        } else if (sides <= 0 || MAX_SIDES < sides) {
+            throw new IllegalArgumentException("Given sides must be between 1 and " + MAX_SIDES + "!");
+        } else if (tripleScores.length != sides || singleScores.length != sides) {
+            throw new IllegalArgumentException("Given scores do not have a value for each side!");
+        }
+        long rolls = 1;
+        for (int i = 0; i < diceCount; i++) {
+            rolls *= sides;
+            if (rolls > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Given dice have too many distinct rolls!");
+            }
+        }
+        for (int face = 0; face < sides; face++) {
+            if (tripleScores[face] < 0 || singleScores[face] < 0) {
+                throw new IllegalArgumentException("Given scores must not be negative!");
+            }
+        }
+
+        this.diceCount = diceCount;
+        this.sides = sides;
+        this.tripleScores = tripleScores.clone();
+        this.singleScores = singleScores.clone();
+        rollCount = (int) rolls;
+        faceScores = buildFaceScores();
+        maxRollScore = computeMaxRollScore();
+        scoreStep = computeScoreStep();
+        scoreTable = rollCount <= MAX_TABLE_SIZE ? buildScoreTable() : null;
+        int bits = 32 - Integer.numberOfLeadingZeros(diceCount);
+        countBits = sides * bits <= Long.SIZE ? bits : 0;
+        valueCounts = ThreadLocal.withInitial(() -> new int[sides]);
+    }
+
+    /**
+     * Returns the number of dice each player rolls.
+     * @return - the number of dice each player rolls.
+     */
+    public int getDiceCount() {
+        return diceCount;
+    }
+
+    /**
+     * Returns the number of sides on the dice.
+     * @return - the number of sides on the dice.
+     */
+    public int getSides() {
+        return sides;
+    }
+
+    /**
+     * Returns the score of a triple of the given face.
+     * @param face - the face, from 1 to getSides().
+     * @return - the score of a triple of the given face.
+     * @throws IndexOutOfBoundsException if face is not between 1 and getSides().
+     */
+    public int getTripleScore(int face) {
+        if (face <= 0 || sides < face) {
+            throw new IndexOutOfBoundsException("Given face is not a side of the dice!");
+        }
+        return tripleScores[face - 1];
+    }
+
+    /**
+     * Returns the score of a single die of the given face which is not part of a triple.
+     * @param face - the face, from 1 to getSides().
+     * @return - the score of a single die of the given face.
+     * @throws IndexOutOfBoundsException if face is not between 1 and getSides().
+     */
+    public int getSingleScore(int face) {
+        if (face <= 0 || sides < face) {
+            throw new IndexOutOfBoundsException("Given face is not a side of the dice!");
+        }
+        return singleScores[face - 1];
+    }
+
+    /**
+     * Returns the number of distinct ordered rolls, which is sides^diceCount.
+     * @return - the number of distinct ordered rolls.
+     */
+    public int getRollCount() {
+        return rollCount;
+    }
+
+    /**
+     * Returns a number which every score is a multiple of.
+     * @return - a number which every score is a multiple of.
+     */
+    public int getScoreStep() {
+        return scoreStep;
+    }
+
+    /**
+     * Returns the highest score a single roll can have.
+     * @return - the highest score a single roll can have.
+     */
+    public int getMaxRollScore() {
+        return maxRollScore;
+    }
+
+    /**
+     * Returns true if the score of every roll was computed ahead of time. Otherwise, return false.
+     * @return - true if the score of every roll was computed ahead of time. Otherwise, return false.
+     */
+    public boolean hasScoreTable() {
+        return scoreTable != null;
+    }
+
+    /**
+     * Returns the score of the given dice values.
+     *
+     * @param diceValues - the dice values which were rolled.
+     * @return - the score of the given dice values.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     */
+    public int score(int[] diceValues) {
+        if (scoreTable != null) {
+            return scoreTable[(int) pack(diceValues)];
+        }
+        checkLength(diceValues);
+        if (countBits > 0) {
+            long packedCounts = 0;
+            for (int diceValue : diceValues) {
+                packedCounts += 1L << (checkFace(diceValue) * countBits);
+            }
+            return scoreCounts(packedCounts);
+        }
+        int[] valueCount = valueCounts.get();
+        try {
+            for (int diceValue : diceValues) {
+                valueCount[checkFace(diceValue)]++;
+            }
+            return scoreCounts(valueCount);
+        } finally {
+            Arrays.fill(valueCount, 0);
+        }
+    }
+
+    /**
+     * Returns the score of the given packed roll.
+     *
+     * @param packedRoll - the roll packed with pack(int[]).
+     * @return - the score of the given packed roll.
+     * @throws IndexOutOfBoundsException if packedRoll is not between 0 (inclusive) and getRollCount() (exclusive).
+     */
+    public int score(long packedRoll) {
+        if (packedRoll < 0 || rollCount <= packedRoll) {
+            throw new IndexOutOfBoundsException("Given packedRoll is not a valid roll!");
+        }
+        if (scoreTable != null) {
+            return scoreTable[(int) packedRoll];
+        }
+        if (countBits > 0) {
+            long packedCounts = 0;
+            for (int i = 0; i < diceCount; i++) {
+                packedCounts += 1L << ((int) (packedRoll % sides) * countBits);
+                packedRoll /= sides;
+            }
+            return scoreCounts(packedCounts);
+        }
+        int[] valueCount = valueCounts.get();
+        for (int i = 0; i < diceCount; i++) {
+            valueCount[(int) (packedRoll % sides)]++;
+            packedRoll /= sides;
+        }
+        int score = scoreCounts(valueCount);
+        Arrays.fill(valueCount, 0);
+        return score;
+    }
+
+    /**
+     * Packs the given dice values into a single number between 0 (inclusive) and getRollCount() (exclusive) by
+     * treating each dice value minus one as a base-sides digit. The first die is the most significant digit.
+     *
+     * @param diceValues - the dice values which were rolled.
+     * @return - the packed roll.
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice.
+     * @throws IndexOutOfBoundsException if any of the values in diceValues is not a valid dice roll.
+     */
+    public long pack(int[] diceValues) {
+        checkLength(diceValues);
+        long packedRoll = 0;
+        for (int diceValue : diceValues) {
+            packedRoll = packedRoll * sides + checkFace(diceValue);
+        }
+        return packedRoll;
+    }
+
+    /**
+     * Unpacks the given packed roll into the given array of dice values. This is the reverse of pack(int[]).
+     *
+     * @param packedRoll - the roll packed with pack(int[]).
+     * @param diceValues - the array the dice values are written into.
+     * @throws IndexOutOfBoundsException if packedRoll is not between 0 (inclusive) and getRollCount() (exclusive).
+     * @throws IllegalArgumentException if the length of diceValues does not equal to the number of dice.
+     */
+    public void unpack(long packedRoll, int[] diceValues) {
+        if (packedRoll < 0 || rollCount <= packedRoll) {
+            throw new IndexOutOfBoundsException("Given packedRoll is not a valid roll!");
+        } else if (diceValues.length != diceCount) {
+            throw new IllegalArgumentException("Given diceValues does not hold the correct amount of dices!");
+        }
+        for (int i = diceCount - 1; i >= 0; i--) {
+            diceValues[i] = (int) (packedRoll % sides) + 1;
+            packedRoll /= sides;
+        }
+    }
+
+    /**
+     * Writes the rules to the given buffer: the number of dice (unsigned byte), the number of sides
+     * (unsigned byte), then the triple score (int) and single score (int) of each face.
+     * Used by GreedEventLog and GreedSnapshot.
+     * @param buffer - the buffer the rules are written to.
+     */
+    void write(ByteBuffer buffer) {
+        buffer.put((byte) diceCount).put((byte) sides);
+        for (int face = 0; face < sides; face++) {
+            buffer.putInt(tripleScores[face]).putInt(singleScores[face]);
+        }
+    }
+
+    /**
+     * Returns the number of bytes write(ByteBuffer) writes.
+     * @return - the number of bytes write(ByteBuffer) writes.
+     */
+    int serializedSize() {
+        return 2 + 2 * Integer.BYTES * sides;
+    }
+
+    /**
+     * Reads rules written by write(ByteBuffer).
+     * @param buffer - the buffer the rules are read from.
+     * @return - the rules which were read.
+     * @throws IllegalArgumentException if the rules which were read are not valid.
+     */
+    static GreedRules read(ByteBuffer buffer) {
+        int diceCount = buffer.get() & 0xFF;
+        int sides = buffer.get() & 0xFF;
+        int[] tripleScores = new int[sides];
+        int[] singleScores = new int[sides];
+        for (int face = 0; face < sides; face++) {
+            tripleScores[face] = buffer.getInt();
+            singleScores[face] = buffer.getInt();
+        }
+        GreedRules rules = new GreedRules(diceCount, sides, tripleScores, singleScores);
+        return rules.equals(STANDARD) ? STANDARD : rules;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof GreedRules)) {
+            return false;
+        }
+        GreedRules other = (GreedRules) o;
+        return diceCount == other.diceCount && sides == other.sides
+                && Arrays.equals(tripleScores, other.tripleScores) && Arrays.equals(singleScores, other.singleScores);
+    }
+
+    public int hashCode() {
+        return 31 * (31 * (31 * diceCount + sides) + Arrays.hashCode(tripleScores)) + Arrays.hashCode(singleScores);
+    }
+
+    public String toString() {
+        return diceCount + "d" + sides + " triples " + Arrays.toString(tripleScores)
+                + " singles " + Arrays.toString(singleScores);
+    }
+
+    /**
+     * Returns the score of a roll whose number of dice showing each face is given by valueCount.
+     */
+    private int scoreCounts(int[] valueCount) {
+        int score = 0;
+        for (int face = 0; face < sides; face++) {
+            score += faceScores[face * (diceCount + 1) + valueCount[face]];
+        }
+        return score;
+    }
+
+    /**
+     * Returns the score of a roll whose number of dice showing each face is packed into packedCounts, countBits
+     * bits per face with the first face in the lowest bits.
+     */
+    private int scoreCounts(long packedCounts) {
+        long mask = (1L << countBits) - 1;
+        int score = 0;
+        for (int face = 0; face < sides; face++) {
+            score += faceScores[face * (diceCount + 1) + (int) (packedCounts & mask)];
+            packedCounts >>>= countBits;
+        }
+        return score;
+    }
+
+    /**
+     * Returns a table which holds the score of n dice showing a face, for every face and every n.
+     */
+    private int[] buildFaceScores() {
+        int[] faceScores = new int[sides * (diceCount + 1)];
+        for (int face = 0; face < sides; face++) {
+            for (int n = 0; n <= diceCount; n++) {
+                long score = (long) (n / 3) * tripleScores[face] + (long) (n % 3) * singleScores[face];
+                if (score > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Given scores are too large!");
+                }
+                faceScores[face * (diceCount + 1) + n] = (int) score;
+            }
+        }
+        return faceScores;
+    }
+
+    /**
+     * Returns a table which holds the score of every possible roll, indexed by the packed roll.
+     * The face counts are updated like an odometer as the packed roll counts up, so each roll is scored
+     * without unpacking it.
+     */
+    private int[] buildScoreTable() {
+        int[] scoreTable = new int[rollCount];
+        int[] digits = new int[diceCount];
+        int[] valueCount = new int[sides];
+        valueCount[0] = diceCount;
+        for (int packedRoll = 0; packedRoll < rollCount; packedRoll++) {
+            scoreTable[packedRoll] = scoreCounts(valueCount);
+            for (int i = diceCount - 1; i >= 0; i--) {
+                valueCount[digits[i]]--;
+                digits[i] = (digits[i] + 1) % sides;
+                valueCount[digits[i]]++;
+                if (digits[i] != 0) {
+                    break;
+                }
+            }
+        }
+        return scoreTable;
+    }
+
+    /**
+     * Returns the highest score a roll can have by choosing how many dice show each face, one face at a time.
+     */
+    private int computeMaxRollScore() {
+        // best[n] is the highest score of n dice among the faces handled so far, or -1 if there is none.
+        long[] best = new long[diceCount + 1];
+        Arrays.fill(best, -1);
+        best[0] = 0;
+        for (int face = 0; face < sides; face++) {
+            long[] next = new long[diceCount + 1];
+            Arrays.fill(next, -1);
+            for (int used = 0; used <= diceCount; used++) {
+                if (best[used] < 0) {
+                    continue;
+                }
+                for (int n = 0; used + n <= diceCount; n++) {
+                    next[used + n] = Math.max(next[used + n], best[used] + faceScores[face * (diceCount + 1) + n]);
+                }
+            }
+            best = next;
+        }
+        if (best[diceCount] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Given scores are too large!");
+        }
+        return (int) best[diceCount];
+    }
+
+    /**
+     * Returns the greatest common divisor of every triple and single score that a roll can contain.
+     */
+    private int computeScoreStep() {
+        int step = 0;
+        for (int face = 0; face < sides; face++) {
+            if (diceCount >= 3) {
+                step = gcd(step, tripleScores[face]);
+            }
+            step = gcd(step, singleScores[face]);
+        }
+        return Math.max(step, 1);
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+
+    /**
+     * Throws an IllegalArgumentException if diceValues does not hold one value for each die.
+     */
+    private void checkLength(int[] diceValues) {
+        if (diceValues.length != diceCount) {
+            throw new IllegalArgumentException("Given diceValues did not roll the correct amount of dices!");
+        }
+    }
+
+    /**
+     * Returns the given face minus one.
+     * @throws IndexOutOfBoundsException if face is not between 1 and sides.
+     */
+    private int checkFace(int face) {
+        if (face <= 0 || sides < face) {
+            throw new IndexOutOfBoundsException("Given diceValues contains an illegal dice value!");
+        }
+        return face - 1;
+    }
+}
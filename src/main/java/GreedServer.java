@@ -0,0 +1,309 @@
+/**
+ * GreedServer hosts many games of Greed at once and lets clients play them over a local socket.
+ * Each connection is handled on its own virtual thread when the Java runtime supports them, and on a pooled
+ * platform thread otherwise, so thousands of connections can be open at the same time.
+ *
+ * The protocol is line based. Every request is one line whose fields are separated by tabs, and every response
+ * is one line which starts with OK or ERR. Player and game names may contain spaces but not tabs.
+ *   JOIN game player          - adds a player to a game which has not started yet. Replies with the player count.
+ *   PUT game player d1 .. dN  - scores the given dice values. Replies with the score of the roll and the total.
+ *   ROLL game player          - rolls random dice and scores them. Replies with the dice, the score and the total.
+ *   GET game player           - replies with the score of the player.
+ *   LEADERBOARD game [limit]  - replies with up to limit rows of the leaderboard (10 by default), one per field.
+ *   WINNERS game              - replies with the names of the winners, one per field.
+ *   END game                  - removes the game from the server. Replies with its winners if it had started.
+ *   QUIT                      - closes the connection.
+ * A game starts the first time a player puts or rolls in it, after which no one else can join. GET, LEADERBOARD
+ * and WINNERS are only answered once the game has started. A game which no one has used for the idle timeout
+ * (30 minutes by default) is removed as if it had been ended, so abandoned games do not pile up on the server.
+ *
+ * Usage: java GreedServer [port] [idle timeout in minutes]
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GreedServer implements Closeable {
+    public static final int DEFAULT_PORT = 4242;
+    public static final int DEFAULT_LEADERBOARD_LIMIT = 10;
+    public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+
+    private final Map<String, Table> tables;
+    private final ScheduledExecutorService evictor;
+    private final LineServer server;
+
+    /**
+     * Starts a GreedServer which listens on the loopback address at the given port and removes games which have
+     * been idle for DEFAULT_IDLE_TIMEOUT_MINUTES.
+     * @param port - the port to listen on, or 0 to pick any free port.
+     * @throws IOException if the port cannot be opened.
+     */
+    public GreedServer(int port) throws IOException {
+        this(port, TimeUnit.MINUTES.toMillis(DEFAULT_IDLE_TIMEOUT_MINUTES));
+    }
+
+    /**
+     * Starts a GreedServer which listens on the loopback address at the given port and removes games which have
+     * been idle for the given time.
+     * @param port - the port to listen on, or 0 to pick any free port.
+     * @param idleTimeoutMillis - how long a game may go unused before it is removed.
+     * @throws IllegalArgumentException if idleTimeoutMillis is not positive.
+     * @throws IOException if the port cannot be opened.
+     */
+    public GreedServer(int port, long idleTimeoutMillis) throws IOException {
+        if (idleTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Given idle timeout must be positive!");
+        }
+        tables = new ConcurrentHashMap<>();
+        evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "greed-server-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        long period = Math.max(idleTimeoutMillis / 2, 1);
+        evictor.scheduleAtFixedRate(() -> evictIdleGames(System.nanoTime() - idleTimeoutNanos),
+                period, period, TimeUnit.MILLISECONDS);
+        server = new LineServer(port, "greed-server-acceptor", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long idleTimeoutMinutes = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_IDLE_TIMEOUT_MINUTES;
+        GreedServer server = new GreedServer(port, TimeUnit.MINUTES.toMillis(idleTimeoutMinutes));
+        System.out.println("Greed server is listening on port " + server.getPort());
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * @return - the port the server is listening on.
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+
+    /**
+     * Returns the number of games hosted by the server.
+     * @return - the number of games hosted by the server.
+     */
+    public int getGameCount() {
+        return tables.size();
+    }
+
+    /**
+     * Stops accepting connections and closes every open connection.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    public void close() throws IOException {
+        evictor.shutdownNow();
+        server.close();
+    }
+
+    /**
+     * Handles a single request line and returns the response line.
+     * @param request - the request line.
+     * @return - the response line.
+     */
+    String handle(String request) {
+        String[] fields = request.split("\t");
+        try {
+            switch (fields[0].trim().toUpperCase(Locale.ROOT)) {
+                case "JOIN":
+                    LineServer.requireFields(fields, 3);
+                    return "OK\t" + join(fields[1], fields[2]);
+                case "PUT":
+                    LineServer.requireFields(fields, 3 + GreedManager.DICE_COUNT);
+                    int[] diceValues = new int[GreedManager.DICE_COUNT];
+                    for (int i = 0; i < diceValues.length; i++) {
+                        diceValues[i] = Integer.parseInt(fields[3 + i].trim());
+                    }
+                    return "OK\t" + table(fields).put(fields[2], diceValues);
+                case "ROLL":
+                    LineServer.requireFields(fields, 3);
+                    return "OK\t" + table(fields).roll(fields[2]);
+                case "GET":
+                    LineServer.requireFields(fields, 3);
+                    return "OK\t" + table(fields).get(fields[2]);
+                case "LEADERBOARD":
+                    LineServer.requireFields(fields, 2);
+                    int limit = fields.length > 2 ? Integer.parseInt(fields[2].trim()) : DEFAULT_LEADERBOARD_LIMIT;
+                    return "OK" + table(fields).leaderboard(limit);
+                case "WINNERS":
+                    LineServer.requireFields(fields, 2);
+                    return "OK" + table(fields).winners();
+                case "END":
+                    LineServer.requireFields(fields, 2);
+                    Table ended = tables.remove(fields[1]);
+                    if (ended == null) {
+                        throw new IllegalArgumentException("Game " + fields[1] + " does not exist!");
+                    }
+                    return "OK" + ended.end();
+                default:
+                    return "ERR\tUnknown command " + fields[0];
+            }
+        } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e) {
+            return "ERR\t" + e.getMessage();
+        }
+    }
+
+    /**
+     * Removes every game which has not been used since the given time.
+     * @param cutoffNanos - a System.nanoTime() value. Games last used before it are removed.
+     * @return - the number of games removed.
+     */
+    int evictIdleGames(long cutoffNanos) {
+        int evicted = 0;
+        for (Map.Entry<String, Table> entry : tables.entrySet()) {
+            if (entry.getValue().endIfIdle(cutoffNanos) && tables.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Adds the given player to the given game, creating the game if it does not exist, and returns the number of
+     * players who have joined it.
+     */
+    private int join(String gameName, String playerName) {
+        while (true) {
+            Table table = tables.computeIfAbsent(gameName, name -> new Table());
+            int playerCount = table.join(playerName);
+            if (playerCount > 0) {
+                return playerCount;
+            }
+            // The game ended after it was looked up, so it is replaced by a new one.
+            tables.remove(gameName, table);
+        }
+    }
+
+    /**
+     * Returns the table named by the second field of the given request.
+     */
+    private Table table(String[] fields) {
+        Table table = tables.get(fields[1]);
+        if (table == null) {
+            throw new IllegalArgumentException("Game " + fields[1] + " does not exist!");
+        }
+        return table;
+    }
+
+    /**
+     * Inner class which holds a single game. Players join the lobby until the game starts.
+     * Every method is synchronized because several connections may play the same game at once.
+     */
+    private static class Table {
+        private Set<String> lobby = new TreeSet<>();
+        private GreedManager game;
+        private final DiceRoller roller = new DiceRoller();
+        private long lastUsed = System.nanoTime();
+        private boolean ended;
+
+        /**
+         * Adds the given player to the lobby and returns the number of players in it, or 0 if the game has ended.
+         */
+        public synchronized int join(String playerName) {
+            if (ended) {
+                return 0;
+            } else if (game != null) {
+                throw new IllegalStateException("Game has already started!");
+            }
+            lastUsed = System.nanoTime();
+            lobby.add(playerName);
+            return lobby.size();
+        }
+
+        public synchronized String put(String playerName, int[] diceValues) {
+            GreedManager game = start();
+            game.put(playerName, diceValues);
+            return GreedManager.score(diceValues) + "\t" + game.get(playerName);
+        }
+
+        public synchronized String roll(String playerName) {
+            int[] diceValues = new int[GreedManager.DICE_COUNT];
+            roller.roll(diceValues);
+            StringBuilder sb = new StringBuilder();
+            for (int diceValue : diceValues) {
+                sb.append(diceValue).append("\t");
+            }
+            return sb.append(put(playerName, diceValues)).toString();
+        }
+
+        public synchronized int get(String playerName) {
+            GreedManager game = started();
+            if (!game.isValidPlayer(playerName)) {
+                throw new IllegalArgumentException("Given player does not exist in the game!");
+            }
+            return game.get(playerName);
+        }
+
+        public synchronized String leaderboard(int limit) {
+            StringBuilder sb = new StringBuilder();
+            for (LeaderboardEntry entry : started().getLeaderboardPage(0, Math.max(limit, 1))) {
+                sb.append("\t").append(entry);
+            }
+            return sb.toString();
+        }
+
+        public synchronized String winners() {
+            StringBuilder sb = new StringBuilder();
+            for (String winner : started().getWinners()) {
+                sb.append("\t").append(winner);
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Ends the game and returns its winners, or nothing if it never started.
+         */
+        public synchronized String end() {
+            String winners = game == null || ended ? "" : winners();
+            ended = true;
+            return winners;
+        }
+
+        /**
+         * Ends the game if it has not been used since the given time and returns true if it has ended.
+         */
+        public synchronized boolean endIfIdle(long cutoffNanos) {
+            if (lastUsed - cutoffNanos < 0) {
+                ended = true;
+            }
+            return ended;
+        }
+
+        /**
+         * Returns the game, starting it from the lobby if it has not started yet.
+         * @throws IllegalStateException if the game has ended.
+         */
+        private GreedManager start() {
+            if (ended) {
+                throw new IllegalStateException("Game has ended!");
+            } else if (game == null) {
+                game = new GreedManager(lobby);
+                lobby = null;
+            }
+            lastUsed = System.nanoTime();
+            return game;
+        }
+
+        /**
+         * Returns the game.
+         * @throws IllegalStateException if no one has rolled in the game yet or the game has ended.
+         */
+        private GreedManager started() {
+            if (ended) {
+                throw new IllegalStateException("Game has ended!");
+            } else if (game == null) {
+                throw new IllegalStateException("Game has not started yet!");
+            }
+            lastUsed = System.nanoTime();
+            return game;
+        }
+    }
+}
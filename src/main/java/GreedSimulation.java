@@ -0,0 +1,321 @@
+/**
+ * GreedSimulation plays a large number of games of Greed without any user input so the scoring method of the game
+ * can be studied. Every player rolls once per round and is scored with GreedManager.score.
+ * GreedSimulation will provide the following features:
+ * - Simulating any number of players for any number of rounds on every available core.
+ * - Reproducing the exact same results from the same seed, no matter how many threads are used.
+ * - Reporting the throughput of the simulation in rolls per second.
+ * - Reporting the distribution of single-roll scores and of final scores.
+ *
+ * Every player gets their own DiceRoller whose seed is derived from the simulation seed and the index of
+ * the player, so the rolls of a player never depend on which thread simulated them.
+ * A roll is drawn as a single packed roll between 0 and GreedManager.ROLL_COUNT, which is the same as rolling
+ * each of the dice separately.
+ *
+ * Usage: java GreedSimulation players rounds [seed] [threads]
+ */
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class GreedSimulation {
+    // Most rounds a player can play without their final score overflowing an int.
+    public static final int MAX_ROUNDS = Integer.MAX_VALUE / GreedRules.STANDARD.getMaxRollScore();
+
+    private final int playerCount;
+    private final int rounds;
+    private final long seed;
+    private final int threads;
+
+    /**
+     * Initializes a GreedSimulation using every available core.
+     *
+     * @param playerCount - the number of players in the simulation.
+     * @param rounds - the number of rounds each player plays.
+     * @param seed - the seed every roll of the simulation is derived from.
+     * @throws IllegalArgumentException if playerCount or rounds is not positive, or rounds is above MAX_ROUNDS.
+     */
+    public GreedSimulation(int playerCount, int rounds, long seed) {
+        this(playerCount, rounds, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a GreedSimulation using the given number of threads.
+     *
+     * @param playerCount - the number of players in the simulation.
+     * @param rounds - the number of rounds each player plays.
+     * @param seed - the seed every roll of the simulation is derived from.
+     * @param threads - the number of threads used to run the simulation.
+     * @throws IllegalArgumentException if playerCount, rounds or threads is not positive, or rounds is above
+     * MAX_ROUNDS.
+     */
+    public GreedSimulation(int playerCount, int rounds, long seed, int threads) {
+        if (playerCount <= 0 || rounds <= 0) {
+            throw new IllegalArgumentException("A simulation needs at least 1 player and 1 round!");
+        } else if (rounds > MAX_ROUNDS) {
+            throw new IllegalArgumentException("A simulation can have at most " + MAX_ROUNDS + " rounds!");
+        } else if (threads <= 0) {
+            throw new IllegalArgumentException("A simulation needs at least 1 thread!");
+        }
+        this.playerCount = playerCount;
+        this.rounds = rounds;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java GreedSimulation players rounds [seed] [threads]");
+            return;
+        }
+        int playerCount = Integer.parseInt(args[0]);
+        int rounds = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Simulating " + playerCount + " players for " + rounds + " rounds on " + threads
+                + " threads (seed " + seed + ")");
+        Result result = new GreedSimulation(playerCount, rounds, seed, threads).run();
+        System.out.println(result);
+    }
+
+    /**
+     * Runs the simulation and returns its result.
+     * @return - the result of the simulation.
+     */
+    public Result run() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            Histogram histogram = pool.submit(() -> IntStream.range(0, playerCount).parallel()
+                    .collect(Histogram::new, this::simulatePlayer, Histogram::merge)).get();
+            return new Result(histogram, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed!", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays every round for the player at the given index and records their rolls and final score.
+     * @param histogram - the histogram the results are recorded into.
+     * @param player - the index of the player.
+     */
+    private void simulatePlayer(Histogram histogram, int player) {
+        DiceRoller roller = new DiceRoller(GreedRules.STANDARD, playerSeed(seed, player));
+        long score = 0;
+        for (int round = 0; round < rounds; round++) {
+            int rollScore = GreedManager.score(roller.nextPackedRoll());
+            histogram.rollScores[rollScore / GreedManager.SCORE_STEP]++;
+            score += rollScore;
+        }
+        histogram.addFinalScore((int) (score / GreedManager.SCORE_STEP), 1);
+    }
+
+    /**
+     * Returns the seed of the player at the given index. Neighbouring players get unrelated seeds by mixing
+     * the index into the simulation seed.
+     * @param seed - the seed of the simulation.
+     * @param player - the index of the player.
+     * @return - the seed of the player at the given index.
+     */
+    static long playerSeed(long seed, int player) {
+        long z = seed + (player + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Inner class which counts how often each score was seen, in steps of GreedManager.SCORE_STEP.
+     * Final scores cluster around the mean, so finalScores only spans the buckets between the lowest and the
+     * highest final score this histogram has seen (plus some room to grow), starting at bucket finalLow. Every
+     * parallel worker has its own histogram, so a dense array up to the highest possible final score would cost
+     * hundreds of megabytes each over millions of rounds.
+     */
+    private static class Histogram {
+        private static final int MAX_ROLL_SCORE = GreedRules.STANDARD.getMaxRollScore();
+        private static final int MIN_GROWTH = 16;
+
+        public long[] rollScores = new long[MAX_ROLL_SCORE / GreedManager.SCORE_STEP + 1];
+        public long[] finalScores = new long[0];
+        public int finalLow; // The bucket counted by finalScores[0].
+
+        /**
+         * Adds the given count onto the given bucket of final scores, growing finalScores to reach it.
+         */
+        public void addFinalScore(int bucket, long count) {
+            if (finalScores.length == 0) {
+                finalLow = Math.max(bucket - MIN_GROWTH / 2, 0);
+                finalScores = new long[MIN_GROWTH];
+            } else if (bucket < finalLow || finalLow + finalScores.length <= bucket) {
+                // Grows by at least half on the side of the new bucket so a stream of new extremes costs amortized
+                // constant time.
+                int growth = Math.max(finalScores.length / 2, MIN_GROWTH);
+                int low = Math.max(Math.min(bucket, finalLow - (bucket < finalLow ? growth : 0)), 0);
+                int high = Math.max(bucket, finalLow + finalScores.length - 1 + (bucket < finalLow ? 0 : growth));
+                long[] grown = new long[high - low + 1];
+                System.arraycopy(finalScores, 0, grown, finalLow - low, finalScores.length);
+                finalScores = grown;
+                finalLow = low;
+            }
+            finalScores[bucket - finalLow] += count;
+        }
+
+        public void merge(Histogram other) {
+            for (int i = 0; i < rollScores.length; i++) {
+                rollScores[i] += other.rollScores[i];
+            }
+            for (int i = 0; i < other.finalScores.length; i++) {
+                if (other.finalScores[i] > 0) {
+                    addFinalScore(other.finalLow + i, other.finalScores[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Class which stores the result of a simulation.
+     */
+    public static class Result {
+        private final long[] rollScores;
+        private final long[] finalScores;
+        private final int finalLow; // The bucket counted by finalScores[0].
+        private final long elapsedNanos;
+
+        private Result(Histogram histogram, long elapsedNanos) {
+            this.rollScores = histogram.rollScores;
+            this.finalScores = histogram.finalScores;
+            this.finalLow = histogram.finalLow;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the total number of rolls in the simulation.
+         * @return - the total number of rolls in the simulation.
+         */
+        public long getRollCount() {
+            return sum(rollScores);
+        }
+
+        /**
+         * Returns the number of rolls which earned the given score.
+         * @param score - the score of a single roll.
+         * @return - the number of rolls which earned the given score.
+         */
+        public long getRollScoreCount(int score) {
+            return count(rollScores, 0, score);
+        }
+
+        /**
+         * Returns the number of players who finished with the given score.
+         * @param score - the final score of a player.
+         * @return - the number of players who finished with the given score.
+         */
+        public long getFinalScoreCount(int score) {
+            return count(finalScores, finalLow, score);
+        }
+
+        /**
+         * Returns the average score of a single roll.
+         * @return - the average score of a single roll.
+         */
+        public double getMeanRollScore() {
+            return mean(rollScores, 0);
+        }
+
+        /**
+         * Returns the average final score of a player.
+         * @return - the average final score of a player.
+         */
+        public double getMeanFinalScore() {
+            return mean(finalScores, finalLow);
+        }
+
+        /**
+         * Returns the lowest final score which at least the given fraction of players did not exceed.
+         * @param fraction - a number between 0 and 1, such as 0.5 for the median.
+         * @return - the final score at the given percentile.
+         */
+        public int getFinalScorePercentile(double fraction) {
+            long target = (long) Math.ceil(fraction * sum(finalScores));
+            long seen = 0;
+            for (int i = 0; i < finalScores.length; i++) {
+                seen += finalScores[i];
+                if (seen >= Math.max(target, 1)) {
+                    return (finalLow + i) * GreedManager.SCORE_STEP;
+                }
+            }
+            return (finalLow + finalScores.length - 1) * GreedManager.SCORE_STEP;
+        }
+
+        /**
+         * Returns the time the simulation took in nanoseconds.
+         * @return - the time the simulation took in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the number of rolls scored per second.
+         * @return - the number of rolls scored per second.
+         */
+        public double getRollsPerSecond() {
+            return getRollCount() / (Math.max(elapsedNanos, 1) / 1e9);
+        }
+
+        /**
+         * Returns a report of the throughput and the score distributions of the simulation.
+         * @return - a report of the simulation.
+         */
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d rolls in %.3f s (%.0f rolls/sec)%n",
+                    getRollCount(), elapsedNanos / 1e9, getRollsPerSecond()));
+            sb.append("SINGLE ROLL SCORES").append(System.lineSeparator());
+            for (int i = 0; i < rollScores.length; i++) {
+                if (rollScores[i] > 0) {
+                    sb.append(String.format("%6d: %.6f%n", i * GreedManager.SCORE_STEP,
+                            (double) rollScores[i] / getRollCount()));
+                }
+            }
+            sb.append(String.format("mean roll score: %.3f%n", getMeanRollScore()));
+            sb.append("FINAL SCORES").append(System.lineSeparator());
+            sb.append(String.format("mean: %.3f, min: %d, p50: %d, p90: %d, p99: %d, max: %d",
+                    getMeanFinalScore(), getFinalScorePercentile(0), getFinalScorePercentile(0.5),
+                    getFinalScorePercentile(0.9), getFinalScorePercentile(0.99), getFinalScorePercentile(1)));
+            return sb.toString();
+        }
+
+        private static long count(long[] histogram, int low, int score) {
+            int index = score / GreedManager.SCORE_STEP - low;
+            if (score < 0 || score % GreedManager.SCORE_STEP != 0 || index < 0 || histogram.length <= index) {
+                return 0;
+            }
+            return histogram[index];
+        }
+
+        private static long sum(long[] histogram) {
+            long sum = 0;
+            for (long count : histogram) {
+                sum += count;
+            }
+            return sum;
+        }
+
+        private static double mean(long[] histogram, int low) {
+            double total = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                total += (double) histogram[i] * (low + i) * GreedManager.SCORE_STEP;
+            }
+            return total / sum(histogram);
+        }
+    }
+}
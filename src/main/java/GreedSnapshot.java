@@ -0,0 +1,198 @@
+/**
+ * GreedSnapshot saves a whole game of Greed to a binary file and loads it back, so a long game can be restarted
+ * from a checkpoint instead of being replayed from scratch. Together with a GreedEventLog started right after the
+ * snapshot is saved, a game can be recovered by loading the snapshot and replaying the log on top of it.
+ *
+ * The file is laid out as:
+ *   magic (int), version (short), the rules as written by GreedRules, round (long), player count (int),
+ *   then for each player in the order of their ids the length of their UTF-8 name (short) followed by the name,
+ *   then the score of each player in the order of their ids (int),
+ *   then a CRC32 of every byte before it (int).
+ * Version 1 snapshots, which hold DICE_COUNT (byte) and SIDES (byte) instead of the rules, are read as the standard
+ * rules.
+ *
+ * A snapshot is written in a single sequential pass to a temporary file which is then moved over the target,
+ * so a crash while saving never leaves a half-written snapshot behind. Loading memory-maps the file and reads
+ * every score with one bulk copy.
+ */
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+public class GreedSnapshot {
+    public static final int MAGIC = 0x4752534E; // "GRSN"
+    public static final short VERSION = 2;
+
+    private static final int BUFFER_SIZE = 128 * 1024; // Large enough for the longest possible name.
+
+    private final GreedManager game;
+    private final long round;
+
+    /**
+     * Constructs a new GreedSnapshot which holds the given game and round.
+     * @param game - the game which was loaded.
+     * @param round - the round the game was on when it was saved.
+     */
+    private GreedSnapshot(GreedManager game, long round) {
+        this.game = game;
+        this.round = round;
+    }
+
+    /**
+     * Saves the given game and round to the given path, replacing any file already there.
+     *
+     * @param path - the path of the snapshot file.
+     * @param game - the game to save.
+     * @param round - the round the game is on, which is handed back by load.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public static void save(Path path, GreedManager game, long round) throws IOException {
+        String[] names = game.getPlayerNamesById();
+        int[] scores = game.getScoresById();
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                CRC32 crc = new CRC32();
+                buffer.putInt(MAGIC).putShort(VERSION);
+                game.getRules().write(buffer);
+                buffer.putLong(round).putInt(names.length);
+                for (String name : names) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > 0xFFFF) {
+                        throw new IllegalArgumentException("Player name is too long to be saved!");
+                    }
+                    ensureRemaining(channel, buffer, crc, 2 + bytes.length);
+                    buffer.putShort((short) bytes.length).put(bytes);
+                }
+                for (int score : scores) {
+                    ensureRemaining(channel, buffer, crc, Integer.BYTES);
+                    buffer.putInt(score);
+                }
+                write(channel, buffer, crc);
+                buffer.putInt((int) crc.getValue());
+                write(channel, buffer, null);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads the snapshot at the given path.
+     *
+     * @param path - the path of the snapshot file.
+     * @return - the loaded snapshot.
+     * @throws IOException if the file cannot be read or is not a valid snapshot.
+     */
+    public static GreedSnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to be loaded!");
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.limit() < Integer.BYTES) {
+                throw new IOException("Snapshot is incomplete!");
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer body = map.duplicate();
+            body.limit(map.limit() - Integer.BYTES);
+            crc.update(body);
+            if (map.getInt(map.limit() - Integer.BYTES) != (int) crc.getValue()) {
+                throw new IOException("Snapshot is damaged!");
+            }
+
+            if (map.getInt() != MAGIC) {
+                throw new IOException("File is not a Greed snapshot!");
+            }
+            short version = map.getShort();
+            GreedRules rules;
+            if (version == 1) {
+                if (map.get() != GreedManager.DICE_COUNT || map.get() != GreedManager.SIDES) {
+                    throw new IOException("Snapshot was saved for a different number of dice or sides!");
+                }
+                rules = GreedRules.STANDARD;
+            } else if (version == VERSION) {
+                rules = GreedRules.read(map);
+            } else {
+                throw new IOException("Snapshot version is not supported!");
+            }
+            long round = map.getLong();
+            String[] names = new String[map.getInt()];
+            byte[] bytes = new byte[0xFFFF];
+            for (int id = 0; id < names.length; id++) {
+                int length = map.getShort() & 0xFFFF;
+                map.get(bytes, 0, length);
+                names[id] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            int[] scores = new int[names.length];
+            map.asIntBuffer().get(scores);
+
+            // The names were saved in id order, so keeping them in order makes sorting them again cheap.
+            GreedManager game = new GreedManager(new LinkedHashSet<>(Arrays.asList(names)), rules);
+            if (!Arrays.equals(game.getPlayerNamesById(), names)) {
+                throw new IOException("Snapshot players are not in id order!");
+            }
+            game.restoreScores(scores);
+            return new GreedSnapshot(game, round);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Snapshot is incomplete!", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Snapshot holds an impossible game!", e);
+        }
+    }
+
+    /**
+     * Returns the game which was loaded.
+     * @return - the game which was loaded.
+     */
+    public GreedManager getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the round the game was on when it was saved.
+     * @return - the round the game was on when it was saved.
+     */
+    public long getRound() {
+        return round;
+    }
+
+    /**
+     * Writes out the buffer if it has fewer than the given number of bytes left.
+     */
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, CRC32 crc, int bytes)
+            throws IOException {
+        if (buffer.remaining() < bytes) {
+            write(channel, buffer, crc);
+        }
+    }
+
+    /**
+     * Writes every byte in the buffer to the channel, adding them to the given CRC32 if it is not null,
+     * and clears the buffer.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * GreedTournament plays computer players against each other to find out which Strategy wins most often.
+ * GreedTournament will provide the following features:
+ * - Playing a round-robin tournament where every pair of strategies plays the same number of two-player games.
+ * - Playing every game on every available core, reproducing the exact same results from the same seed no matter
+ *   how many threads are used.
+ * - Reporting the win rate of each strategy, overall and against each opponent, with a 95% confidence interval.
+ *
+ * Each turn is played the press-your-luck way: the player rolls, and after every roll which scores, their Strategy
+ * either rolls again or banks. Banked rolls are put into the GreedManager of the game, while a roll which scores
+ * nothing loses every roll of the turn. A turn never has more than MAX_ROLLS_PER_TURN rolls.
+ * The two strategies of a matchup take turns going first, and a game whose winners are both players is a draw,
+ * which counts as half a win. Every game gets its own DiceRoller whose seed is derived from the tournament seed
+ * and the index of the game, so games never depend on which thread played them and scale with the number of cores.
+ *
+ * Usage: java GreedTournament [games per matchup] [rounds] [seed] [threads]
+ */
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class GreedTournament {
+    public static final int MAX_ROLLS_PER_TURN = 100;
+    private static final double Z = 1.96; // The z-score of a 95% confidence interval.
+    private static final String[] SEATS = {"first", "second"}; // The player names of the two seats of a game.
+
+    private final Strategy[] strategies;
+    private final GreedRules rules;
+    private final int gamesPerMatchup;
+    private final int rounds;
+    private final long seed;
+    private final int threads;
+    private final int[] matchupStrategies; // The two strategies of each matchup, two ints per matchup.
+
+    /**
+     * Initializes a GreedTournament with the standard rules using every available core.
+     *
+     * @param strategies - the strategies in the tournament.
+     * @param gamesPerMatchup - the number of games each pair of strategies plays.
+     * @param rounds - the number of rounds in each game.
+     * @param seed - the seed every roll of the tournament is derived from.
+     * @throws IllegalArgumentException if there are fewer than 2 strategies or gamesPerMatchup or rounds is not
+     *                                  positive.
+     */
+    public GreedTournament(List<Strategy> strategies, int gamesPerMatchup, int rounds, long seed) {
+        this(strategies, GreedRules.STANDARD, gamesPerMatchup, rounds, seed,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes a GreedTournament using the given rules and number of threads.
+     *
+     * @param strategies - the strategies in the tournament.
+     * @param rules - the rules every game is played with.
+     * @param gamesPerMatchup - the number of games each pair of strategies plays.
+     * @param rounds - the number of rounds in each game.
+     * @param seed - the seed every roll of the tournament is derived from.
+     * @param threads - the number of threads used to play the tournament.
+     * @throws IllegalArgumentException if there are fewer than 2 strategies, gamesPerMatchup, rounds or threads is
+     *                                  not positive, or the tournament has too many games.
+     */
+    public GreedTournament(List<Strategy> strategies, GreedRules rules, int gamesPerMatchup, int rounds, long seed,
+                           int threads) {
+        if (strategies.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 strategies!");
+        } else if (gamesPerMatchup <= 0 || rounds <= 0) {
+            throw new IllegalArgumentException("A tournament needs at least 1 game per matchup and 1 round!");
+        } else if (threads <= 0) {
+            throw new IllegalArgumentException("A tournament needs at least 1 thread!");
+        }
+        int matchups = strategies.size() * (strategies.size() - 1) / 2;
+        if ((long) matchups * gamesPerMatchup > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A tournament cannot have more than " + Integer.MAX_VALUE + " games!");
+        }
+        this.strategies = strategies.toArray(new Strategy[0]);
+        this.rules = rules;
+        this.gamesPerMatchup = gamesPerMatchup;
+        this.rounds = rounds;
+        this.seed = seed;
+        this.threads = threads;
+        matchupStrategies = new int[matchups * 2];
+        int matchup = 0;
+        for (int i = 0; i < this.strategies.length; i++) {
+            for (int j = i + 1; j < this.strategies.length; j++) {
+                matchupStrategies[matchup * 2] = i;
+                matchupStrategies[matchup * 2 + 1] = j;
+                matchup++;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int gamesPerMatchup = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        List<Strategy> strategies = List.of(Strategy.rollOnce(), Strategy.threshold(300), Strategy.threshold(1000),
+                Strategy.threshold(5000), Strategy.expectedValue(GreedRules.STANDARD));
+
+        System.out.println("Playing " + gamesPerMatchup + " games of " + rounds + " rounds per matchup on "
+                + threads + " threads (seed " + seed + ")");
+        Result result = new GreedTournament(strategies, GreedRules.STANDARD, gamesPerMatchup, rounds, seed, threads)
+                .run();
+        System.out.println(result);
+    }
+
+    /**
+     * Plays every game of the tournament and returns its result.
+     * @return - the result of the tournament.
+     */
+    public Result run() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            int matchups = matchupStrategies.length / 2;
+            Tally tally = pool.submit(() -> IntStream.range(0, matchups * gamesPerMatchup).parallel()
+                    .collect(() -> new Tally(matchups, rules), this::playGame, Tally::merge)).get();
+            return new Result(this, tally, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament failed!", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays the game at the given index and records its outcome.
+     * @param tally - the tally the outcome is recorded into.
+     * @param gameIndex - the index of the game.
+     */
+    private void playGame(Tally tally, int gameIndex) {
+        int matchup = gameIndex / gamesPerMatchup;
+        int swap = gameIndex % gamesPerMatchup % 2; // The second strategy of the matchup goes first in odd games.
+        Strategy[] seats = tally.seats;
+        seats[swap] = strategies[matchupStrategies[matchup * 2]];
+        seats[1 - swap] = strategies[matchupStrategies[matchup * 2 + 1]];
+
+        GreedManager game = tally.game;
+        game.resetGame();
+        DiceRoller roller = new DiceRoller(rules, GreedSimulation.playerSeed(seed, gameIndex));
+        for (int round = 0; round < rounds; round++) {
+            for (int seat = 0; seat < SEATS.length; seat++) {
+                playTurn(tally, roller, seat, rounds - round);
+            }
+        }
+
+        List<String> winners = game.getWinners();
+        if (winners.size() > 1) {
+            tally.draws[matchup]++;
+        } else if (winners.get(0).equals(SEATS[swap])) {
+            tally.firstWins[matchup]++;
+        } else {
+            tally.secondWins[matchup]++;
+        }
+    }
+
+    /**
+     * Plays a turn for the player in the given seat, who rolls until their strategy banks or a roll scores nothing.
+     * @param tally - the tally holding the game being played.
+     * @param roller - the roller of the game.
+     * @param seat - the seat of the player.
+     * @param roundsLeft - the number of rounds left in the game, including the current round.
+     */
+    private void playTurn(Tally tally, DiceRoller roller, int seat, int roundsLeft) {
+        GreedManager game = tally.game;
+        TurnState turn = tally.turn;
+        int[][] rolls = tally.rolls;
+        turn.start(game.get(SEATS[seat]), game.get(SEATS[1 - seat]), roundsLeft);
+        do {
+            int[] roll = rolls[turn.getRollCount()];
+            roller.roll(roll);
+            int rollScore = rules.score(roll);
+            if (rollScore == 0) {
+                return;
+            }
+            turn.addRoll(rollScore);
+        } while (turn.getRollCount() < MAX_ROLLS_PER_TURN && tally.seats[seat].rollAgain(turn));
+        for (int i = 0; i < turn.getRollCount(); i++) {
+            game.put(SEATS[seat], rolls[i]);
+        }
+    }
+
+    /**
+     * Returns the lower and upper bound of the 95% Wilson score interval of the given win rate.
+     * @param winRate - the observed win rate.
+     * @param games - the number of games the win rate was observed over.
+     * @return - the lower and upper bound of the interval.
+     */
+    static double[] confidenceInterval(double winRate, long games) {
+        double z2 = Z * Z / games;
+        double center = (winRate + z2 / 2) / (1 + z2);
+        double halfWidth = Z * Math.sqrt(winRate * (1 - winRate) / games + z2 / (4 * games)) / (1 + z2);
+        return new double[]{Math.max(0, center - halfWidth), Math.min(1, center + halfWidth)};
+    }
+
+    /**
+     * Inner class which counts the outcomes of the games of each matchup, along with the game, turn and rolls
+     * reused by every game played into it.
+     */
+    private static class Tally {
+        public long[] firstWins; // The games won by the first strategy of each matchup.
+        public long[] secondWins; // The games won by the second strategy of each matchup.
+        public long[] draws;
+        public GreedManager game;
+        public TurnState turn;
+        public int[][] rolls;
+        public Strategy[] seats;
+
+        public Tally(int matchups, GreedRules rules) {
+            firstWins = new long[matchups];
+            secondWins = new long[matchups];
+            draws = new long[matchups];
+            game = new GreedManager(new HashSet<>(Arrays.asList(SEATS)), rules);
+            turn = new TurnState(rules);
+            rolls = new int[MAX_ROLLS_PER_TURN][rules.getDiceCount()];
+            seats = new Strategy[SEATS.length];
+        }
+
+        public void merge(Tally other) {
+            for (int i = 0; i < firstWins.length; i++) {
+                firstWins[i] += other.firstWins[i];
+                secondWins[i] += other.secondWins[i];
+                draws[i] += other.draws[i];
+            }
+        }
+    }
+
+    /**
+     * Class which stores the result of a tournament.
+     */
+    public static class Result {
+        private final Strategy[] strategies;
+        private final int[] matchupStrategies;
+        private final double[][] points; // points[i][j] is the wins of strategy i against j, a draw counting half.
+        private final int gamesPerMatchup;
+        private final long elapsedNanos;
+
+        private Result(GreedTournament tournament, Tally tally, long elapsedNanos) {
+            this.strategies = tournament.strategies;
+            this.matchupStrategies = tournament.matchupStrategies;
+            this.gamesPerMatchup = tournament.gamesPerMatchup;
+            this.elapsedNanos = elapsedNanos;
+            points = new double[strategies.length][strategies.length];
+            for (int matchup = 0; matchup < tally.draws.length; matchup++) {
+                int first = matchupStrategies[matchup * 2];
+                int second = matchupStrategies[matchup * 2 + 1];
+                points[first][second] = tally.firstWins[matchup] + tally.draws[matchup] / 2.0;
+                points[second][first] = tally.secondWins[matchup] + tally.draws[matchup] / 2.0;
+            }
+        }
+
+        /**
+         * Returns the total number of games in the tournament.
+         * @return - the total number of games in the tournament.
+         */
+        public long getGameCount() {
+            return (long) matchupStrategies.length / 2 * gamesPerMatchup;
+        }
+
+        /**
+         * Returns the number of games each strategy played.
+         * @return - the number of games each strategy played.
+         */
+        public long getGamesPerStrategy() {
+            return (long) (strategies.length - 1) * gamesPerMatchup;
+        }
+
+        /**
+         * Returns the fraction of its games the strategy at the given index won, where a draw counts as half a win.
+         * @param strategy - the index of the strategy in the tournament.
+         * @return - the win rate of the strategy.
+         * @throws IndexOutOfBoundsException if there is no strategy at the given index.
+         */
+        public double getWinRate(int strategy) {
+            checkIndex(strategy);
+            double total = 0;
+            for (double matchupPoints : points[strategy]) {
+                total += matchupPoints;
+            }
+            return total / getGamesPerStrategy();
+        }
+
+        /**
+         * Returns the fraction of its games against the given opponent the given strategy won, where a draw counts
+         * as half a win.
+         * @param strategy - the index of the strategy in the tournament.
+         * @param opponent - the index of the opponent in the tournament.
+         * @return - the win rate of the strategy against the opponent.
+         * @throws IndexOutOfBoundsException if there is no strategy at either index.
+         * @throws IllegalArgumentException if strategy and opponent are the same.
+         */
+        public double getWinRate(int strategy, int opponent) {
+            checkIndex(strategy);
+            checkIndex(opponent);
+            if (strategy == opponent) {
+                throw new IllegalArgumentException("A strategy does not play against itself!");
+            }
+            return points[strategy][opponent] / gamesPerMatchup;
+        }
+
+        /**
+         * Returns the lower and upper bound of the 95% confidence interval of the win rate of the given strategy.
+         * @param strategy - the index of the strategy in the tournament.
+         * @return - the lower and upper bound of the interval.
+         * @throws IndexOutOfBoundsException if there is no strategy at the given index.
+         */
+        public double[] getConfidenceInterval(int strategy) {
+            return confidenceInterval(getWinRate(strategy), getGamesPerStrategy());
+        }
+
+        /**
+         * Returns the lower and upper bound of the 95% confidence interval of the win rate of the given strategy
+         * against the given opponent.
+         * @param strategy - the index of the strategy in the tournament.
+         * @param opponent - the index of the opponent in the tournament.
+         * @return - the lower and upper bound of the interval.
+         * @throws IndexOutOfBoundsException if there is no strategy at either index.
+         * @throws IllegalArgumentException if strategy and opponent are the same.
+         */
+        public double[] getConfidenceInterval(int strategy, int opponent) {
+            return confidenceInterval(getWinRate(strategy, opponent), gamesPerMatchup);
+        }
+
+        /**
+         * Returns the time the tournament took in nanoseconds.
+         * @return - the time the tournament took in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the number of games played per second.
+         * @return - the number of games played per second.
+         */
+        public double getGamesPerSecond() {
+            return getGameCount() / (Math.max(elapsedNanos, 1) / 1e9);
+        }
+
+        /**
+         * Returns a report of the throughput and of the win rates of each strategy, from the highest win rate down.
+         * @return - a report of the tournament.
+         */
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d games in %.3f s (%.0f games/sec)%n",
+                    getGameCount(), elapsedNanos / 1e9, getGamesPerSecond()));
+            Integer[] order = new Integer[strategies.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(getWinRate(b), getWinRate(a)));
+            sb.append("WIN RATES (95% CONFIDENCE INTERVAL)");
+            for (int i : order) {
+                double[] interval = getConfidenceInterval(i);
+                sb.append(System.lineSeparator()).append(String.format("%-16s %.4f (%.4f - %.4f)",
+                        strategies[i].getName(), getWinRate(i), interval[0], interval[1]));
+                for (int j : order) {
+                    if (i != j) {
+                        sb.append(String.format("%n    vs %-16s %.4f", strategies[j].getName(), getWinRate(i, j)));
+                    }
+                }
+            }
+            return sb.toString();
+        }
+
+        private void checkIndex(int strategy) {
+            if (strategy < 0 || strategy >= strategies.length) {
+                throw new IndexOutOfBoundsException("There is no strategy at index " + strategy + "!");
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * LatencyHistogram counts how long an operation took, in nanoseconds, in the same way HdrHistogram does: every
+ * power of two is split into SUB_BUCKETS equally sized buckets, so any recorded value is known to within about 3%
+ * no matter how large it is, and the whole range of a long fits in a fixed array of counts.
+ * LatencyHistogram will provide the following features:
+ * - Recording a value in constant time without creating any objects.
+ * - Retrieving the number of recorded values, their mean and their maximum.
+ * - Retrieving the value at any percentile.
+ *
+ * A LatencyHistogram is meant to be written by one thread and read by any thread. Every count is published with
+ * a release store instead of an atomic increment, so recording stays cheap, and readers never see a torn value.
+ * If several threads record into the same histogram at once, some of their values may be lost.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    public static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Number of buckets in each power of two.
+
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS; // Values below this have a bucket of their own.
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (62 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int COUNT = BUCKET_COUNT; // Slot which holds the number of recorded values.
+    private static final int SUM = BUCKET_COUNT + 1; // Slot which holds the sum of every recorded value.
+    private static final int MAX = BUCKET_COUNT + 2; // Slot which holds the largest recorded value.
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Initializes an empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT + 3);
+    }
+
+    /**
+     * Records a single value. Negative values are recorded as 0.
+     * @param value - the value to record, usually a duration in nanoseconds.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        int bucket = bucketOf(value);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        counts.lazySet(COUNT, counts.get(COUNT) + 1);
+        counts.lazySet(SUM, counts.get(SUM) + value);
+        if (value > counts.get(MAX)) {
+            counts.lazySet(MAX, value);
+        }
+    }
+
+    /**
+     * Records the time between the given start time, taken from System.nanoTime(), and now.
+     * @param startNanos - the value of System.nanoTime() when the operation started.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return - the number of recorded values.
+     */
+    public long getCount() {
+        return counts.get(COUNT);
+    }
+
+    /**
+     * Returns the mean of the recorded values, or 0 if no value has been recorded.
+     * @return - the mean of the recorded values.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) counts.get(SUM) / count;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if no value has been recorded.
+     * @return - the largest recorded value.
+     */
+    public long getMax() {
+        return counts.get(MAX);
+    }
+
+    /**
+     * Returns the smallest value which the given percentage of recorded values are less than or equal to,
+     * rounded up to the top of its bucket. If no value has been recorded, return 0.
+     * @param percentile - the percentage, between 0 and 100.
+     * @return - the value at the given percentile.
+     * @throws IllegalArgumentException if percentile is not between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Given percentile must be between 0 and 100!");
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            count += snapshot[bucket];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), getMax());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.lazySet(i, 0);
+        }
+    }
+
+    /**
+     * Returns the index of the bucket which holds the given non-negative value.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift); // Between SUB_BUCKETS and 2 * SUB_BUCKETS - 1.
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest value which belongs in the given bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * LeaderboardEntry represents a single row of a leaderboard: the rank of a player, their name and their score.
+ * The player at the top of the leaderboard has a rank of 1. Players with the same score still get different
+ * ranks, with the lexicographically smaller name ranked first.
+ */
+
+import java.util.Objects;
+
+public class LeaderboardEntry {
+    private final int rank;
+    private final String name;
+    private final int score;
+
+    /**
+     * Constructs a new LeaderboardEntry with the given rank, name and score.
+     * @param rank - the rank of the player, starting at 1.
+     * @param name - the name of the player.
+     * @param score - the score of the player.
+     */
+    public LeaderboardEntry(int rank, String name, int score) {
+        this.rank = rank;
+        this.name = name;
+        this.score = score;
+    }
+
+    /**
+     * Returns the rank of the player, starting at 1.
+     * @return - the rank of the player.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Returns the name of the player.
+     * @return - the name of the player.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the score of the player.
+     * @return - the score of the player.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof LeaderboardEntry)) {
+            return false;
+        }
+        LeaderboardEntry other = (LeaderboardEntry) o;
+        return rank == other.rank && score == other.score && name.equals(other.name);
+    }
+
+    public int hashCode() {
+        return Objects.hash(rank, name, score);
+    }
+
+    /**
+     * Returns a String representation of this LeaderboardEntry in the same format as a row of the leaderboard.
+     * One example may include:
+     * "1. playerName (score)"
+     * @return - a String representation of this LeaderboardEntry.
+     */
+    public String toString() {
+        return rank + ". " + name + " (" + score + ")";
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * LeaderboardShard is one part of a ShardedLeaderboard. Each shard holds a fixed subset of the players and keeps
+ * its own leaderboard of them, ordered the same way as GreedManager: by score from highest to lowest, with the
+ * lexicographically smaller name first when scores are tied. A shard may live in the same process (LocalShard) or
+ * on another node which is reached over a socket (RemoteShard).
+ */
+
+import java.util.List;
+
+public interface LeaderboardShard {
+    /**
+     * Updates the score of the given player using the given diceValues.
+     * @param playerName - the name of the player.
+     * @param diceValues - the dice values which the player rolled.
+     * @throws IllegalArgumentException if the player is not in the shard or the roll is not valid.
+     */
+    void put(String playerName, int[] diceValues);
+
+    /**
+     * Returns the score of the given player, or -1 if the player is not in the shard.
+     * @param playerName - the name of the player.
+     * @return - the score of the given player, or -1 if the player is not in the shard.
+     */
+    int get(String playerName);
+
+    /**
+     * Returns the number of players in the shard.
+     * @return - the number of players in the shard.
+     */
+    int getPlayerCount();
+
+    /**
+     * Returns the number of players in the shard who would come before a player with the given name and score,
+     * whether or not that player is in the shard.
+     * @param score - the score of the player.
+     * @param playerName - the name of the player.
+     * @return - the number of players in the shard who would come before the given player.
+     */
+    int getPlayerCountBefore(int score, String playerName);
+
+    /**
+     * Returns the given page of the leaderboard of the shard, where page 0 holds the pageSize players at the top.
+     * The ranks of the rows are ranks within the shard.
+     * @param page - the number of the page, starting at 0.
+     * @param pageSize - the number of rows on each page.
+     * @return - the rows on the given page, which is empty if the page is past the end of the leaderboard.
+     * @throws IllegalArgumentException if page is negative or pageSize is not positive.
+     */
+    List<LeaderboardEntry> getLeaderboardPage(int page, int pageSize);
+}
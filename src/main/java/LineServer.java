@@ -0,0 +1,147 @@
+/**
+ * LineServer handles the connections of GreedServer and ShardServer, which speak the same kind of protocol: every
+ * request is one line whose fields are separated by tabs, and every response is one line. It listens on the
+ * loopback address and answers each connection on its own virtual thread when the Java runtime supports them, and
+ * on a pooled platform thread otherwise. What each request means is left to the handler it is given.
+ */
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class LineServer implements Closeable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections;
+    private final Function<String, String> handler;
+    private final Thread acceptor;
+    private final Set<Socket> clients; // Every connection which is still open.
+
+    /**
+     * Starts a LineServer which listens on the loopback address at the given port and answers every request line
+     * with the given handler. The handler may be called from many threads at once, as soon as this returns.
+     * @param port - the port to listen on, or 0 to pick any free port.
+     * @param name - the name of the thread which accepts connections.
+     * @param handler - returns the response line to a request line.
+     * @throws IOException if the port cannot be opened.
+     */
+    LineServer(int port, String name, Function<String, String> handler) throws IOException {
+        this.handler = handler;
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        connections = newConnectionExecutor();
+        clients = ConcurrentHashMap.newKeySet();
+        acceptor = new Thread(this::acceptConnections, name);
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * @return - the port the server is listening on.
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes every open connection. Closing the socket of a connection is what
+     * wakes up a thread blocked reading from it, since platform threads ignore interrupts while reading a socket.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+        try {
+            acceptor.join();
+            for (Socket client : clients) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    // The connection is being closed anyway.
+                }
+            }
+            connections.shutdownNow();
+            connections.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Throws an IllegalArgumentException if the request has fewer than the given number of fields.
+     * @param fields - the fields of the request, starting with the command.
+     * @param count - the number of fields the command needs, including itself.
+     * @throws IllegalArgumentException if there are fewer than count fields.
+     */
+    static void requireFields(String[] fields, int count) {
+        if (fields.length < count) {
+            throw new IllegalArgumentException(fields[0] + " needs " + (count - 1) + " arguments!");
+        }
+    }
+
+    /**
+     * Returns an executor which runs every task on a new virtual thread if the Java runtime supports them.
+     * Otherwise, returns an executor backed by a pool of platform threads.
+     * @return - an executor for connections.
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed and hands each of them to the connection executor.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                clients.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Could not accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers every request on the given connection until the client quits or disconnects.
+     * Responses are only flushed once there are no more pipelined requests waiting to be read.
+     */
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            client.setTcpNoDelay(true);
+            String request = in.readLine();
+            while (request != null && !request.trim().equalsIgnoreCase("QUIT")) {
+                out.write(handler.apply(request));
+                out.newLine();
+                if (!in.ready()) {
+                    out.flush();
+                }
+                request = in.readLine();
+            }
+            out.flush();
+        } catch (SocketException e) {
+            // The client disconnected or the server is closing.
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        } finally {
+            clients.remove(socket);
+        }
+    }
+}
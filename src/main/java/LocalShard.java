@@ -0,0 +1,50 @@
+/**
+ * LocalShard is a LeaderboardShard which keeps its players in a GreedManager in the same process.
+ * Every method is synchronized so a ShardServer may answer several connections from the same shard at once.
+ */
+
+import java.util.List;
+import java.util.Set;
+
+public class LocalShard implements LeaderboardShard {
+    private final GreedManager game;
+
+    /**
+     * Initializes a LocalShard for the given players, who all start with a score of 0. Players are split between
+     * shards by the hash of their name, so a shard may hold any number of them, including 1 or none.
+     * @param playerNames - the players in the shard.
+     * @param rules - the rules of the game.
+     */
+    public LocalShard(Set<String> playerNames, GreedRules rules) {
+        game = GreedManager.forShard(playerNames, rules);
+    }
+
+    public synchronized void put(String playerName, int[] diceValues) {
+        game.put(playerName, diceValues);
+    }
+
+    public synchronized int get(String playerName) {
+        return game.get(playerName);
+    }
+
+    public synchronized int getPlayerCount() {
+        return game.getPlayerCount();
+    }
+
+    public synchronized int getPlayerCountBefore(int score, String playerName) {
+        return game.getPlayerCountBefore(score, playerName);
+    }
+
+    public synchronized List<LeaderboardEntry> getLeaderboardPage(int page, int pageSize) {
+        return game.getLeaderboardPage(page, pageSize);
+    }
+
+    /**
+     * Returns the game which holds the players of the shard. It must only be used while holding the lock of the
+     * shard.
+     * @return - the game which holds the players of the shard.
+     */
+    public GreedManager getGame() {
+        return game;
+    }
+}
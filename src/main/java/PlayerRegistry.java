@@ -0,0 +1,112 @@
+/**
+ * PlayerRegistry gives every player name an int id which is shared by every game that uses the name, so a name
+ * is only stored once no matter how many games it is in. Each id counts how many games hold it, and once no game
+ * holds it the name is forgotten and the id is handed out again to the next new name.
+ */
+
+import java.util.*;
+
+public class PlayerRegistry {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> ids;
+    private String[] names; // The name of each id, or null if the id is free.
+    private int[] references; // The number of games which hold each id.
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+
+    /**
+     * Initializes an empty PlayerRegistry.
+     */
+    public PlayerRegistry() {
+        ids = new HashMap<>();
+        names = new String[INITIAL_CAPACITY];
+        references = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the id of the given name, registering it if it is new, and adds one reference to the id.
+     * @param name - the name of the player.
+     * @return - the id of the given name.
+     */
+    public int acquire(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+            if (id >= names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+                references = Arrays.copyOf(references, references.length * 2);
+            }
+            names[id] = name;
+            ids.put(name, id);
+        }
+        references[id]++;
+        return id;
+    }
+
+    /**
+     * Removes one reference from the given id. Once an id has no references left, its name is forgotten.
+     * @param id - the id of the player.
+     * @throws IllegalArgumentException if the id is not registered.
+     */
+    public void release(int id) {
+        if (!isRegistered(id)) {
+            throw new IllegalArgumentException("Given id is not registered!");
+        }
+        references[id]--;
+        if (references[id] == 0) {
+            ids.remove(names[id]);
+            names[id] = null;
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    /**
+     * Returns the id of the given name, or -1 if the name is not registered.
+     * @param name - the name of the player.
+     * @return - the id of the given name, or -1 if the name is not registered.
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the name of the given id.
+     * @param id - the id of the player.
+     * @return - the name of the given id.
+     * @throws IllegalArgumentException if the id is not registered.
+     */
+    public String nameOf(int id) {
+        if (!isRegistered(id)) {
+            throw new IllegalArgumentException("Given id is not registered!");
+        }
+        return names[id];
+    }
+
+    /**
+     * Returns the number of games which hold the given id.
+     * @param id - the id of the player.
+     * @return - the number of games which hold the given id, or 0 if the id is not registered.
+     */
+    public int getReferenceCount(int id) {
+        return isRegistered(id) ? references[id] : 0;
+    }
+
+    /**
+     * Returns the number of registered names.
+     * @return - the number of registered names.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    private boolean isRegistered(int id) {
+        return id >= 0 && id < nextId && names[id] != null;
+    }
+}
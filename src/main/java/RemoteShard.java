@@ -0,0 +1,96 @@
+/**
+ * RemoteShard is a LeaderboardShard which lives on another node and is reached through a ShardServer.
+ * Every method sends one request over a single connection and waits for the response, so a RemoteShard may be
+ * shared between threads but only has one request in flight at a time. A request which the ShardServer rejects
+ * throws an IllegalArgumentException, and a connection which fails throws an UncheckedIOException.
+ */
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RemoteShard implements LeaderboardShard, Closeable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    /**
+     * Connects to the ShardServer which listens on the loopback address at the given port.
+     * @param port - the port of the ShardServer.
+     * @throws IOException if the connection cannot be opened.
+     */
+    public RemoteShard(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    public void put(String playerName, int[] diceValues) {
+        StringBuilder sb = new StringBuilder("PUT\t").append(playerName);
+        for (int diceValue : diceValues) {
+            sb.append('\t').append(diceValue);
+        }
+        send(sb.toString());
+    }
+
+    public int get(String playerName) {
+        return Integer.parseInt(send("GET\t" + playerName)[1]);
+    }
+
+    public int getPlayerCount() {
+        return Integer.parseInt(send("COUNT")[1]);
+    }
+
+    public int getPlayerCountBefore(int score, String playerName) {
+        return Integer.parseInt(send("BEFORE\t" + score + "\t" + playerName)[1]);
+    }
+
+    public List<LeaderboardEntry> getLeaderboardPage(int page, int pageSize) {
+        String[] fields = send("PAGE\t" + page + "\t" + pageSize);
+        int from = page * pageSize;
+        List<LeaderboardEntry> entries = new ArrayList<>((fields.length - 1) / 2);
+        for (int i = 1; i + 1 < fields.length; i += 2) {
+            entries.add(new LeaderboardEntry(from + entries.size() + 1, fields[i], Integer.parseInt(fields[i + 1])));
+        }
+        return entries;
+    }
+
+    /**
+     * Tells the ShardServer the connection is over and closes it.
+     */
+    public synchronized void close() throws IOException {
+        try {
+            out.write("QUIT\n");
+            out.flush();
+        } finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Sends a single request and returns the fields of the response after checking that it starts with OK.
+     */
+    private synchronized String[] send(String request) {
+        String response;
+        try {
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            response = in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (response == null) {
+            throw new UncheckedIOException(new EOFException("Shard closed the connection!"));
+        }
+        String[] fields = response.split("\t", -1);
+        if (!fields[0].equals("OK")) {
+            throw new IllegalArgumentException(fields.length > 1 ? fields[1] : response);
+        }
+        return fields;
+    }
+}
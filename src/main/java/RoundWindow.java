@@ -0,0 +1,180 @@
+/**
+ * RoundWindow keeps a leaderboard of the points each player scored over the last few rounds of a GreedManager,
+ * next to the all-time leaderboard of the game. A window of 1 round is the leaderboard of the current round.
+ * RoundWindow will provide the following features:
+ * - Retrieving the score of a player within the window.
+ * - Retrieving the rank of a player within the window.
+ * - Retrieving the players with the k highest scores within the window.
+ *
+ * The points each player scored in each round of the window are kept in a ring buffer with one slot per round,
+ * and the sum over the window is ranked by a ScoreTree over the same player ids as the game. A put moves the
+ * player once in the tree, and ending a round only moves the players who scored in the round which falls out of
+ * the window, since each slot remembers which players scored in it. Updating a score and retrieving a rank cost
+ * O(log n) and retrieving the top k players costs O(log n + k). The ring buffer holds rounds * n ints.
+ *
+ * A RoundWindow is created with GreedManager.addWindow and updated by the game, and a round is ended with
+ * GreedManager.endRound. Windows are not kept in a GreedEventLog or a GreedSnapshot, so a recovered game starts
+ * with empty windows.
+ */
+
+import java.util.*;
+
+public class RoundWindow {
+    private static final int INITIAL_TOUCHED = 16;
+
+    private final String[] names; // The name of each player, indexed by id, in name order.
+    private final int rounds;
+    private final int[] deltas; // deltas[slot * names.length + id] is the score of a player in the round of a slot.
+    private final int[][] touched; // touched[slot] holds the players who scored in the round of a slot.
+    private final int[] touchedCount;
+    private final int[] windowScores; // The score of each player over the window, indexed by id.
+    private final ScoreTree leaderboard;
+    private int slot; // The slot of the current round.
+    private int round; // The number of rounds which have ended.
+
+    /**
+     * Initializes a RoundWindow over the given number of rounds where every player has a score of 0.
+     * @param names - the name of each player, indexed by id, in name order.
+     * @param rounds - the number of rounds in the window, including the current round.
+     * @throws IllegalArgumentException if rounds is not positive or the ring buffer would be too large.
+     */
+    RoundWindow(String[] names, int rounds) {
+        if (rounds <= 0) {
+            throw new IllegalArgumentException("Given rounds must be positive!");
+        } else if ((long) rounds * names.length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Given rounds need a window which is too large!");
+        }
+        this.names = names;
+        this.rounds = rounds;
+        deltas = new int[rounds * names.length];
+        touched = new int[rounds][INITIAL_TOUCHED];
+        touchedCount = new int[rounds];
+        windowScores = new int[names.length];
+        leaderboard = new ScoreTree(windowScores);
+        reset();
+    }
+
+    /**
+     * Returns the number of rounds in the window, including the current round.
+     * @return - the number of rounds in the window.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns the number of rounds which have ended since the window was created or the game was reset.
+     * @return - the number of rounds which have ended.
+     */
+    public int getRoundCount() {
+        return round;
+    }
+
+    /**
+     * Returns the score of the given player within the window, or -1 if the player is not in the game.
+     * @param playerName - the name of the player.
+     * @return - the score of the given player within the window, or -1 if the player is not in the game.
+     */
+    public int get(String playerName) {
+        int id = Arrays.binarySearch(names, playerName);
+        return id < 0 ? -1 : windowScores[id];
+    }
+
+    /**
+     * Returns the rank of the given player within the window, where the player at the top has a rank of 1,
+     * or -1 if the player is not in the game.
+     * @param playerName - the name of the player.
+     * @return - the rank of the given player within the window, or -1 if the player is not in the game.
+     */
+    public int getRank(String playerName) {
+        int id = Arrays.binarySearch(names, playerName);
+        return id < 0 ? -1 : leaderboard.rankOf(id) + 1;
+    }
+
+    /**
+     * Returns the k rows at the top of the leaderboard of the window. If there are fewer than k players in the
+     * game, every player is returned.
+     * @param k - the number of rows to return.
+     * @return - the k rows at the top of the leaderboard of the window.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<LeaderboardEntry> getTop(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Given k must not be negative!");
+        }
+        int[] topIds = leaderboard.ids(0, k);
+        List<LeaderboardEntry> entries = new ArrayList<>(topIds.length);
+        for (int i = 0; i < topIds.length; i++) {
+            entries.add(new LeaderboardEntry(i + 1, names[topIds[i]], windowScores[topIds[i]]));
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the names of the k players at the top of the leaderboard of the window.
+     * @param k - the number of players to return.
+     * @return - the names of the k players at the top of the leaderboard of the window.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<String> getTopPlayers(int k) {
+        List<String> topPlayers = new ArrayList<>();
+        for (LeaderboardEntry entry : getTop(k)) {
+            topPlayers.add(entry.getName());
+        }
+        return topPlayers;
+    }
+
+    /**
+     * Adds the given score onto the given player in the current round. Called by GreedManager on every put.
+     */
+    void add(int id, int score) {
+        if (score == 0) {
+            return;
+        }
+        int index = slot * names.length + id;
+        if (deltas[index] == 0) {
+            if (touchedCount[slot] == touched[slot].length) {
+                touched[slot] = Arrays.copyOf(touched[slot], touched[slot].length * 2);
+            }
+            touched[slot][touchedCount[slot]++] = id;
+        }
+        deltas[index] += score;
+        leaderboard.remove(id);
+        windowScores[id] += score;
+        leaderboard.add(id);
+    }
+
+    /**
+     * Ends the current round and starts the next one, which takes the slot of the oldest round in the window.
+     * The scores of the oldest round are taken off the players who scored in it. Called by GreedManager.endRound.
+     */
+    void endRound() {
+        slot = (slot + 1) % rounds;
+        int offset = slot * names.length;
+        for (int i = 0; i < touchedCount[slot]; i++) {
+            int id = touched[slot][i];
+            leaderboard.remove(id);
+            windowScores[id] -= deltas[offset + id];
+            leaderboard.add(id);
+            deltas[offset + id] = 0;
+        }
+        touchedCount[slot] = 0;
+        round++;
+    }
+
+    /**
+     * Sets every score in the window back to 0. Called by GreedManager.resetGame.
+     */
+    void reset() {
+        Arrays.fill(deltas, 0);
+        Arrays.fill(touchedCount, 0);
+        Arrays.fill(windowScores, 0);
+        int[] orderedIds = new int[names.length];
+        for (int id = 0; id < names.length; id++) {
+            orderedIds[id] = id;
+        }
+        leaderboard.build(orderedIds);
+        slot = 0;
+        round = 0;
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * ScoreBuckets counts how many players have reached each score. Every score in a game of Greed is a multiple of
+ * a fixed step (50 with the standard scoring method), so the score of a player is kept as a bucket: their score
+ * divided by the step. ScoreBuckets only stores the buckets which hold at least one player, as an open addressing
+ * hash table from bucket to count, along with the highest bucket any player is in.
+ *
+ * There are never more occupied buckets than players, so the table is sized once from the number of players and
+ * takes the same memory no matter how high the scores grow. This gives the following costs with n players:
+ * - Updating the score of a player costs expected constant time, or O(n) when the only player in the highest
+ *   bucket moves down and the new highest bucket has to be found.
+ * - Retrieving the highest score and the number of players with exactly a given score is constant time.
+ * - Retrieving the number of players whose score is at least a given score costs O(n). GreedManager answers that
+ *   question from its ScoreTree in O(log n) instead, since a constant-time answer would need a count for every
+ *   bucket up to the highest score.
+ * Any multiple of the step between 0 and the largest int can be held.
+ */
+
+import java.util.Arrays;
+
+public class ScoreBuckets {
+    private static final int EMPTY = -1; // Marks a free slot, since no bucket is negative.
+
+    private final int playerCount;
+    private final int step;
+    private final int[] keys; // keys[slot] holds a bucket with at least one player, or EMPTY.
+    private final int[] counts; // counts[slot] holds the number of players in keys[slot].
+    private final int shift;
+    private int highestBucket;
+
+    /**
+     * Initializes a ScoreBuckets object where every player has a score of 0.
+     * @param playerCount - the number of players.
+     * @param step - every score is a multiple of this value.
+     * @throws IllegalArgumentException if step is not positive.
+     */
+    public ScoreBuckets(int playerCount, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Given step must be positive!");
+        }
+        this.playerCount = playerCount;
+        this.step = step;
+        // At least twice as many slots as players keeps the table at most half full.
+        int capacity = Integer.highestOneBit(Math.max(playerCount, 2) * 2 - 1) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        reset();
+    }
+
+    /**
+     * Returns true if the given score is a score the buckets can hold: not negative, a multiple of the step and
+     * no higher than the largest int. Otherwise, return false.
+     * @param score - the score to check.
+     * @return - true if the given score can be held. Otherwise, return false.
+     */
+    public boolean canHold(long score) {
+        return score >= 0 && score <= Integer.MAX_VALUE && score % step == 0;
+    }
+
+    /**
+     * Moves a player from their old score to their new score. Both scores are checked before anything changes,
+     * so a move which throws leaves the buckets unchanged.
+     * @param oldScore - the score of the player before it changed.
+     * @param newScore - the score of the player after it changed.
+     * @throws IllegalArgumentException if either score cannot be held.
+     */
+    public void move(int oldScore, int newScore) {
+        int oldBucket = bucketOf(oldScore);
+        int newBucket = bucketOf(newScore);
+        if (oldBucket == newBucket) {
+            return;
+        }
+        boolean emptied = add(oldBucket, -1);
+        add(newBucket, 1);
+        if (newBucket > highestBucket) {
+            highestBucket = newBucket;
+        } else if (emptied && oldBucket == highestBucket) {
+            highestBucket = findHighestBucket();
+        }
+    }
+
+    /**
+     * Recounts every bucket from the given scores in O(players).
+     * @param scores - the score of every player.
+     * @throws IllegalArgumentException if the number of scores does not equal to the number of players, or any
+     * score cannot be held.
+     */
+    public void rebuild(int[] scores) {
+        if (scores.length != playerCount) {
+            throw new IllegalArgumentException("Given scores do not match the number of players!");
+        }
+        for (int score : scores) {
+            bucketOf(score);
+        }
+        clear();
+        for (int score : scores) {
+            add(score / step, 1);
+            highestBucket = Math.max(highestBucket, score / step);
+        }
+    }
+
+    /**
+     * Sets the score of every player back to 0.
+     */
+    public void reset() {
+        clear();
+        add(0, playerCount);
+    }
+
+    /**
+     * Returns the highest score of any player.
+     * @return - the highest score of any player.
+     */
+    public int getHighestScore() {
+        return highestBucket * step;
+    }
+
+    /**
+     * Returns the number of players whose score is greater than or equal to the given score.
+     * @param score - the score to compare against.
+     * @return - the number of players whose score is greater than or equal to the given score.
+     */
+    public int countAtLeast(int score) {
+        if (score <= 0) {
+            return playerCount;
+        }
+        long bucket = (score + (long) step - 1) / step;
+        if (bucket > highestBucket) {
+            return 0;
+        }
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] >= bucket) {
+                count += counts[slot];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of players whose score is exactly the given score.
+     * @param score - the score to look for.
+     * @return - the number of players whose score is exactly the given score.
+     */
+    public int countWithScore(int score) {
+        if (score < 0 || score % step != 0) {
+            return 0;
+        }
+        int slot = slotOf(score / step);
+        return keys[slot] == EMPTY ? 0 : counts[slot];
+    }
+
+    /**
+     * Returns the bucket of the given score.
+     */
+    private int bucketOf(int score) {
+        if (!canHold(score)) {
+            throw new IllegalArgumentException("Given score " + score + " is not a multiple of " + step
+                    + " between 0 and " + Integer.MAX_VALUE + "!");
+        }
+        return score / step;
+    }
+
+    /**
+     * Empties every bucket.
+     */
+    private void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+        highestBucket = 0;
+    }
+
+    /**
+     * Returns the first slot to look for the given bucket in. Neighbouring buckets are spread over the table by
+     * multiplying them with a large odd constant and keeping the top bits.
+     */
+    private int homeOf(int bucket) {
+        return (bucket * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Returns the slot which holds the given bucket, or the free slot where it would be added.
+     */
+    private int slotOf(int bucket) {
+        int slot = homeOf(bucket);
+        while (keys[slot] != EMPTY && keys[slot] != bucket) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * Adds the given delta onto the count of the given bucket, and frees its slot once the bucket is empty.
+     * Returns true if the bucket was emptied.
+     */
+    private boolean add(int bucket, int delta) {
+        int slot = slotOf(bucket);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = bucket;
+        }
+        counts[slot] += delta;
+        if (counts[slot] > 0) {
+            return false;
+        }
+        remove(slot);
+        return true;
+    }
+
+    /**
+     * Frees the given slot and shifts back any later bucket in the same run which could no longer be found.
+     */
+    private void remove(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = homeOf(keys[next]);
+            // The bucket at next may move into the free slot unless its home lies cyclically in (free, next].
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                counts[free] = counts[next];
+                free = next;
+            }
+        }
+        keys[free] = EMPTY;
+        counts[free] = 0;
+    }
+
+    /**
+     * Returns the highest bucket holding any player by scanning every occupied slot.
+     */
+    private int findHighestBucket() {
+        int highest = 0;
+        for (int key : keys) {
+            highest = Math.max(highest, key);
+        }
+        return highest;
+    }
+}
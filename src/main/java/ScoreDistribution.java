@@ -0,0 +1,155 @@
+/**
+ * ScoreDistribution holds the probability of every possible score, where every score is a multiple of a fixed
+ * step. The probability of score k * step is stored at index k, so the distribution is a single array of doubles.
+ * ScoreDistribution is immutable.
+ */
+
+import java.util.Arrays;
+
+public class ScoreDistribution {
+    private final int step;
+    private final double[] probabilities; // probabilities[k] is the probability of a score of k * step.
+    private final double[] atLeast; // atLeast[k] is the probability of a score of at least k * step.
+
+    /**
+     * Initializes a ScoreDistribution. The probabilities are not copied and must not be changed afterwards.
+     * @param step - every score is a multiple of this value.
+     * @param probabilities - the probability of a score of k * step at index k.
+     */
+    ScoreDistribution(int step, double[] probabilities) {
+        this.step = step;
+        this.probabilities = probabilities;
+        atLeast = new double[probabilities.length + 1];
+        for (int k = probabilities.length - 1; k >= 0; k--) {
+            atLeast[k] = atLeast[k + 1] + probabilities[k];
+        }
+    }
+
+    /**
+     * Returns the value every score is a multiple of.
+     * @return - the value every score is a multiple of.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the highest score with a probability above 0. Scores which are so unlikely that their probability
+     * is smaller than the smallest double are treated as impossible.
+     * @return - the highest possible score.
+     */
+    public int getMaxScore() {
+        int k = probabilities.length - 1;
+        while (k > 0 && probabilities[k] == 0) {
+            k--;
+        }
+        return k * step;
+    }
+
+    /**
+     * Returns the probability of exactly the given score.
+     * @param score - the score.
+     * @return - the probability of exactly the given score.
+     */
+    public double getProbability(int score) {
+        if (score < 0 || score % step != 0 || score / step >= probabilities.length) {
+            return 0;
+        }
+        return probabilities[score / step];
+    }
+
+    /**
+     * Returns the probability of a score greater than or equal to the given score.
+     * @param score - the score to compare against.
+     * @return - the probability of a score greater than or equal to the given score.
+     */
+    public double getProbabilityAtLeast(int score) {
+        if (score <= 0) {
+            return 1;
+        }
+        long k = (score + (long) step - 1) / step;
+        return k >= probabilities.length ? 0 : Math.min(atLeast[(int) k], 1);
+    }
+
+    /**
+     * Returns the smallest score which the given fraction of outcomes are less than or equal to.
+     * @param fraction - the fraction of outcomes, between 0 and 1.
+     * @return - the score at the given fraction.
+     * @throws IllegalArgumentException if fraction is not between 0 and 1.
+     */
+    public int getPercentile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Given fraction must be between 0 and 1!");
+        }
+        double seen = 0;
+        for (int k = 0; k < probabilities.length; k++) {
+            seen += probabilities[k];
+            if (seen >= fraction - 1e-12) {
+                return k * step;
+            }
+        }
+        return getMaxScore();
+    }
+
+    /**
+     * Returns the expected score.
+     * @return - the expected score.
+     */
+    public double getMean() {
+        double mean = 0;
+        for (int k = 0; k < probabilities.length; k++) {
+            mean += probabilities[k] * k;
+        }
+        return mean * step;
+    }
+
+    /**
+     * Returns the variance of the score.
+     * @return - the variance of the score.
+     */
+    public double getVariance() {
+        double mean = getMean() / step;
+        double variance = 0;
+        for (int k = 0; k < probabilities.length; k++) {
+            variance += probabilities[k] * (k - mean) * (k - mean);
+        }
+        return variance * step * step;
+    }
+
+    /**
+     * Returns the probability of every score, where index k holds the probability of a score of k * step.
+     * @return - a copy of the probability of every score.
+     */
+    public double[] toArray() {
+        return probabilities.clone();
+    }
+
+    /**
+     * Returns the probability at index k without copying. Used by GreedOdds for convolution.
+     */
+    double probabilityAt(int k) {
+        return probabilities[k];
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < probabilities.length; k++) {
+            if (probabilities[k] > 0) {
+                sb.append(String.format("%8d: %.8f%n", k * step, probabilities[k]));
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof ScoreDistribution)) {
+            return false;
+        }
+        ScoreDistribution other = (ScoreDistribution) o;
+        return step == other.step && Arrays.equals(probabilities, other.probabilities);
+    }
+
+    public int hashCode() {
+        return 31 * step + Arrays.hashCode(probabilities);
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * ScoreTree ranks players who are identified by an int id from 0 to capacity - 1. The score of each player is read
+ * straight out of an int array which the owner of the ScoreTree keeps, so the tree itself never stores a score.
+ * Players are ordered with the highest score first, and players with the same score are ordered by their id.
+ *
+ * ScoreTree is a treap (a binary search tree whose nodes also follow a heap order on a priority) where every
+ * node remembers the size of its subtree. The nodes are the player ids themselves and the links live in int arrays,
+ * so no objects are created after construction. The priority of a node is a hash of its id.
+ * All of the following operations run in O(log n) expected time:
+ * - Adding a player.
+ * - Removing a player.
+ * - Retrieving the rank (position) of a player.
+ * - Retrieving the player at a given rank.
+ * - Counting the players whose score is at least a given score.
+ * - Counting the players who come before a given score and id.
+ * Copying k consecutive players starting at any rank costs O(log n + k).
+ * Building the whole tree from players who are already in leaderboard order costs O(n).
+ *
+ * The score of a player must not change while they are in the tree: remove them, change their score and add
+ * them back.
+ */
+
+import java.util.Arrays;
+
+public class ScoreTree {
+    private static final int NIL = -1;
+
+    private final int[] scores;
+    private final int[] left;
+    private final int[] right;
+    private final int[] size;
+    private int root;
+
+    /**
+     * Initializes an empty ScoreTree which can hold the players with ids from 0 to scores.length - 1.
+     * @param scores - the score of each player, indexed by their id.
+     */
+    public ScoreTree(int[] scores) {
+        this.scores = scores;
+        left = new int[scores.length];
+        right = new int[scores.length];
+        size = new int[scores.length];
+        root = NIL;
+    }
+
+    /**
+     * Returns the number of players in the tree.
+     * @return - the number of players in the tree.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns true if the given player is in the tree. Otherwise, return false.
+     * @param id - the id of the player.
+     * @return - true if the given player is in the tree. Otherwise, return false.
+     */
+    public boolean contains(int id) {
+        return size[id] != 0;
+    }
+
+    /**
+     * Adds the given player to the tree using their current score.
+     * @param id - the id of the player.
+     * @throws IllegalArgumentException if the player is already in the tree.
+     */
+    public void add(int id) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("Given player is already in the tree!");
+        }
+        left[id] = NIL;
+        right[id] = NIL;
+        size[id] = 1;
+        root = add(root, id);
+    }
+
+    /**
+     * Removes the given player from the tree. Their score must not have changed since they were added.
+     * @param id - the id of the player.
+     * @return - true if the player was in the tree. Otherwise, return false.
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) {
+            return false;
+        }
+        root = remove(root, id);
+        size[id] = 0;
+        return true;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given players in O(n). The players must already be in
+     * leaderboard order: highest score first and ties by id.
+     * @param orderedIds - the ids of the players, in leaderboard order.
+     * @throws IllegalArgumentException if the players are not in leaderboard order.
+     */
+    public void build(int[] orderedIds) {
+        clear();
+        for (int i = 1; i < orderedIds.length; i++) {
+            if (!before(orderedIds[i - 1], orderedIds[i])) {
+                throw new IllegalArgumentException("Given ids are not in leaderboard order!");
+            }
+        }
+
+        // Builds the treap as a Cartesian tree: the right spine is kept on a stack, and each new player
+        // adopts every node on the spine with a lower priority as its left subtree.
+        int[] spine = new int[orderedIds.length];
+        int top = -1;
+        for (int id : orderedIds) {
+            int last = NIL;
+            while (top >= 0 && priority(spine[top]) < priority(id)) {
+                last = spine[top];
+                top--;
+            }
+            left[id] = last;
+            right[id] = NIL;
+            if (top >= 0) {
+                right[spine[top]] = id;
+            }
+            top++;
+            spine[top] = id;
+        }
+        root = top >= 0 ? spine[0] : NIL;
+        computeSize(root);
+    }
+
+    /**
+     * Removes every player from the tree.
+     */
+    public void clear() {
+        Arrays.fill(size, 0);
+        root = NIL;
+    }
+
+    /**
+     * Returns the 0-based rank of the given player, that is the number of players that come before them.
+     * If the player is not in the tree, return -1.
+     * @param id - the id of the player.
+     * @return - the 0-based rank of the given player, or -1 if the player is not in the tree.
+     */
+    public int rankOf(int id) {
+        if (!contains(id)) {
+            return -1;
+        }
+        int rank = 0;
+        int node = root;
+        while (node != id) {
+            if (before(id, node)) {
+                node = left[node];
+            } else {
+                rank += size(left[node]) + 1;
+                node = right[node];
+            }
+        }
+        return rank + size(left[node]);
+    }
+
+    /**
+     * Returns the id of the player located at the given 0-based rank.
+     * @param index - the rank of the player.
+     * @return - the id of the player located at the given rank.
+     * @throws IndexOutOfBoundsException if index is negative or not less than size().
+     */
+    public int get(int index) {
+        if (index < 0 || size() <= index) {
+            throw new IndexOutOfBoundsException("Given index is outside of the tree!");
+        }
+        int node = root;
+        while (true) {
+            int leftSize = size(left[node]);
+            if (index < leftSize) {
+                node = left[node];
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = right[node];
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of players whose score is greater than or equal to the given score.
+     * @param score - the score to compare against.
+     * @return - the number of players whose score is greater than or equal to the given score.
+     */
+    public int countAtLeast(int score) {
+        int count = 0;
+        int node = root;
+        while (node != NIL) {
+            if (scores[node] >= score) {
+                count += size(left[node]) + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of players who come before a player with the given score and id, whether or not that
+     * player is in the tree.
+     * @param score - the score of the player.
+     * @param id - the id of the player.
+     * @return - the number of players who come before a player with the given score and id.
+     */
+    public int countBefore(int score, int id) {
+        int count = 0;
+        int node = root;
+        while (node != NIL) {
+            if (scores[node] > score || (scores[node] == score && node < id)) {
+                count += size(left[node]) + 1;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the ids of up to count players, starting at the given 0-based rank, into the given array.
+     * @param fromIndex - the rank of the first player copied.
+     * @param count - the largest number of players copied.
+     * @param ids - the array the ids are copied into, starting at index 0.
+     * @return - the number of ids copied.
+     */
+    public int copyIds(int fromIndex, int count, int[] ids) {
+        int from = Math.max(fromIndex, 0);
+        int to = (int) Math.min((long) from + Math.min(count, ids.length), size());
+        if (from >= to) {
+            return 0;
+        }
+        copyIds(root, from, to, 0, ids, from);
+        return to - from;
+    }
+
+    /**
+     * Returns the ids of up to count players, starting at the given 0-based rank.
+     * @param fromIndex - the rank of the first player returned.
+     * @param count - the largest number of players returned.
+     * @return - the ids of the players, in order.
+     */
+    public int[] ids(int fromIndex, int count) {
+        int available = Math.max(0, size() - Math.max(fromIndex, 0));
+        int[] ids = new int[Math.max(0, Math.min(count, available))];
+        copyIds(fromIndex, ids.length, ids);
+        return ids;
+    }
+
+    /**
+     * Copies the ids of the players in the subtree rooted at node whose ranks are between from (inclusive) and
+     * to (exclusive). offset is the rank of the first player in the subtree and start is the rank stored at ids[0].
+     */
+    private void copyIds(int node, int from, int to, int offset, int[] ids, int start) {
+        if (node == NIL) {
+            return;
+        }
+        int rank = offset + size(left[node]);
+        if (from < rank) {
+            copyIds(left[node], from, to, offset, ids, start);
+        }
+        if (from <= rank && rank < to) {
+            ids[rank - start] = node;
+        }
+        if (rank + 1 < to) {
+            copyIds(right[node], from, to, rank + 1, ids, start);
+        }
+    }
+
+    /**
+     * Returns true if player a comes before player b on the leaderboard.
+     */
+    private boolean before(int a, int b) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    /**
+     * Inserts the given player into the subtree rooted at node and returns the new root of that subtree.
+     */
+    private int add(int node, int id) {
+        if (node == NIL) {
+            return id;
+        }
+        if (before(id, node)) {
+            left[node] = add(left[node], id);
+            if (priority(left[node]) > priority(node)) {
+                node = rotateRight(node);
+            }
+        } else {
+            right[node] = add(right[node], id);
+            if (priority(right[node]) > priority(node)) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Removes the given player from the subtree rooted at node and returns the new root of that subtree.
+     */
+    private int remove(int node, int id) {
+        if (node == id) {
+            return merge(left[node], right[node]);
+        }
+        if (before(id, node)) {
+            left[node] = remove(left[node], id);
+        } else {
+            right[node] = remove(right[node], id);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Merges two subtrees where every player of a comes before every player of b.
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        } else if (b == NIL) {
+            return a;
+        } else if (priority(a) > priority(b)) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            update(b);
+            return b;
+        }
+    }
+
+    private int rotateRight(int node) {
+        int child = left[node];
+        left[node] = right[child];
+        right[child] = node;
+        update(node);
+        return child;
+    }
+
+    private int rotateLeft(int node) {
+        int child = right[node];
+        right[node] = left[child];
+        left[child] = node;
+        update(node);
+        return child;
+    }
+
+    /**
+     * Sets the size of every node in the subtree rooted at node and returns the size of the subtree.
+     */
+    private int computeSize(int node) {
+        if (node == NIL) {
+            return 0;
+        }
+        size[node] = 1 + computeSize(left[node]) + computeSize(right[node]);
+        return size[node];
+    }
+
+    private void update(int node) {
+        size[node] = 1 + size(left[node]) + size(right[node]);
+    }
+
+    private int size(int node) {
+        return node == NIL ? 0 : size[node];
+    }
+
+    /**
+     * Returns the priority of the given node. The hash spreads consecutive ids so the tree stays balanced
+     * no matter which order the players are added in.
+     */
+    private static int priority(int id) {
+        int h = id * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * ShardServer lets a RemoteShard on another node use a LeaderboardShard over a local socket. Its connections are
+ * handled by a LineServer like those of GreedServer, each on its own virtual thread when the Java runtime supports
+ * them.
+ *
+ * The protocol is line based. Every request is one line whose fields are separated by tabs, and every response
+ * is one line which starts with OK or ERR. Player names may contain spaces but not tabs.
+ *   PUT player d1 .. dN    - scores the given dice values.
+ *   GET player             - replies with the score of the player, or -1 if the player is not in the shard.
+ *   COUNT                  - replies with the number of players in the shard.
+ *   BEFORE score player    - replies with the number of players who would come before the given player.
+ *   PAGE page pageSize     - replies with the name and the score of every row on the page, two fields per row.
+ *   QUIT                   - closes the connection.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Locale;
+
+public class ShardServer implements Closeable {
+    private final LeaderboardShard shard;
+    private final LineServer server;
+
+    /**
+     * Starts a ShardServer for the given shard which listens on the loopback address at the given port.
+     * @param shard - the shard to serve. It must be safe to use from several threads at once.
+     * @param port - the port to listen on, or 0 to pick any free port.
+     * @throws IOException if the port cannot be opened.
+     */
+    public ShardServer(LeaderboardShard shard, int port) throws IOException {
+        this.shard = shard;
+        server = new LineServer(port, "shard-server-acceptor", this::handle);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * @return - the port the server is listening on.
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+
+    /**
+     * Stops accepting connections and closes every open connection.
+     * @throws IOException if the server socket cannot be closed.
+     */
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Handles a single request line and returns the response line.
+     * @param request - the request line.
+     * @return - the response line.
+     */
+    String handle(String request) {
+        String[] fields = request.split("\t");
+        try {
+            switch (fields[0].trim().toUpperCase(Locale.ROOT)) {
+                case "PUT":
+                    LineServer.requireFields(fields, 3);
+                    int[] diceValues = new int[fields.length - 2];
+                    for (int i = 0; i < diceValues.length; i++) {
+                        diceValues[i] = Integer.parseInt(fields[2 + i].trim());
+                    }
+                    shard.put(fields[1], diceValues);
+                    return "OK";
+                case "GET":
+                    LineServer.requireFields(fields, 2);
+                    return "OK\t" + shard.get(fields[1]);
+                case "COUNT":
+                    return "OK\t" + shard.getPlayerCount();
+                case "BEFORE":
+                    LineServer.requireFields(fields, 3);
+                    return "OK\t" + shard.getPlayerCountBefore(Integer.parseInt(fields[1].trim()), fields[2]);
+                case "PAGE":
+                    LineServer.requireFields(fields, 3);
+                    StringBuilder sb = new StringBuilder("OK");
+                    for (LeaderboardEntry entry : shard.getLeaderboardPage(Integer.parseInt(fields[1].trim()),
+                            Integer.parseInt(fields[2].trim()))) {
+                        sb.append('\t').append(entry.getName()).append('\t').append(entry.getScore());
+                    }
+                    return sb.toString();
+                default:
+                    return "ERR\tUnknown command " + fields[0];
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return "ERR\t" + e.getMessage();
+        }
+    }
+}
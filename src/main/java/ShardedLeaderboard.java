@@ -0,0 +1,240 @@
+/**
+ * ShardedLeaderboard spreads the players of one large game of Greed over several LeaderboardShards and answers
+ * questions about the global leaderboard by combining the answers of the shards.
+ * ShardedLeaderboard will provide the following features:
+ * - Routing each player to a shard by the hash of their name.
+ * - Updating and retrieving the score of a player on their shard.
+ * - Retrieving the global rank of a player.
+ * - Retrieving the top k rows of the global leaderboard.
+ *
+ * A shard never sends its whole leaderboard. The global rank of a player is one plus the number of players who
+ * come before them on each shard, which every shard counts in O(log n) without listing anyone. The global top k is
+ * a k-way merge: each shard is read a page at a time from its top, and the best row at the head of any shard is
+ * taken next, so at most k rows plus one page are fetched from each shard.
+ *
+ * The shards may live in the same process (LocalShard) or on other nodes (RemoteShard), and may be mixed.
+ * A shard is picked with String.hashCode, which is the same on every Java runtime, so every node routes a player
+ * to the same shard.
+ */
+
+import java.util.*;
+
+public class ShardedLeaderboard {
+    private static final int MAX_PAGE_SIZE = 256; // Largest number of rows fetched from a shard at a time.
+
+    private final List<LeaderboardShard> shards;
+
+    /**
+     * Initializes a ShardedLeaderboard over the given shards. Every player must be in the shard at index
+     * shardOf(playerName, shards.size()), which partition arranges.
+     * @param shards - the shards, in order.
+     * @throws IllegalArgumentException if there are no shards.
+     */
+    public ShardedLeaderboard(List<? extends LeaderboardShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Given shards must not be empty!");
+        }
+        this.shards = new ArrayList<>(shards);
+    }
+
+    /**
+     * Returns a ShardedLeaderboard whose players are split between the given number of LocalShards which play
+     * with the given rules.
+     * @param playerNames - the set of player names who will be playing in the game.
+     * @param shardCount - the number of shards.
+     * @param rules - the rules of the game.
+     * @return - a ShardedLeaderboard over new LocalShards.
+     * @throws IllegalArgumentException if shardCount is not positive.
+     */
+    public static ShardedLeaderboard local(Set<String> playerNames, int shardCount, GreedRules rules) {
+        List<LocalShard> shards = new ArrayList<>(shardCount);
+        for (Set<String> shardNames : partition(playerNames, shardCount)) {
+            shards.add(new LocalShard(shardNames, rules));
+        }
+        return new ShardedLeaderboard(shards);
+    }
+
+    /**
+     * Splits the given players between the given number of shards.
+     * @param playerNames - the set of player names.
+     * @param shardCount - the number of shards.
+     * @return - the players of each shard, in shard order.
+     * @throws IllegalArgumentException if shardCount is not positive.
+     */
+    public static List<Set<String>> partition(Set<String> playerNames, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Given shardCount must be positive!");
+        }
+        List<Set<String>> partitions = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            partitions.add(new HashSet<>());
+        }
+        for (String playerName : playerNames) {
+            partitions.get(shardOf(playerName, shardCount)).add(playerName);
+        }
+        return partitions;
+    }
+
+    /**
+     * Returns the shard which holds the given player when there are the given number of shards.
+     * @param playerName - the name of the player.
+     * @param shardCount - the number of shards.
+     * @return - the index of the shard which holds the given player.
+     */
+    public static int shardOf(String playerName, int shardCount) {
+        return Math.floorMod(playerName.hashCode(), shardCount);
+    }
+
+    /**
+     * Updates the score of the given player on their shard using the given diceValues.
+     * @param playerName - the name of the player.
+     * @param diceValues - the dice values which the player rolled.
+     * @throws IllegalArgumentException if the player is not in the game or the roll is not valid.
+     */
+    public void put(String playerName, int[] diceValues) {
+        getShard(playerName).put(playerName, diceValues);
+    }
+
+    /**
+     * Returns the score of the given player, or -1 if the player is not in the game.
+     * @param playerName - the name of the player.
+     * @return - the score of the given player, or -1 if the player is not in the game.
+     */
+    public int get(String playerName) {
+        return getShard(playerName).get(playerName);
+    }
+
+    /**
+     * Returns the rank of the given player on the global leaderboard, where the player at the top has a rank of 1,
+     * or -1 if the player is not in the game. Each shard is asked for one count.
+     * @param playerName - the name of the player.
+     * @return - the global rank of the given player, or -1 if the player is not in the game.
+     */
+    public int getRank(String playerName) {
+        int score = get(playerName);
+        if (score < 0) {
+            return -1;
+        }
+        int rank = 1;
+        for (LeaderboardShard shard : shards) {
+            rank += shard.getPlayerCountBefore(score, playerName);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the k rows at the top of the global leaderboard, ranked globally. If there are fewer than k players
+     * in the game, every player is returned.
+     * @param k - the number of rows to return.
+     * @return - the k rows at the top of the global leaderboard.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<LeaderboardEntry> getTop(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Given k must not be negative!");
+        }
+        List<LeaderboardEntry> top = new ArrayList<>();
+        if (k == 0) {
+            return top;
+        }
+        int pageSize = Math.min(k, MAX_PAGE_SIZE);
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>();
+        for (LeaderboardShard shard : shards) {
+            ShardCursor cursor = new ShardCursor(shard, pageSize);
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        while (top.size() < k && !heads.isEmpty()) {
+            ShardCursor cursor = heads.poll();
+            LeaderboardEntry entry = cursor.next();
+            top.add(new LeaderboardEntry(top.size() + 1, entry.getName(), entry.getScore()));
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Returns the names of the k players at the top of the global leaderboard.
+     * @param k - the number of players to return.
+     * @return - the names of the k players at the top of the global leaderboard.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<String> getTopPlayers(int k) {
+        List<String> names = new ArrayList<>();
+        for (LeaderboardEntry entry : getTop(k)) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns the number of players in the game.
+     * @return - the number of players in the game.
+     */
+    public int getPlayerCount() {
+        int count = 0;
+        for (LeaderboardShard shard : shards) {
+            count += shard.getPlayerCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of shards.
+     * @return - the number of shards.
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Returns the shard which holds the given player.
+     * @param playerName - the name of the player.
+     * @return - the shard which holds the given player.
+     */
+    public LeaderboardShard getShard(String playerName) {
+        return shards.get(shardOf(playerName, shards.size()));
+    }
+
+    /**
+     * Inner class which reads the leaderboard of a single shard from the top, one page at a time.
+     * Cursors are ordered by the row at their head, the same way as the leaderboard.
+     */
+    private static class ShardCursor implements Comparable<ShardCursor> {
+        private final LeaderboardShard shard;
+        private final int pageSize;
+        private List<LeaderboardEntry> rows;
+        private int page;
+        private int index;
+
+        public ShardCursor(LeaderboardShard shard, int pageSize) {
+            this.shard = shard;
+            this.pageSize = pageSize;
+            rows = shard.getLeaderboardPage(0, pageSize);
+        }
+
+        public boolean hasNext() {
+            if (index == rows.size() && rows.size() == pageSize) {
+                rows = shard.getLeaderboardPage(++page, pageSize);
+                index = 0;
+            }
+            return index < rows.size();
+        }
+
+        public LeaderboardEntry next() {
+            return rows.get(index++);
+        }
+
+        public int compareTo(ShardCursor other) {
+            LeaderboardEntry head = rows.get(index);
+            LeaderboardEntry otherHead = other.rows.get(other.index);
+            if (head.getScore() != otherHead.getScore()) {
+                return Integer.compare(otherHead.getScore(), head.getScore());
+            }
+            return head.getName().compareTo(otherHead.getName());
+        }
+    }
+}
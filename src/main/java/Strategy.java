@@ -0,0 +1,82 @@
+/**
+ * Strategy decides how a computer player plays a turn of Greed. A turn always starts with one roll. After every
+ * roll which scores, the strategy either rolls again or banks the points of the turn; a roll which scores nothing
+ * loses every point of the turn. A Strategy is used by many games on many threads at once, so it must not keep any
+ * state of its own between calls.
+ *
+ * Three strategies are built in:
+ * - rollOnce() banks after the first roll, which is how GreedMain and GreedSimulation play.
+ * - threshold(points) rolls again until the turn is worth at least the given points.
+ * - expectedValue(rules) rolls again while one more roll is expected to gain more than it risks.
+ */
+
+import java.util.function.Predicate;
+
+public interface Strategy {
+    /**
+     * Returns the name of the strategy, which is used in reports.
+     * @return - the name of the strategy.
+     */
+    String getName();
+
+    /**
+     * Returns true to roll again, or false to bank the points of the turn.
+     * @param turn - the state of the current turn.
+     * @return - true to roll again, or false to bank the points of the turn.
+     */
+    boolean rollAgain(TurnState turn);
+
+    /**
+     * Returns a Strategy with the given name which rolls again whenever the given test passes.
+     * @param name - the name of the strategy.
+     * @param rollAgain - returns true to roll again.
+     * @return - a Strategy with the given name and decision.
+     */
+    static Strategy of(String name, Predicate<TurnState> rollAgain) {
+        return new Strategy() {
+            public String getName() {
+                return name;
+            }
+
+            public boolean rollAgain(TurnState turn) {
+                return rollAgain.test(turn);
+            }
+
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Returns a Strategy which always banks after the first roll.
+     * @return - a Strategy which always banks after the first roll.
+     */
+    static Strategy rollOnce() {
+        return of("roll once", turn -> false);
+    }
+
+    /**
+     * Returns a Strategy which rolls again until the turn is worth at least the given points.
+     * @param points - the points to reach before banking.
+     * @return - a Strategy which rolls again until the turn is worth at least the given points.
+     */
+    static Strategy threshold(int points) {
+        return of("threshold " + points, turn -> turn.getTurnScore() < points);
+    }
+
+    /**
+     * Returns a Strategy which rolls again while one more roll is expected to gain more than it risks. With a
+     * chance p of a roll scoring nothing and an expected roll score of e, rolling again with t points in the turn
+     * is expected to end with (1 - p) * t + e points, which beats banking t while t is less than e / p. Every roll
+     * has the same odds, so that limit is the same for every turn and is computed once with GreedOdds.
+     * @param rules - the rules of the game.
+     * @return - a Strategy which maximizes the expected points of each turn.
+     */
+    static Strategy expectedValue(GreedRules rules) {
+        GreedOdds odds = new GreedOdds(rules);
+        double bustChance = (double) odds.getRollCount(0) / rules.getRollCount();
+        double limit = bustChance == 0 ? Double.MAX_VALUE : odds.getExpectedScorePerRound() / bustChance;
+        return of("expected value", turn -> turn.getTurnScore() < limit);
+    }
+}
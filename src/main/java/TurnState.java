@@ -0,0 +1,89 @@
+/**
+ * TurnState is what a Strategy sees when it decides whether to roll again: the points it has rolled so far this
+ * turn, which it loses if the next roll scores nothing, along with the score of the player, the score of their
+ * best opponent and the number of rounds left. A single TurnState is reused for every turn of a game.
+ */
+
+public class TurnState {
+    private final GreedRules rules;
+    private int turnScore;
+    private int rollCount;
+    private int score;
+    private int opponentScore;
+    private int roundsLeft;
+
+    /**
+     * Initializes a TurnState for a game played with the given rules.
+     * @param rules - the rules of the game.
+     */
+    TurnState(GreedRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Returns the points rolled so far this turn, which are only added onto the score of the player if they bank.
+     * @return - the points rolled so far this turn.
+     */
+    public int getTurnScore() {
+        return turnScore;
+    }
+
+    /**
+     * Returns the number of rolls so far this turn.
+     * @return - the number of rolls so far this turn.
+     */
+    public int getRollCount() {
+        return rollCount;
+    }
+
+    /**
+     * Returns the score of the player before this turn.
+     * @return - the score of the player before this turn.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the highest score of any opponent.
+     * @return - the highest score of any opponent.
+     */
+    public int getOpponentScore() {
+        return opponentScore;
+    }
+
+    /**
+     * Returns the number of rounds left in the game, including the current round.
+     * @return - the number of rounds left in the game.
+     */
+    public int getRoundsLeft() {
+        return roundsLeft;
+    }
+
+    /**
+     * Returns the rules of the game.
+     * @return - the rules of the game.
+     */
+    public GreedRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Starts a new turn with no points rolled.
+     */
+    void start(int score, int opponentScore, int roundsLeft) {
+        turnScore = 0;
+        rollCount = 0;
+        this.score = score;
+        this.opponentScore = opponentScore;
+        this.roundsLeft = roundsLeft;
+    }
+
+    /**
+     * Adds a roll which scored the given points onto the turn.
+     */
+    void addRoll(int rollScore) {
+        turnScore += rollScore;
+        rollCount++;
+    }
+}
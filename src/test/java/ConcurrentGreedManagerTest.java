@@ -0,0 +1,186 @@
+/**
+ * This program tests the methods within ConcurrentGreedManager.java, including a stress test where many threads
+ * put and read at the same time.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentGreedManagerTest {
+    public static final int PLAYER_COUNT = 5;
+    public static final int THREAD_COUNT = 8;
+    public static final int PUTS_PER_THREAD = 20000;
+
+    private Set<String> names;
+    private ConcurrentGreedManager game;
+
+    public ConcurrentGreedManagerTest() {
+        names = new HashSet<>();
+        for (int i = 1; i <= PLAYER_COUNT; i++) {
+            names.add("player " + i);
+        }
+        game = new ConcurrentGreedManager(names);
+    }
+
+    @Test
+    public void testMatchesGreedManager() {
+        GreedManager expected = new GreedManager(names);
+        Random rand = new Random(1);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < diceValues.length; j++) {
+                diceValues[j] = rand.nextInt(GreedManager.SIDES) + 1;
+            }
+            String playerName = "player " + (rand.nextInt(PLAYER_COUNT) + 1);
+            expected.put(playerName, diceValues);
+            game.put(playerName, diceValues);
+        }
+        assertEquals(game.getLeadboard(), expected.getLeadboard());
+        assertEquals(game.getWinners(), expected.getWinners());
+        for (String name : names) {
+            assertEquals(game.get(name), expected.get(name));
+            assertEquals(game.getSnapshot().getRank(name), expected.getRank(name));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsCached() {
+        ConcurrentGreedManager.Snapshot first = game.getSnapshot();
+        assertSame(first, game.getSnapshot());
+        game.put("player 1", new int[] {1, 2, 3, 4, 6});
+        ConcurrentGreedManager.Snapshot second = game.getSnapshot();
+        assertNotSame(first, second);
+        assertEquals(first.get("player 1"), 0);
+        assertEquals(second.get("player 1"), 100);
+    }
+
+    @Test
+    public void testResetGame() {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        game.resetGame();
+        for (String name : names) {
+            assertEquals(game.get(name), 0);
+        }
+        assertEquals(game.getSnapshot().get("player 1"), 0);
+    }
+
+    @Test
+    public void testPutPastHighestScoreChangesNothing() {
+        int[] diceValues = {1, 1, 1, 1, 1};
+        int puts = Integer.MAX_VALUE / 1200;
+        for (int i = 0; i < puts; i++) {
+            game.put("player 1", diceValues);
+        }
+        int highestScore = puts * 1200;
+        try {
+            game.put("player 1", diceValues);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(game.get("player 1"), highestScore);
+        }
+        assertEquals(game.getSnapshot().getScore(0), highestScore);
+        assertEquals(game.getWinners(), Collections.singletonList("player 1"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidPlayer() {
+        game.put("unknown player", new int[] {1, 1, 1, 1, 1});
+    }
+
+    @Test
+    public void testNoLostUpdates() throws Exception {
+        Set<String> manyNames = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            manyNames.add("player " + i);
+        }
+        ConcurrentGreedManager manyGame = new ConcurrentGreedManager(manyNames, 4);
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<String, Integer>>> writers = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            long seed = t;
+            writers.add(pool.submit(() -> {
+                Random rand = new Random(seed);
+                Map<String, Integer> expected = new HashMap<>();
+                int[] diceValues = new int[GreedManager.DICE_COUNT];
+                start.await();
+                for (int i = 0; i < PUTS_PER_THREAD; i++) {
+                    for (int j = 0; j < diceValues.length; j++) {
+                        diceValues[j] = rand.nextInt(GreedManager.SIDES) + 1;
+                    }
+                    String playerName = "player " + rand.nextInt(64);
+                    manyGame.put(playerName, diceValues);
+                    expected.merge(playerName, GreedManager.score(diceValues), Integer::sum);
+                }
+                return expected;
+            }));
+        }
+
+        AtomicReference<String> readerError = new AtomicReference<>();
+        Future<?> reader = pool.submit(() -> {
+            long previousTotal = -1;
+            start.await();
+            while (!writers.stream().allMatch(Future::isDone)) {
+                ConcurrentGreedManager.Snapshot snapshot = manyGame.getSnapshot();
+                long total = 0;
+                for (int i = 0; i < snapshot.size(); i++) {
+                    total += snapshot.getScore(i);
+                    if (i > 0 && snapshot.getScore(i - 1) < snapshot.getScore(i)) {
+                        readerError.set("Snapshot is not sorted");
+                    }
+                }
+                if (total < previousTotal) {
+                    readerError.set("Snapshot went back in time");
+                }
+                previousTotal = total;
+            }
+            return null;
+        });
+
+        start.countDown();
+        Map<String, Integer> expected = new HashMap<>();
+        for (Future<Map<String, Integer>> writer : writers) {
+            writer.get().forEach((name, score) -> expected.merge(name, score, Integer::sum));
+        }
+        reader.get();
+        pool.shutdown();
+
+        assertNull(readerError.get());
+        for (String name : manyNames) {
+            assertEquals(manyGame.get(name), (int) expected.getOrDefault(name, 0));
+            assertEquals(manyGame.getSnapshot().get(name), (int) expected.getOrDefault(name, 0));
+        }
+    }
+
+    @Test
+    public void testSnapshotSeesOwnPutsWhileOthersRead() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT);
+        AtomicReference<Boolean> done = new AtomicReference<>(false);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            readers.add(pool.submit(() -> {
+                while (!done.get()) {
+                    game.getSnapshot();
+                }
+            }));
+        }
+        int[] diceValues = {1, 2, 3, 4, 6};
+        try {
+            for (int i = 1; i <= 2000; i++) {
+                game.put("player 1", diceValues);
+                assertEquals(i * 100, game.getSnapshot().get("player 1"));
+            }
+        } finally {
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * This program tests the methods within DiceRoller.java.
+ */
+
+import org.junit.*;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DiceRollerTest {
+    @Test
+    public void testSameSeed() {
+        DiceRoller first = new DiceRoller(GreedRules.STANDARD, 21);
+        DiceRoller second = new DiceRoller(GreedRules.STANDARD, 21);
+        int[] firstValues = new int[GreedManager.DICE_COUNT];
+        int[] secondValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < 1000; i++) {
+            first.roll(firstValues);
+            second.roll(secondValues);
+            assertArrayEquals(firstValues, secondValues);
+            assertEquals(first.nextPackedRoll(), second.nextPackedRoll());
+        }
+    }
+
+    @Test
+    public void testEveryFaceIsEquallyLikely() {
+        DiceRoller roller = new DiceRoller(GreedRules.STANDARD, 7);
+        int rolls = 60000;
+        long[][] counts = new long[GreedManager.DICE_COUNT][GreedManager.SIDES + 1];
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < rolls; i++) {
+            roller.roll(diceValues);
+            for (int die = 0; die < diceValues.length; die++) {
+                counts[die][diceValues[die]]++;
+            }
+        }
+        for (long[] dieCounts : counts) {
+            assertEquals(dieCounts[0], 0);
+            for (int face = 1; face <= GreedManager.SIDES; face++) {
+                assertEquals(dieCounts[face], rolls / GreedManager.SIDES, 300);
+            }
+        }
+    }
+
+    @Test
+    public void testGenerator() {
+        // A small draw is the first roll, and a draw whose halves are just below 2^32 is the last roll.
+        DiceRoller lowest = new DiceRoller(GreedRules.STANDARD, () -> 0x00001000_00001000L);
+        assertEquals(lowest.nextPackedRoll(), 0);
+        DiceRoller highest = new DiceRoller(GreedRules.STANDARD, () -> -1L);
+        assertEquals(highest.nextPackedRoll(), GreedManager.ROLL_COUNT - 1);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        highest.roll(diceValues);
+        int[] sixes = new int[GreedManager.DICE_COUNT];
+        Arrays.fill(sixes, GreedManager.SIDES);
+        assertArrayEquals(diceValues, sixes);
+    }
+
+    @Test
+    public void testRejectsBiasedDraws() {
+        // The low half of the draw lands in the biased range, so the high half, just past 2^31, is used instead.
+        DiceRoller roller = new DiceRoller(GreedRules.STANDARD, () -> 0x80000001_00000000L);
+        assertEquals(roller.nextPackedRoll(), GreedManager.ROLL_COUNT / 2);
+    }
+
+    @Test
+    public void testOtherRules() {
+        GreedRules rules = new GreedRules(8, 10, new int[10], new int[] {100, 0, 0, 0, 50, 0, 0, 0, 0, 0});
+        DiceRoller roller = new DiceRoller(rules, 3);
+        int[] diceValues = new int[8];
+        for (int i = 0; i < 1000; i++) {
+            long packedRoll = roller.nextPackedRoll();
+            assertTrue(0 <= packedRoll && packedRoll < rules.getRollCount());
+            roller.roll(diceValues);
+            for (int diceValue : diceValues) {
+                assertTrue(1 <= diceValue && diceValue <= 10);
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testWrongLength() {
+        new DiceRoller(GreedRules.STANDARD, 1).roll(new int[3]);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * This program tests the methods within GameHost.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GameHostTest {
+    private GameHost host;
+    private Set<String> names;
+
+    public GameHostTest() {
+        host = new GameHost();
+        names = new HashSet<>(Arrays.asList("player 3", "player 1", "player 2"));
+    }
+
+    @Test
+    public void testMatchesGreedManager() {
+        int gameId = host.createGame(names);
+        GreedManager game = new GreedManager(names);
+        Random rand = new Random(42);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < 100; i++) {
+            String playerName = "player " + (rand.nextInt(3) + 1);
+            for (int j = 0; j < diceValues.length; j++) {
+                diceValues[j] = rand.nextInt(GreedManager.SIDES) + 1;
+            }
+            host.put(gameId, playerName, diceValues);
+            game.put(playerName, diceValues);
+            assertEquals(host.get(gameId, playerName), game.get(playerName));
+        }
+        assertEquals(host.getLeadboard(gameId), game.getLeadboard());
+        assertEquals(host.getWinners(gameId), game.getWinners());
+    }
+
+    @Test
+    public void testLeaderboard() {
+        int gameId = host.createGame(names);
+        assertEquals(host.getLeadboard(gameId), "[player 1 (0), player 2 (0), player 3 (0)]");
+        host.put(gameId, "player 3", new int[] {1, 5, 2, 3, 4});
+        host.put(gameId, "player 2", new int[] {1, 5, 2, 3, 4});
+        assertEquals(host.getLeadboard(gameId), "[player 2 (150), player 3 (150), player 1 (0)]");
+        assertEquals(host.getWinners(gameId), Arrays.asList("player 2", "player 3"));
+        assertEquals(host.getPlayerNames(gameId), Arrays.asList("player 1", "player 2", "player 3"));
+    }
+
+    @Test
+    public void testGamesAreSeparate() {
+        int first = host.createGame(names);
+        int second = host.createGame(new HashSet<>(Arrays.asList("player 1", "player 4")));
+        host.put(first, "player 1", new int[] {1, 1, 1, 1, 1});
+        assertEquals(host.get(first, "player 1"), 1200);
+        assertEquals(host.get(second, "player 1"), 0);
+        assertEquals(host.get(second, "player 2"), -1);
+        assertEquals(host.getGameCount(), 2);
+        assertEquals(host.getRegistry().size(), 4);
+        assertEquals(host.getRegistry().getReferenceCount(host.getRegistry().idOf("player 1")), 2);
+    }
+
+    @Test
+    public void testResetGame() {
+        int gameId = host.createGame(names);
+        host.put(gameId, "player 1", new int[] {1, 1, 1, 1, 1});
+        host.resetGame(gameId);
+        assertEquals(host.get(gameId, "player 1"), 0);
+        assertEquals(host.getWinners(gameId).size(), 3);
+    }
+
+    @Test
+    public void testRemoveGameRecyclesIdsAndNames() {
+        int first = host.createGame(names);
+        host.put(first, "player 1", new int[] {1, 1, 1, 1, 1});
+        host.removeGame(first);
+        assertFalse(host.hasGame(first));
+        assertEquals(host.getGameCount(), 0);
+        assertEquals(host.getRegistry().size(), 0);
+        int second = host.createGame(new HashSet<>(Arrays.asList("player 5", "player 6", "player 7")));
+        assertEquals(second, first);
+        assertEquals(host.get(second, "player 5"), 0);
+        assertEquals(host.get(second, "player 1"), -1);
+    }
+
+    @Test
+    public void testManyGames() {
+        for (int i = 0; i < 100000; i++) {
+            host.createGame(new HashSet<>(Arrays.asList("player " + (i % 1000), "player " + (i % 1000 + 1000))));
+        }
+        assertEquals(host.getGameCount(), 100000);
+        assertEquals(host.getRegistry().size(), 2000);
+        host.put(99999, "player 999", new int[] {5, 2, 2, 3, 4});
+        assertEquals(host.get(99999, "player 999"), 50);
+        assertEquals(host.get(999, "player 999"), 0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testUnknownPlayer() {
+        host.put(host.createGame(names), "player 4", new int[] {1, 1, 1, 1, 1});
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testRemovedGame() {
+        int gameId = host.createGame(names);
+        host.removeGame(gameId);
+        host.get(gameId, "player 1");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTooFewPlayers() {
+        host.createGame(new HashSet<>(Arrays.asList("player 1")));
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testInvalidRoll() {
+        int gameId = host.createGame(names);
+        try {
+            host.put(gameId, "player 1", new int[] {1, 1, 1, 1, 7});
+        } finally {
+            assertEquals(host.get(gameId, "player 1"), 0);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * This program tests the methods within GreedEventLog.java.
+ */
+
+import org.junit.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedEventLogTest {
+    public static final int PLAYER_COUNT = 5;
+
+    private Set<String> names;
+    private GreedManager game;
+    private Path path;
+
+    public GreedEventLogTest() throws IOException {
+        names = new HashSet<>();
+        for (int i = 1; i <= PLAYER_COUNT; i++) {
+            names.add("player " + i);
+        }
+        game = new GreedManager(names);
+        path = Files.createTempFile("greed", ".log");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+            game.putRound(new String[] {"player 2", "player 3"}, new int[][] {{5, 5, 2, 3, 4}, {2, 3, 4, 6, 6}});
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.getLeadboard(), game.getLeadboard());
+    }
+
+    @Test
+    public void testBatchLargerThanBuffer() throws IOException {
+        int rolls = 20000;
+        String[] players = new String[rolls];
+        int[][] dice = new int[rolls][];
+        for (int i = 0; i < rolls; i++) {
+            players[i] = "player " + (i % PLAYER_COUNT + 1);
+            dice[i] = new int[] {i % 6 + 1, 1, 2, 3, 5};
+        }
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.putRound(players, dice);
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.getLeadboard(), game.getLeadboard());
+    }
+
+    @Test
+    public void testRejectedBatchIsNotLogged() throws IOException {
+        int[] scores = new int[PLAYER_COUNT];
+        scores[1] = Integer.MAX_VALUE / 50 * 50 - 100;
+        try (GreedEventLog log = new GreedEventLog(path, game, 1)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 5, 2, 3, 4});
+            game.restoreScores(scores);
+            try {
+                game.putRound(new String[] {"player 1", "player 2", "player 2"},
+                        new int[][] {{1, 1, 1, 1, 1}, {5, 2, 3, 4, 6}, {1, 2, 3, 4, 6}});
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals(game.get("player 1"), 0);
+                assertEquals(game.get("player 2"), scores[1]);
+            }
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.get("player 1"), 150);
+        assertEquals(replayed.get("player 2"), 0);
+    }
+
+    @Test
+    public void testReplayAfterReset() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 1)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+            game.resetGame();
+            game.put("player 2", new int[] {1, 5, 2, 3, 4});
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.get("player 1"), 0);
+        assertEquals(replayed.get("player 2"), 150);
+    }
+
+    @Test
+    public void testAppendToExistingLog() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        }
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {5, 2, 2, 3, 4});
+        }
+        assertEquals(GreedEventLog.replay(path).get("player 1"), 1250);
+    }
+
+    @Test
+    public void testTornEventIsIgnored() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+            game.put("player 2", new int[] {1, 1, 1, 1, 1});
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.get("player 1"), 1200);
+        assertEquals(replayed.get("player 2"), 0);
+    }
+
+    @Test
+    public void testReplayOntoGame() throws IOException {
+        GreedManager other = new GreedManager(names);
+        other.put("player 4", new int[] {1, 1, 1, 1, 1});
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 4", new int[] {5, 2, 2, 3, 4});
+        }
+        GreedEventLog.replay(path, other);
+        assertEquals(other.get("player 4"), 1250);
+        assertEquals(other.getWinners(), List.of("player 4"));
+    }
+
+    @Test
+    public void testMillionEvents() throws IOException {
+        Set<String> manyNames = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            manyNames.add("player " + i);
+        }
+        GreedManager manyGame = new GreedManager(manyNames);
+        Random rand = new Random(3);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        try (GreedEventLog log = new GreedEventLog(path, manyGame, 4096)) {
+            manyGame.setEventLog(log);
+            for (int i = 0; i < 1000000; i++) {
+                for (int j = 0; j < diceValues.length; j++) {
+                    diceValues[j] = rand.nextInt(GreedManager.SIDES) + 1;
+                }
+                manyGame.put("player " + rand.nextInt(10000), diceValues);
+            }
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.getTopPlayers(100), manyGame.getTopPlayers(100));
+        assertEquals(replayed.getHighestScore(), manyGame.getHighestScore());
+    }
+
+    @Test (expected = IOException.class)
+    public void testNotALog() throws IOException {
+        Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        GreedEventLog.replay(path);
+    }
+
+    @Test (expected = IOException.class)
+    public void testOtherVersion() throws IOException {
+        new GreedEventLog(path, game, 0).close();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(2).putShort(0, (short) 1), 4);
+        }
+        GreedEventLog.replay(path);
+    }
+
+    @Test
+    public void testReplayPastHighestScore() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        }
+        GreedManager other = new GreedManager(names);
+        int[] scores = new int[PLAYER_COUNT];
+        scores[0] = Integer.MAX_VALUE / 50 * 50 - 1150;
+        other.restoreScores(scores);
+        try {
+            GreedEventLog.replay(path, other);
+            fail();
+        } catch (IOException e) {
+            assertEquals(other.get("player 1"), scores[0]);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testDifferentPlayers() throws IOException {
+        new GreedEventLog(path, game, 0).close();
+        Set<String> otherNames = new HashSet<>(names);
+        otherNames.add("player 6");
+        new GreedEventLog(path, new GreedManager(otherNames), 0);
+    }
+
+    @Test
+    public void testReplayWithRules() throws IOException {
+        GreedRules rules = new GreedRules(6, 6, new int[] {1000, 200, 300, 400, 500, 600},
+                new int[] {100, 0, 0, 0, 50, 0});
+        GreedManager sixDice = new GreedManager(names, rules);
+        try (GreedEventLog log = new GreedEventLog(path, sixDice, 0)) {
+            sixDice.setEventLog(log);
+            sixDice.put("player 1", new int[] {1, 1, 1, 1, 1, 1});
+            sixDice.put("player 2", new int[] {5, 2, 2, 3, 4, 6});
+        }
+        GreedManager replayed = GreedEventLog.replay(path);
+        assertEquals(replayed.getRules(), rules);
+        assertEquals(replayed.getLeadboard(), sixDice.getLeadboard());
+    }
+
+    @Test (expected = IOException.class)
+    public void testReplayOntoGameWithOtherRules() throws IOException {
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        }
+        GreedRules rules = new GreedRules(5, 8, new int[8], new int[] {100, 0, 0, 0, 50, 0, 0, 0});
+        GreedEventLog.replay(path, new GreedManager(names, rules));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testRulesTooLargeToLog() throws IOException {
+        GreedRules rules = new GreedRules(8, 6, new int[6], new int[] {100, 0, 0, 0, 50, 0});
+        new GreedEventLog(path, new GreedManager(names, rules), 0);
+    }
+}
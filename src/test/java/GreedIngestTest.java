@@ -0,0 +1,199 @@
+/**
+ * This program tests the methods within GreedIngest.java.
+ */
+
+import org.junit.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedIngestTest {
+    private Path path;
+
+    public GreedIngestTest() throws IOException {
+        path = Files.createTempFile("greed", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        write("player,d1,d2,d3,d4,d5\n"
+                + "# The first round\n"
+                + "player 2,1,1,1,1,1\r\n"
+                + "\n"
+                + "player 1, 5, 2, 2, 3, 4\n"
+                + "player 3,2,3,4,6,6\n"
+                + "player 1,1,5,2,3,4");
+        GreedIngest ingest = new GreedIngest(GreedRules.STANDARD);
+        ingest.read(path);
+        GreedManager game = ingest.finish();
+        assertEquals(ingest.getRowCount(), 4);
+        assertEquals(game.getPlayerCount(), 3);
+        assertEquals(game.getLeadboard(), "[player 2 (1200), player 1 (200), player 3 (0)]");
+    }
+
+    @Test
+    public void testLargeFile() throws IOException {
+        // The file is larger than the buffer, so many lines are split between two reads.
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("player " + i);
+        }
+        GreedManager expected = new GreedManager(names);
+        Random rand = new Random(19);
+        StringBuilder csv = new StringBuilder();
+        int[] roll = new int[GreedManager.DICE_COUNT];
+        for (int row = 0; row < 100000; row++) {
+            String name = "player " + rand.nextInt(names.size());
+            csv.append(name);
+            for (int i = 0; i < roll.length; i++) {
+                roll[i] = rand.nextInt(GreedManager.SIDES) + 1;
+                csv.append(',').append(roll[i]);
+            }
+            csv.append('\n');
+            expected.put(name, roll);
+        }
+        assertTrue(csv.length() > GreedIngest.BUFFER_SIZE);
+        write(csv.toString());
+
+        GreedIngest ingest = new GreedIngest(GreedRules.STANDARD);
+        ingest.read(path);
+        GreedManager game = ingest.finish();
+        assertEquals(ingest.getRowCount(), 100000);
+        assertEquals(game.getLeadboard(), expected.getLeadboard());
+    }
+
+    @Test
+    public void testExistingGame() throws IOException {
+        Set<String> names = new HashSet<>(Arrays.asList("player 1", "player 2", "player 3"));
+        GreedManager game = new GreedManager(names);
+        game.put("player 3", new int[] {1, 1, 1, 2, 3});
+        GreedIngest ingest = new GreedIngest(game);
+        ingest.read(Channels.newChannel(new ByteArrayInputStream(
+                "player 1,1,2,3,4,6\nplayer 3,5,2,3,4,6\n".getBytes(StandardCharsets.UTF_8))));
+        assertSame(ingest.finish(), game);
+        assertEquals(game.getLeadboard(), "[player 3 (1050), player 1 (100), player 2 (0)]");
+    }
+
+    @Test
+    public void testHeaderAfterComments() throws IOException {
+        write("# Exported rolls\n\nplayer,d1,d2,d3,d4,d5\nplayer 1,1,1,1,1,1\nplayer 2,5,2,2,3,4\n");
+        GreedIngest ingest = new GreedIngest(GreedRules.STANDARD);
+        ingest.read(path);
+        assertEquals(ingest.getRowCount(), 2);
+        assertEquals(ingest.finish().getLeadboard(), "[player 1 (1200), player 2 (50)]");
+    }
+
+    @Test
+    public void testExistingGameSeesEveryRoll() throws IOException {
+        Set<String> names = new HashSet<>(Arrays.asList("player 1", "player 2", "player 3"));
+        GreedManager game = new GreedManager(names);
+        GreedMetrics metrics = new GreedMetrics();
+        game.setMetrics(metrics);
+        RoundWindow window = game.addWindow(1);
+        Path logPath = Files.createTempFile("greed", ".log");
+        Files.delete(logPath);
+        try (GreedEventLog log = new GreedEventLog(logPath, game, 0)) {
+            game.setEventLog(log);
+            GreedIngest ingest = new GreedIngest(game);
+            ingest.read(Channels.newChannel(new ByteArrayInputStream(
+                    "player 1,1,2,3,4,6\nplayer 3,5,2,3,4,6\nplayer 1,1,1,1,2,3\n".getBytes(StandardCharsets.UTF_8))));
+            ingest.finish();
+            game.setEventLog(null);
+        }
+        try {
+            assertEquals(metrics.getPutCount(), 3);
+            assertEquals(window.get("player 1"), 1100);
+            assertEquals(window.get("player 3"), 50);
+            assertEquals(GreedEventLog.replay(logPath).getLeadboard(), game.getLeadboard());
+        } finally {
+            Files.deleteIfExists(logPath);
+        }
+    }
+
+    @Test
+    public void testInvalidLines() throws IOException {
+        assertInvalid("player 1,1,2,3,4,6\nplayer 2,1,2,3,4,7\n", "Line 2 holds a dice value which is not possible!");
+        assertInvalid("player 1,1,2,3,4\n", "Line 1 does not hold 5 dice values!");
+        assertInvalid("player 1,1,2,3,4,5,6\n", "Line 1 does not hold 5 dice values!");
+        assertInvalid("player 1,1,2,3,4,6\nplayer 2\n", "Line 2 does not hold 5 dice values!");
+        assertInvalid("player 1,1,2,3,4,16\n", "Line 1 holds a dice value which is not possible!");
+        assertInvalid("player 1,1,2,3,4,6\nplayer,d1,d2,d3,d4,d5\n",
+                "Line 2 holds a dice value which is not possible!");
+        // A first line with any number after the name is a roll, not a header.
+        assertInvalid("player 1, x,2,3,4,6\nplayer 2,1,2,3,4,6\n", "Line 1 holds a dice value which is not possible!");
+        assertInvalid("player 1\nplayer 2,1,2,3,4,6\n", "Line 1 does not hold 5 dice values!");
+
+        GreedManager game = new GreedManager(new HashSet<>(Arrays.asList("player 1", "player 2")));
+        write("player 1,1,2,3,4,6\nplayer 9,1,2,3,4,6\n");
+        try {
+            new GreedIngest(game).read(path);
+            fail();
+        } catch (IOException e) {
+            assertEquals(e.getMessage(), "Line 2 names a player who does not exist in the game!");
+        }
+        assertEquals(game.get("player 1"), 0);
+    }
+
+    @Test
+    public void testEventLog() throws IOException {
+        assertFalse(GreedIngest.isEventLog(path));
+        Set<String> names = new HashSet<>(Arrays.asList("player 1", "player 2"));
+        GreedManager game = new GreedManager(names);
+        Files.delete(path);
+        try (GreedEventLog log = new GreedEventLog(path, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 2", new int[] {1, 1, 1, 5, 5});
+        }
+        assertTrue(GreedIngest.isEventLog(path));
+    }
+
+    @Test
+    public void testPastHighestScore() throws IOException {
+        StringBuilder csv = new StringBuilder("player 2,5,2,3,4,6\n");
+        for (int i = 0; i <= Integer.MAX_VALUE / 1200; i++) {
+            csv.append("player 1,1,1,1,1,1\n");
+        }
+        write(csv.toString());
+        GreedIngest ingest = new GreedIngest(GreedRules.STANDARD);
+        try {
+            ingest.read(path);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(e.getMessage(), "Given rolls would take the score of a player past the highest score the"
+                    + " game can hold!");
+        }
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testFinishTwice() {
+        GreedIngest ingest = new GreedIngest(new GreedManager(new HashSet<>(Arrays.asList("a", "b"))));
+        ingest.finish();
+        ingest.finish();
+    }
+
+    private void write(String csv) throws IOException {
+        Files.write(path, csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertInvalid(String csv, String message) throws IOException {
+        write(csv);
+        try {
+            new GreedIngest(GreedRules.STANDARD).read(path);
+            fail();
+        } catch (IOException e) {
+            assertEquals(e.getMessage(), message);
+        }
+    }
+}
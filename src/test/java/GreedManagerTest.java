@@ -6,8 +6,14 @@
 
 import org.junit.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -116,6 +122,23 @@ public class GreedManagerTest {
         }
     }
 
+    @Test
+    public void testPlayerNamesAreCopied() {
+        Set<String> callerNames = new HashSet<>(Arrays.asList("player 1", "player 2"));
+        GreedManager copied = new GreedManager(callerNames);
+        callerNames.add("player 3");
+        assertFalse(copied.isValidPlayer("player 3"));
+        assertFalse(copied.getPlayerNames().contains("player 3"));
+        assertEquals(copied.getPlayerNames().size(), 2);
+        assertEquals(copied.get("player 3"), -1);
+        try {
+            copied.getPlayerNames().add("player 4");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertFalse(copied.isValidPlayer("player 4"));
+        }
+    }
+
     @Test
     public void testLeaderboard() {
         int[] scores = new int[] {1, 1, 1, 1, 1};
@@ -142,6 +165,261 @@ public class GreedManagerTest {
         }
     }
 
+    @Test
+    public void testRank1() {
+        int[] scores = new int[] {1, 1, 1, 1, 1};
+        game.put("player 3", scores);
+        assertEquals(game.getRank("player 3"), 1);
+        assertEquals(game.getRank("player 1"), 2);
+        assertEquals(game.getRank("player 5"), 5);
+    }
+
+    @Test
+    public void testRank2() {
+        assertEquals(game.getRank("unknown player"), -1);
+    }
+
+    @Test
+    public void testTopPlayers1() {
+        int[] scores = new int[] {1, 1, 1, 1, 1};
+        game.put("player 4", scores);
+        game.put("player 2", new int[] {5, 2, 3, 4, 6});
+        List<String> topPlayers = game.getTopPlayers(3);
+        assertEquals(topPlayers, List.of("player 4", "player 2", "player 1"));
+    }
+
+    @Test
+    public void testTopPlayers2() {
+        assertEquals(game.getTopPlayers(PLAYER_COUNT + 10).size(), PLAYER_COUNT);
+        assertTrue(game.getTopPlayers(0).isEmpty());
+    }
+
+    @Test
+    public void testLeaderboardManyPuts() {
+        int[][] rolls = new int[][] {{1, 1, 1, 1, 1}, {5, 2, 3, 4, 6}, {2, 2, 2, 3, 4}, {1, 5, 5, 5, 1}};
+        for (int i = 0; i < 100; i++) {
+            game.put("player " + (i % PLAYER_COUNT + 1), rolls[i % rolls.length]);
+        }
+        List<String> topPlayers = game.getTopPlayers(PLAYER_COUNT);
+        for (int i = 1; i < topPlayers.size(); i++) {
+            int previous = game.get(topPlayers.get(i - 1));
+            int current = game.get(topPlayers.get(i));
+            assertTrue(previous > current || (previous == current
+                    && topPlayers.get(i - 1).compareTo(topPlayers.get(i)) < 0));
+            assertEquals(game.getRank(topPlayers.get(i)), i + 1);
+        }
+    }
+
+    @Test
+    public void testScoreTableMatchesRules() {
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        int rollCount = 0;
+        for (int packedRoll = 0; packedRoll < GreedManager.ROLL_COUNT; packedRoll++) {
+            GreedManager.unpack(packedRoll, diceValues);
+            assertEquals(GreedManager.pack(diceValues), packedRoll);
+            int expected = expectedScore(diceValues);
+            assertEquals(GreedManager.score(diceValues), expected);
+            assertEquals(GreedManager.score((long) packedRoll), expected);
+            rollCount++;
+        }
+        assertEquals(rollCount, 7776);
+    }
+
+    @Test
+    public void testPack() {
+        assertEquals(GreedManager.pack(new int[] {1, 1, 1, 1, 1}), 0);
+        assertEquals(GreedManager.pack(new int[] {1, 1, 1, 1, 2}), 1);
+        assertEquals(GreedManager.pack(new int[] {2, 1, 1, 1, 1}), 1296);
+        assertEquals(GreedManager.pack(new int[] {6, 6, 6, 6, 6}), GreedManager.ROLL_COUNT - 1);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testInvalidPackedRoll() {
+        GreedManager.score((long) GreedManager.ROLL_COUNT);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testInvalidScores3() {
+        GreedManager.score(new int[] {1, 2, 3, 4, 7});
+    }
+
+    @Test
+    public void testPutRound1() {
+        String[] playerNames = new String[] {"player 1", "player 2", "player 1"};
+        int[][] rolls = new int[][] {{1, 1, 1, 1, 1}, {5, 2, 3, 4, 6}, {5, 2, 3, 4, 6}};
+        game.putRound(playerNames, rolls);
+        assertEquals(game.get("player 1"), 1250);
+        assertEquals(game.get("player 2"), 50);
+        assertEquals(game.getLeadboard(), "[player 1 (1250), player 2 (50), player 3 (0), player 4 (0), player 5 (0)]");
+    }
+
+    @Test
+    public void testPutRound2() {
+        String[] playerNames = new String[] {"player 1", "player 2"};
+        int[][] rolls = new int[][] {{1, 1, 1, 1, 1}, {5, 2, 3, 4, 7}};
+        try {
+            game.putRound(playerNames, rolls);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(game.get("player 1"), 0);
+            assertEquals(game.get("player 2"), 0);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testPutRound3() {
+        game.putRound(new String[] {"player 1"}, new int[0][]);
+    }
+
+    @Test
+    public void testPutAll1() {
+        Map<String, int[]> rolls = new HashMap<>();
+        rolls.put("player 3", new int[] {3, 3, 3, 1, 5});
+        rolls.put("player 4", new int[] {1, 1, 1, 1, 1});
+        game.putAll(rolls);
+        assertEquals(game.get("player 3"), 450);
+        assertEquals(game.get("player 4"), 1200);
+        assertEquals(game.getWinners(), List.of("player 4"));
+    }
+
+    @Test
+    public void testPutAll2() {
+        Map<String, int[]> rolls = new LinkedHashMap<>();
+        rolls.put("player 3", new int[] {3, 3, 3, 1, 5});
+        rolls.put("unknown player", new int[] {1, 1, 1, 1, 1});
+        try {
+            game.putAll(rolls);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(game.get("player 3"), 0);
+        }
+    }
+
+    @Test
+    public void testLeaderboardPage1() {
+        game.put("player 4", new int[] {1, 1, 1, 1, 1});
+        game.put("player 2", new int[] {5, 2, 3, 4, 6});
+        List<LeaderboardEntry> page = game.getLeaderboardPage(0, 2);
+        assertEquals(page, List.of(new LeaderboardEntry(1, "player 4", 1200),
+                new LeaderboardEntry(2, "player 2", 50)));
+        page = game.getLeaderboardPage(2, 2);
+        assertEquals(page, List.of(new LeaderboardEntry(5, "player 5", 0)));
+        assertTrue(game.getLeaderboardPage(3, 2).isEmpty());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testLeaderboardPage2() {
+        game.getLeaderboardPage(0, 0);
+    }
+
+    @Test
+    public void testStreamLeaderboard() {
+        game.put("player 3", new int[] {1, 1, 1, 1, 1});
+        List<String> rows = new ArrayList<>();
+        game.streamLeaderboard().limit(2).forEach(entry -> rows.add(entry.toString()));
+        assertEquals(rows, List.of("1. player 3 (1200)", "2. player 1 (0)"));
+        assertEquals(game.streamLeaderboard().count(), PLAYER_COUNT);
+    }
+
+    @Test
+    public void testWriteLeaderboard() throws IOException {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        game.put("player 5", new int[] {1, 1, 1, 1, 1});
+        StringBuilder sb = new StringBuilder();
+        game.writeLeaderboard(sb, 3);
+        String separator = System.lineSeparator();
+        assertEquals(sb.toString(), "1. player 1 (1200)" + separator + "2. player 5 (1200)" + separator
+                + "3. player 2 (0)" + separator);
+    }
+
+    @Test
+    public void testStreamLargeLeaderboard() {
+        Set<String> manyNames = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            manyNames.add(String.format("player %04d", i));
+        }
+        GreedManager manyGame = new GreedManager(manyNames);
+        manyGame.put("player 0999", new int[] {1, 1, 1, 1, 1});
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        manyGame.streamLeaderboard().forEach(entries::add);
+        assertEquals(entries.size(), 1000);
+        assertEquals(entries.get(0).getName(), "player 0999");
+        assertEquals(entries.get(999), new LeaderboardEntry(1000, "player 0998", 0));
+        assertEquals(manyGame.getLeaderboardPage(3, 256).get(0).getRank(), 769);
+    }
+
+    @Test
+    public void testCachedViews() {
+        game.put("player 2", new int[] {1, 1, 1, 1, 1});
+        game.put("player 4", new int[] {1, 5, 2, 3, 4});
+        String leaderboard = game.getLeadboard();
+        List<String> winners = game.getWinners();
+        List<String> topPlayers = game.getTopPlayers(2);
+        long version = game.getVersion();
+        assertSame(game.getLeadboard(), leaderboard);
+        assertSame(game.getWinners(), winners);
+        assertSame(game.getTopPlayers(2), topPlayers);
+
+        // A roll of 0 changes nothing, and a roll which stays below the top 2 keeps the winners and the top 2.
+        game.put("player 1", new int[] {2, 2, 3, 3, 4});
+        assertEquals(game.getVersion(), version);
+        assertSame(game.getLeadboard(), leaderboard);
+        game.put("player 5", new int[] {5, 2, 2, 3, 4});
+        assertTrue(game.getVersion() != version);
+        assertEquals(game.getLeadboard(),
+                "[player 2 (1200), player 4 (150), player 5 (50), player 1 (0), player 3 (0)]");
+        assertSame(game.getWinners(), winners);
+        assertSame(game.getTopPlayers(2), topPlayers);
+
+        // Tying the last of the top 2 with a smaller name moves into the top 2.
+        game.put("player 3", new int[] {1, 5, 2, 3, 4});
+        assertEquals(game.getTopPlayers(2), List.of("player 2", "player 3"));
+        game.put("player 4", new int[] {1, 1, 1, 1, 1});
+        assertEquals(game.getWinners(), List.of("player 4"));
+        game.resetGame();
+        assertEquals(game.getWinners().size(), PLAYER_COUNT);
+        assertEquals(game.getTopPlayers(0), List.of());
+        assertEquals(game.getTopPlayers(PLAYER_COUNT).size(), PLAYER_COUNT);
+    }
+
+    @Test (expected = UnsupportedOperationException.class)
+    public void testCachedViewsAreUnmodifiable() {
+        game.getWinners().add("player 6");
+    }
+
+    @Test
+    public void testPlayerCountBefore() {
+        game.put("player 2", new int[] {1, 1, 1, 1, 1});
+        game.put("player 4", new int[] {1, 5, 2, 3, 4});
+        // Players in the game are counted the same way as their rank.
+        assertEquals(game.getPlayerCountBefore(150, "player 4"), game.getRank("player 4") - 1);
+        assertEquals(game.getPlayerCountBefore(0, "player 5"), game.getRank("player 5") - 1);
+        // Players from elsewhere are placed between the players of the game.
+        assertEquals(game.getPlayerCountBefore(150, "player 3"), 1);
+        assertEquals(game.getPlayerCountBefore(150, "player 5"), 2);
+        assertEquals(game.getPlayerCountBefore(0, "player 0"), 2);
+        assertEquals(game.getPlayerCountBefore(0, "player 9"), PLAYER_COUNT);
+        assertEquals(game.getPlayerCountBefore(5000, "player 9"), 0);
+    }
+
+    @Test
+    public void testHighestScore() {
+        assertEquals(GreedManager.SCORE_STEP, 50);
+        assertEquals(game.getHighestScore(), 0);
+        assertEquals(game.getPlayerCountAtLeast(0), PLAYER_COUNT);
+        game.put("player 2", new int[] {1, 1, 1, 1, 1});
+        game.put("player 3", new int[] {1, 5, 2, 3, 4});
+        game.put("player 4", new int[] {1, 5, 2, 3, 4});
+        assertEquals(game.getHighestScore(), 1200);
+        assertEquals(game.getPlayerCountAtLeast(1200), 1);
+        assertEquals(game.getPlayerCountAtLeast(149), 3);
+        assertEquals(game.getPlayerCountAtLeast(151), 1);
+        assertEquals(game.getPlayerCountAtLeast(1201), 0);
+        game.resetGame();
+        assertEquals(game.getHighestScore(), 0);
+        assertEquals(game.getPlayerCountAtLeast(50), 0);
+    }
+
     @Test (expected = IllegalArgumentException.class)
     public void testisValidPlayer1() {
         int[] scores = new int[] {1, 1, 1, 1, 1};
@@ -157,4 +435,53 @@ public class GreedManagerTest {
     public void testisValidPlayer3() {
         assertFalse(game.isValidPlayer("unknown player"));
     }
+
+    @Test
+    public void testPutRoundMovesEachPlayerOnce() {
+        long version = game.getVersion();
+        game.putRound(new String[] {"player 1", "player 2", "player 1", "player 1"},
+                new int[][] {{1, 2, 3, 4, 6}, {5, 2, 3, 4, 6}, {1, 1, 1, 2, 3}, {5, 5, 2, 3, 4}});
+        assertEquals(game.getVersion(), version + 2);
+        assertEquals(game.get("player 1"), 1200);
+        assertEquals(game.get("player 2"), 50);
+        assertEquals(game.getRank("player 1"), 1);
+    }
+
+    @Test
+    public void testPutPastHighestScoreChangesNothing() {
+        int[] scores = new int[game.getPlayerCount()];
+        scores[0] = Integer.MAX_VALUE / 50 * 50 - 50;
+        game.restoreScores(scores);
+        String player = game.getPlayerNamesById()[0];
+        long version = game.getVersion();
+        try {
+            game.put(player, new int[] {1, 1, 1, 1, 1});
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(game.get(player), scores[0]);
+            assertEquals(game.getRank(player), 1);
+            assertEquals(game.getHighestScore(), scores[0]);
+            assertEquals(game.getVersion(), version);
+        }
+        game.put(player, new int[] {5, 2, 3, 4, 6});
+        assertEquals(game.get(player), scores[0] + 50);
+    }
+
+    /**
+     * Scores the given dice values straight from the rules in the README, without any lookup table.
+     */
+    private static int expectedScore(int[] diceValues) {
+        int[] valueCount = new int[GreedManager.SIDES + 1];
+        for (int diceValue : diceValues) {
+            valueCount[diceValue]++;
+        }
+        int[] tripleScores = new int[] {0, 1000, 200, 300, 400, 500, 600};
+        int score = 0;
+        for (int face = 1; face <= GreedManager.SIDES; face++) {
+            score += (valueCount[face] / 3) * tripleScores[face];
+        }
+        score += (valueCount[1] % 3) * 100;
+        score += (valueCount[5] % 3) * 50;
+        return score;
+    }
 }
@@ -0,0 +1,122 @@
+/**
+ * This program tests the methods within GreedMetrics.java.
+ */
+
+import org.junit.*;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedMetricsTest {
+    public static final int PLAYER_COUNT = 5;
+
+    private GreedManager game;
+    private GreedMetrics metrics;
+
+    public GreedMetricsTest() {
+        Set<String> names = new HashSet<>();
+        for (int i = 1; i <= PLAYER_COUNT; i++) {
+            names.add("player " + i);
+        }
+        game = new GreedManager(names);
+        metrics = new GreedMetrics();
+        game.setMetrics(metrics);
+    }
+
+    @After
+    public void tearDown() throws JMException {
+        metrics.unregister();
+    }
+
+    @Test
+    public void testCounters() {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        game.put("player 2", new int[] {2, 3, 4, 6, 2});
+        game.putRound(new String[] {"player 3", "player 4"}, new int[][] {{1, 2, 3, 4, 6}, {5, 2, 3, 4, 6}});
+        try {
+            game.put("unknown player", new int[] {1, 1, 1, 1, 1});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        try {
+            game.put("player 1", new int[] {1, 1, 1, 1, 7});
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+        try {
+            game.putRound(new String[] {"player 1"}, new int[][] {{1, 1}});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        GreedMetrics.Snapshot snapshot = metrics.getSnapshot();
+        assertEquals(snapshot.getPutCount(), 4);
+        assertEquals(snapshot.getInvalidRollCount(), 3);
+        assertEquals(snapshot.getPutLatency().getCount(), 2);
+        assertEquals(snapshot.getUpdateLeaderboardLatency().getCount(), 3);
+        assertEquals(game.get("player 1"), 1200);
+    }
+
+    @Test
+    public void testGauges() {
+        assertEquals(metrics.getPlayerCount(), PLAYER_COUNT);
+        assertEquals(metrics.getLeaderboardSize(), PLAYER_COUNT);
+        assertEquals(metrics.getWinnerCount(), PLAYER_COUNT);
+        game.put("player 4", new int[] {1, 5, 2, 3, 4});
+        assertEquals(metrics.getHighestScore(), 150);
+        assertEquals(metrics.getWinnerCount(), 1);
+    }
+
+    @Test
+    public void testLeaderboardLatency() {
+        game.getLeadboard();
+        game.getLeadboard();
+        GreedMetrics.Latency latency = metrics.getLeaderboardLatency();
+        assertEquals(latency.getCount(), 2);
+        assertTrue(latency.getMax() > 0);
+        assertTrue(latency.getP50() <= latency.getP99());
+        assertTrue(latency.getP99() <= latency.getMax());
+    }
+
+    @Test
+    public void testDisabled() {
+        game.setMetrics(null);
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        game.getLeadboard();
+        assertNull(game.getMetrics());
+        assertEquals(metrics.getPutCount(), 0);
+        assertEquals(metrics.getLeaderboardLatency().getCount(), 0);
+    }
+
+    @Test
+    public void testReset() {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        metrics.reset();
+        assertEquals(metrics.getPutCount(), 0);
+        assertEquals(metrics.getPutLatency().getCount(), 0);
+        assertEquals(metrics.getHighestScore(), 1000 + 200);
+    }
+
+    @Test
+    public void testJmx() throws JMException {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        ObjectName name = metrics.register("test game");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(server.getAttribute(name, "PutCount"), 1L);
+        assertEquals(server.getAttribute(name, "HighestScore"), 1200);
+        CompositeData putLatency = (CompositeData) server.getAttribute(name, "PutLatency");
+        assertEquals(putLatency.get("count"), 1L);
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals(metrics.getPutCount(), 0);
+        metrics.unregister();
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * This program tests the methods within GreedOdds.java and ScoreDistribution.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedOddsTest {
+    private GreedOdds odds;
+
+    public GreedOddsTest() {
+        odds = new GreedOdds();
+    }
+
+    @Test
+    public void testRollCountsMatchEveryRoll() {
+        assertRollCountsMatch(odds);
+        assertRollCountsMatch(new GreedOdds(new GreedRules(6, 6, new int[] {1000, 200, 300, 400, 500, 600},
+                new int[] {100, 0, 0, 0, 50, 0})));
+        assertRollCountsMatch(new GreedOdds(new GreedRules(4, 8, new int[] {1000, 200, 300, 400, 500, 600, 700, 800},
+                new int[] {100, 0, 0, 0, 50, 0, 0, 25})));
+    }
+
+    @Test
+    public void testRollDistribution() {
+        ScoreDistribution roll = odds.getRollDistribution();
+        assertEquals(roll.getStep(), 50);
+        assertEquals(roll.getMaxScore(), 1200);
+        assertEquals(odds.getRollCount(1200), 1);
+        assertEquals(roll.getProbability(1200), 1.0 / 7776, 1e-15);
+        assertEquals(roll.getProbability(25), 0, 0);
+        assertEquals(roll.getProbabilityAtLeast(0), 1, 0);
+        assertEquals(roll.getProbabilityAtLeast(1201), 0, 0);
+        double total = 0;
+        for (double p : roll.toArray()) {
+            total += p;
+        }
+        assertEquals(total, 1, 1e-12);
+    }
+
+    @Test
+    public void testExpectedScorePerRound() {
+        double expected = 0;
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int packedRoll = 0; packedRoll < GreedManager.ROLL_COUNT; packedRoll++) {
+            GreedManager.unpack(packedRoll, diceValues);
+            expected += GreedManager.score(diceValues);
+        }
+        expected /= GreedManager.ROLL_COUNT;
+        assertEquals(odds.getExpectedScorePerRound(), expected, 1e-9);
+    }
+
+    @Test
+    public void testTwoRounds() {
+        double[] expected = new double[1200 / 50 * 2 + 1];
+        for (int a = 0; a <= 1200; a += 50) {
+            for (int b = 0; b <= 1200; b += 50) {
+                expected[(a + b) / 50] += (double) odds.getRollCount(a) * odds.getRollCount(b) / 7776 / 7776;
+            }
+        }
+        assertArrayEquals(odds.getDistributionAfter(2).toArray(), expected, 1e-15);
+    }
+
+    @Test
+    public void testManyRounds() {
+        ScoreDistribution roll = odds.getRollDistribution();
+        ScoreDistribution total = odds.getDistributionAfter(200);
+        assertEquals(total.getMean(), 200 * roll.getMean(), 1e-6);
+        assertEquals(total.getVariance(), 200 * roll.getVariance(), 1e-3);
+        assertEquals(total.getProbabilityAtLeast(0), 1, 1e-9);
+        assertTrue(total.getMaxScore() <= 200 * 1200);
+        assertTrue(total.getMaxScore() > total.getPercentile(0.99));
+        assertEquals(odds.getDistributionAfter(20).getMaxScore(), 20 * 1200);
+        assertTrue(total.getPercentile(0.1) < total.getPercentile(0.5));
+        assertTrue(total.getPercentile(0.5) < total.getPercentile(0.9));
+    }
+
+    @Test
+    public void testMemoized() {
+        ScoreDistribution ten = odds.getDistributionAfter(10);
+        assertSame(odds.getDistributionAfter(10), ten);
+        assertSame(odds.getDistributionAfter(1), odds.getRollDistribution());
+        assertEquals(odds.getDistributionAfter(0).getProbability(0), 1, 0);
+        // Building from the memoized 10 rounds gives the same result as building from scratch.
+        assertEquals(odds.getDistributionAfter(15), new GreedOdds().getDistributionAfter(15));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeRounds() {
+        odds.getDistributionAfter(-1);
+    }
+
+    /**
+     * Checks the roll counts of the given odds against the score of every roll.
+     */
+    private static void assertRollCountsMatch(GreedOdds odds) {
+        GreedRules rules = odds.getRules();
+        Map<Integer, Long> counts = new HashMap<>();
+        int[] diceValues = new int[rules.getDiceCount()];
+        for (int packedRoll = 0; packedRoll < rules.getRollCount(); packedRoll++) {
+            rules.unpack(packedRoll, diceValues);
+            counts.merge(rules.score(diceValues), 1L, Long::sum);
+        }
+        long total = 0;
+        for (int score = 0; score <= rules.getMaxRollScore(); score += rules.getScoreStep()) {
+            assertEquals(odds.getRollCount(score), (long) counts.getOrDefault(score, 0L));
+            total += odds.getRollCount(score);
+        }
+        assertEquals(total, rules.getRollCount());
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * This program tests the methods within GreedRules.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedRulesTest {
+    private GreedRules sixDice;
+    private GreedRules eightSides;
+    private GreedRules manyDice;
+
+    public GreedRulesTest() {
+        sixDice = new GreedRules(6, 6, new int[] {1000, 200, 300, 400, 500, 600}, new int[] {100, 0, 0, 0, 50, 0});
+        eightSides = new GreedRules(5, 8, new int[] {1000, 200, 300, 400, 500, 600, 700, 800},
+                new int[] {100, 0, 0, 0, 50, 0, 0, 25});
+        manyDice = new GreedRules(11, 6, new int[] {1000, 200, 300, 400, 500, 600}, new int[] {100, 0, 0, 0, 50, 0});
+    }
+
+    @Test
+    public void testStandard() {
+        GreedRules rules = new GreedRules(5, 6, new int[] {1000, 200, 300, 400, 500, 600},
+                new int[] {100, 0, 0, 0, 50, 0});
+        assertEquals(rules, GreedRules.STANDARD);
+        assertEquals(rules.hashCode(), GreedRules.STANDARD.hashCode());
+        assertEquals(GreedRules.STANDARD.getRollCount(), GreedManager.ROLL_COUNT);
+        assertEquals(GreedRules.STANDARD.getScoreStep(), 50);
+        assertEquals(GreedRules.STANDARD.getMaxRollScore(), 1200);
+        assertTrue(GreedRules.STANDARD.hasScoreTable());
+        for (int packedRoll = 0; packedRoll < GreedManager.ROLL_COUNT; packedRoll++) {
+            assertEquals(rules.score((long) packedRoll), GreedManager.score((long) packedRoll));
+        }
+    }
+
+    @Test
+    public void testSixDice() {
+        assertEquals(sixDice.getRollCount(), 46656);
+        assertEquals(sixDice.score(new int[] {1, 1, 1, 1, 1, 1}), 2000);
+        assertEquals(sixDice.score(new int[] {2, 2, 2, 3, 3, 3}), 500);
+        assertEquals(sixDice.score(new int[] {1, 5, 5, 1, 2, 3}), 300);
+        assertEquals(sixDice.getMaxRollScore(), 2000);
+        assertTableMatchesCounts(sixDice);
+    }
+
+    @Test
+    public void testEightSides() {
+        assertEquals(eightSides.getRollCount(), 32768);
+        assertEquals(eightSides.getScoreStep(), 25);
+        assertEquals(eightSides.score(new int[] {8, 8, 8, 8, 7}), 825);
+        assertEquals(eightSides.score(new int[] {7, 7, 7, 6, 6}), 700);
+        assertEquals(eightSides.getTripleScore(8), 800);
+        assertEquals(eightSides.getSingleScore(8), 25);
+        assertTableMatchesCounts(eightSides);
+    }
+
+    @Test
+    public void testWithoutScoreTable() {
+        assertFalse(manyDice.hasScoreTable());
+        int[] diceValues = new int[] {1, 1, 1, 1, 5, 5, 5, 5, 2, 2, 2};
+        assertEquals(manyDice.score(diceValues), 1000 + 100 + 500 + 50 + 200);
+        assertEquals(manyDice.score(manyDice.pack(diceValues)), 1850);
+        int[] unpacked = new int[11];
+        manyDice.unpack(manyDice.pack(diceValues), unpacked);
+        assertArrayEquals(unpacked, diceValues);
+        assertEquals(manyDice.getMaxRollScore(), 3000 + 200);
+    }
+
+    @Test
+    public void testManySidesWithoutScoreTable() {
+        int[] tripleScores = new int[200];
+        int[] singleScores = new int[200];
+        for (int face = 0; face < 200; face++) {
+            tripleScores[face] = 1000 * (face + 1);
+            singleScores[face] = 50 * (face % 3);
+        }
+        GreedRules manySides = new GreedRules(3, 200, tripleScores, singleScores);
+        assertFalse(manySides.hasScoreTable());
+        assertEquals(manySides.score(new int[] {150, 150, 150}), 150000);
+        assertEquals(manySides.score(new int[] {2, 3, 3}), 50 + 100 + 100);
+        try {
+            manySides.score(new int[] {3, 3, 201});
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // A roll which is rejected halfway must not leave counts behind for the next roll.
+            assertEquals(manySides.score(new int[] {4, 4, 4}), 4000);
+        }
+        assertEquals(manySides.score(manySides.pack(new int[] {200, 1, 200})), 50 + 0 + 50);
+    }
+
+    @Test
+    public void testPackAndUnpack() {
+        int[] diceValues = new int[6];
+        for (int packedRoll = 0; packedRoll < sixDice.getRollCount(); packedRoll += 7) {
+            sixDice.unpack(packedRoll, diceValues);
+            assertEquals(sixDice.pack(diceValues), packedRoll);
+        }
+    }
+
+    @Test
+    public void testGameWithRules() {
+        GreedManager game = new GreedManager(new HashSet<>(Arrays.asList("player 1", "player 2")), eightSides);
+        assertSame(game.getRules(), eightSides);
+        game.put("player 1", new int[] {8, 8, 8, 8, 1});
+        game.put("player 2", new int[] {1, 1, 1, 1, 8});
+        assertEquals(game.get("player 1"), 925);
+        assertEquals(game.get("player 2"), 1125);
+        assertEquals(game.getWinners(), Arrays.asList("player 2"));
+        assertEquals(game.getHighestScore(), 1125);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testGameWithRulesWrongDiceCount() {
+        GreedManager game = new GreedManager(new HashSet<>(Arrays.asList("player 1", "player 2")), sixDice);
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testGameWithRulesIllegalDiceValue() {
+        GreedManager game = new GreedManager(new HashSet<>(Arrays.asList("player 1", "player 2")), sixDice);
+        game.put("player 1", new int[] {1, 1, 1, 1, 1, 7});
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTooManyRolls() {
+        new GreedRules(12, 6, new int[6], new int[6]);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testMissingScores() {
+        new GreedRules(5, 8, new int[6], new int[8]);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeScores() {
+        new GreedRules(5, 6, new int[] {1000, 200, 300, 400, 500, -600}, new int[6]);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testScoresTooLarge() {
+        new GreedRules(9, 6, new int[] {Integer.MAX_VALUE / 2, 0, 0, 0, 0, 0}, new int[6]);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testIllegalFace() {
+        eightSides.getTripleScore(9);
+    }
+
+    /**
+     * Checks the score of every roll of the given rules against the triple and single score of each face.
+     */
+    private static void assertTableMatchesCounts(GreedRules rules) {
+        int[] diceValues = new int[rules.getDiceCount()];
+        int maxScore = 0;
+        for (int packedRoll = 0; packedRoll < rules.getRollCount(); packedRoll++) {
+            rules.unpack(packedRoll, diceValues);
+            int[] valueCount = new int[rules.getSides() + 1];
+            for (int diceValue : diceValues) {
+                valueCount[diceValue]++;
+            }
+            int expected = 0;
+            for (int face = 1; face <= rules.getSides(); face++) {
+                expected += (valueCount[face] / 3) * rules.getTripleScore(face)
+                        + (valueCount[face] % 3) * rules.getSingleScore(face);
+            }
+            assertEquals(rules.score((long) packedRoll), expected);
+            assertEquals(rules.score(diceValues), expected);
+            assertEquals(expected % rules.getScoreStep(), 0);
+            maxScore = Math.max(maxScore, expected);
+        }
+        assertEquals(rules.getMaxRollScore(), maxScore);
+    }
+}
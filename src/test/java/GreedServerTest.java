@@ -0,0 +1,173 @@
+/**
+ * This program tests the methods within GreedServer.java and GreedLoadGenerator.java.
+ */
+
+import org.junit.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class GreedServerTest {
+    private GreedServer server;
+
+    public GreedServerTest() throws IOException {
+        server = new GreedServer(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testJoinAndPut() {
+        assertEquals(server.handle("JOIN\tgame\tplayer 1"), "OK\t1");
+        assertEquals(server.handle("JOIN\tgame\tplayer 2"), "OK\t2");
+        assertEquals(server.handle("PUT\tgame\tplayer 1\t1\t1\t1\t1\t1"), "OK\t1200\t1200");
+        assertEquals(server.handle("PUT\tgame\tplayer 1\t5\t2\t2\t3\t4"), "OK\t50\t1250");
+        assertEquals(server.handle("GET\tgame\tplayer 1"), "OK\t1250");
+        assertEquals(server.handle("GET\tgame\tplayer 2"), "OK\t0");
+        assertEquals(server.handle("WINNERS\tgame"), "OK\tplayer 1");
+        assertEquals(server.handle("LEADERBOARD\tgame"), "OK\t1. player 1 (1250)\t2. player 2 (0)");
+        assertEquals(server.handle("LEADERBOARD\tgame\t1"), "OK\t1. player 1 (1250)");
+    }
+
+    @Test
+    public void testRoll() {
+        server.handle("JOIN\tgame\tplayer 1");
+        server.handle("JOIN\tgame\tplayer 2");
+        String[] fields = server.handle("ROLL\tgame\tplayer 2").split("\t");
+        assertEquals(fields[0], "OK");
+        assertEquals(fields.length, GreedManager.DICE_COUNT + 3);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < diceValues.length; i++) {
+            diceValues[i] = Integer.parseInt(fields[i + 1]);
+        }
+        assertEquals(Integer.parseInt(fields[GreedManager.DICE_COUNT + 1]), GreedManager.score(diceValues));
+        assertEquals(server.handle("GET\tgame\tplayer 2"), "OK\t" + fields[GreedManager.DICE_COUNT + 2]);
+    }
+
+    @Test
+    public void testManyGames() {
+        for (int game = 0; game < 100; game++) {
+            server.handle("JOIN\tgame " + game + "\tplayer 1");
+            server.handle("JOIN\tgame " + game + "\tplayer 2");
+            server.handle("PUT\tgame " + game + "\tplayer 2\t1\t1\t1\t2\t3");
+        }
+        assertEquals(server.getGameCount(), 100);
+        assertEquals(server.handle("GET\tgame 42\tplayer 2"), "OK\t1000");
+        assertEquals(server.handle("GET\tgame 42\tplayer 1"), "OK\t0");
+    }
+
+    @Test
+    public void testEnd() {
+        server.handle("JOIN\tgame\tplayer 1");
+        server.handle("JOIN\tgame\tplayer 2");
+        server.handle("PUT\tgame\tplayer 1\t1\t1\t1\t1\t1");
+        server.handle("JOIN\tlobby\tplayer 1");
+        assertEquals(server.getGameCount(), 2);
+        assertEquals(server.handle("END\tgame"), "OK\tplayer 1");
+        assertEquals(server.handle("end\tlobby"), "OK");
+        assertEquals(server.getGameCount(), 0);
+        assertTrue(server.handle("GET\tgame\tplayer 1").startsWith("ERR"));
+        assertTrue(server.handle("END\tgame").startsWith("ERR"));
+        // The name of an ended game can be used for a new one.
+        assertEquals(server.handle("JOIN\tgame\tplayer 3"), "OK\t1");
+    }
+
+    @Test
+    public void testIdleGamesAreEvicted() {
+        server.handle("JOIN\tidle\tplayer 1");
+        long cutoff = System.nanoTime();
+        assertEquals(server.evictIdleGames(cutoff - 1_000_000_000L), 0);
+        assertEquals(server.evictIdleGames(cutoff + 1), 1);
+        assertEquals(server.getGameCount(), 0);
+        assertTrue(server.handle("LEADERBOARD\tidle").startsWith("ERR"));
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        try (GreedServer quick = new GreedServer(0, 50)) {
+            quick.handle("JOIN\tgame\tplayer 1");
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (quick.getGameCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(quick.getGameCount(), 0);
+        }
+    }
+
+    @Test
+    public void testErrors() {
+        assertTrue(server.handle("FOLD\tgame").startsWith("ERR"));
+        assertTrue(server.handle("GET\tmissing\tplayer 1").startsWith("ERR"));
+        assertTrue(server.handle("JOIN\tgame").startsWith("ERR"));
+        server.handle("JOIN\tgame\tplayer 1");
+        assertTrue(server.handle("WINNERS\tgame").startsWith("ERR"));
+        assertTrue(server.handle("ROLL\tgame\tplayer 1").startsWith("ERR"));
+        server.handle("JOIN\tgame\tplayer 2");
+        assertTrue(server.handle("PUT\tgame\tplayer 3\t1\t1\t1\t1\t1").startsWith("ERR"));
+        assertTrue(server.handle("PUT\tgame\tplayer 1\t1\t1\t1\t1\t7").startsWith("ERR"));
+        assertTrue(server.handle("PUT\tgame\tplayer 1\t1\t1\tone\t1\t1").startsWith("ERR"));
+        assertTrue(server.handle("JOIN\tgame\tplayer 3").startsWith("ERR"));
+        assertEquals(server.handle("GET\tgame\tplayer 1"), "OK\t0");
+    }
+
+    @Test
+    public void testOverSocket() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            // Pipelines every request before reading any response.
+            out.write("JOIN\tgame\tplayer 1\nJOIN\tgame\tplayer 2\nPUT\tgame\tplayer 2\t1\t1\t1\t1\t1\n"
+                    + "WINNERS\tgame\nQUIT\n");
+            out.flush();
+            assertEquals(in.readLine(), "OK\t1");
+            assertEquals(in.readLine(), "OK\t2");
+            assertEquals(in.readLine(), "OK\t1200\t1200");
+            assertEquals(in.readLine(), "OK\tplayer 2");
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void testLoadGenerator() throws IOException {
+        GreedLoadGenerator.Result result = new GreedLoadGenerator(server.getPort(), 8, 200).run();
+        assertEquals(result.getRequests(), 1600);
+        assertEquals(result.getErrors(), 0);
+        assertTrue(result.getRequestsPerSecond() > 0);
+        assertTrue(result.getLatencyMicros(0.5) <= result.getLatencyMicros(0.99));
+        assertEquals(server.getGameCount(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadGeneratorTooManyRequests() {
+        new GreedLoadGenerator(server.getPort(), 65536, 65536);
+    }
+
+    @Test
+    public void testCloseWithIdleConnection() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write("JOIN\tgame\tplayer 1\n");
+            out.flush();
+            assertEquals(in.readLine(), "OK\t1");
+            long start = System.nanoTime();
+            server.close();
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadGeneratorNoConnections() {
+        new GreedLoadGenerator(server.getPort(), 0, 10);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * This program tests the methods within GreedSimulation.java.
+ */
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class GreedSimulationTest {
+
+    @Test
+    public void testRollCount() {
+        GreedSimulation.Result result = new GreedSimulation(100, 20, 1L).run();
+        assertEquals(result.getRollCount(), 2000);
+    }
+
+    @Test
+    public void testReproducibleAcrossThreads() {
+        GreedSimulation.Result single = new GreedSimulation(5000, 10, 42L, 1).run();
+        GreedSimulation.Result parallel = new GreedSimulation(5000, 10, 42L, 4).run();
+        for (int score = 0; score <= 1200; score += GreedManager.SCORE_STEP) {
+            assertEquals(single.getRollScoreCount(score), parallel.getRollScoreCount(score));
+        }
+        for (int score = 0; score <= 12000; score += GreedManager.SCORE_STEP) {
+            assertEquals(single.getFinalScoreCount(score), parallel.getFinalScoreCount(score));
+        }
+    }
+
+    @Test
+    public void testMeanRollScore() {
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        double expected = 0;
+        for (int packedRoll = 0; packedRoll < GreedManager.ROLL_COUNT; packedRoll++) {
+            GreedManager.unpack(packedRoll, diceValues);
+            expected += GreedManager.score(diceValues);
+        }
+        expected /= GreedManager.ROLL_COUNT;
+
+        GreedSimulation.Result result = new GreedSimulation(20000, 10, 7L).run();
+        assertEquals(result.getMeanRollScore(), expected, 5.0);
+        assertEquals(result.getMeanFinalScore(), expected * 10, 50.0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        GreedSimulation.Result result = new GreedSimulation(1000, 5, 3L).run();
+        assertTrue(result.getFinalScorePercentile(0) <= result.getFinalScorePercentile(0.5));
+        assertTrue(result.getFinalScorePercentile(0.5) <= result.getFinalScorePercentile(1));
+    }
+
+    @Test
+    public void testManyRounds() {
+        // A histogram spanning every possible final score would take about 190 MB for each of the parallel workers.
+        GreedSimulation.Result result = new GreedSimulation(16, 1000000, 5L, 4).run();
+        assertEquals(result.getRollCount(), 16000000L);
+        int low = result.getFinalScorePercentile(0);
+        int high = result.getFinalScorePercentile(1);
+        assertTrue(0 < low && low <= high);
+        long players = 0;
+        for (int score = low; score <= high; score += GreedManager.SCORE_STEP) {
+            players += result.getFinalScoreCount(score);
+        }
+        assertEquals(players, 16);
+        assertEquals(result.getFinalScoreCount(low - GreedManager.SCORE_STEP), 0);
+        assertEquals(result.getMeanFinalScore(), result.getMeanRollScore() * 1000000, 1000000.0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidSimulation() {
+        new GreedSimulation(0, 10, 1L);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTooManyRounds() {
+        new GreedSimulation(1, GreedSimulation.MAX_ROUNDS + 1, 1L);
+    }
+}
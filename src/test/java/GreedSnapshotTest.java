@@ -0,0 +1,116 @@
+/**
+ * This program tests the methods within GreedSnapshot.java.
+ */
+
+import org.junit.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GreedSnapshotTest {
+    public static final int PLAYER_COUNT = 5;
+
+    private Set<String> names;
+    private GreedManager game;
+    private Path path;
+    private Path logPath;
+
+    public GreedSnapshotTest() throws IOException {
+        names = new HashSet<>();
+        for (int i = 1; i <= PLAYER_COUNT; i++) {
+            names.add("player " + i);
+        }
+        game = new GreedManager(names);
+        path = Files.createTempFile("greed", ".snapshot");
+        logPath = Files.createTempFile("greed", ".log");
+        Files.delete(logPath);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        game.put("player 1", new int[] {1, 1, 1, 1, 1});
+        game.put("player 3", new int[] {1, 5, 2, 3, 4});
+        GreedSnapshot.save(path, game, 7);
+        GreedSnapshot snapshot = GreedSnapshot.load(path);
+        assertEquals(snapshot.getRound(), 7);
+        assertEquals(snapshot.getGame().getLeadboard(), game.getLeadboard());
+        assertEquals(snapshot.getGame().getPlayerNames(), names);
+        assertEquals(snapshot.getGame().getHighestScore(), 1200);
+    }
+
+    @Test
+    public void testSnapshotPlusLog() throws IOException {
+        game.put("player 2", new int[] {1, 1, 1, 1, 1});
+        GreedSnapshot.save(path, game, 1);
+        try (GreedEventLog log = new GreedEventLog(logPath, game, 0)) {
+            game.setEventLog(log);
+            game.put("player 2", new int[] {5, 2, 2, 3, 4});
+            game.put("player 4", new int[] {1, 2, 2, 3, 4});
+        }
+        GreedManager recovered = GreedSnapshot.load(path).getGame();
+        GreedEventLog.replay(logPath, recovered);
+        assertEquals(recovered.getLeadboard(), game.getLeadboard());
+    }
+
+    @Test
+    public void testManyPlayers() throws IOException {
+        Set<String> manyNames = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            manyNames.add("player " + i + " \u00e9");
+        }
+        GreedManager manyGame = new GreedManager(manyNames);
+        Random rand = new Random(11);
+        int[] diceValues = new int[GreedManager.DICE_COUNT];
+        for (int i = 0; i < 200000; i++) {
+            for (int j = 0; j < diceValues.length; j++) {
+                diceValues[j] = rand.nextInt(GreedManager.SIDES) + 1;
+            }
+            manyGame.put("player " + rand.nextInt(100000) + " \u00e9", diceValues);
+        }
+        GreedSnapshot.save(path, manyGame, 42);
+        GreedManager loaded = GreedSnapshot.load(path).getGame();
+        assertEquals(loaded.getTopPlayers(1000), manyGame.getTopPlayers(1000));
+        for (int i = 0; i < 1000; i++) {
+            String name = "player " + i + " \u00e9";
+            assertEquals(loaded.get(name), manyGame.get(name));
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testDamagedSnapshot() throws IOException {
+        GreedSnapshot.save(path, game, 1);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+        GreedSnapshot.load(path);
+    }
+
+    @Test (expected = IOException.class)
+    public void testNotASnapshot() throws IOException {
+        Files.write(path, new byte[] {1, 2, 3});
+        GreedSnapshot.load(path);
+    }
+
+    @Test
+    public void testSaveAndLoadWithRules() throws IOException {
+        GreedRules rules = new GreedRules(5, 8, new int[] {1000, 200, 300, 400, 500, 600, 700, 800},
+                new int[] {100, 0, 0, 0, 50, 0, 0, 25});
+        GreedManager eightSides = new GreedManager(names, rules);
+        eightSides.put("player 5", new int[] {8, 8, 8, 8, 2});
+        GreedSnapshot.save(path, eightSides, 3);
+        GreedManager loaded = GreedSnapshot.load(path).getGame();
+        assertEquals(loaded.getRules(), rules);
+        assertEquals(loaded.get("player 5"), 825);
+        assertEquals(loaded.getLeadboard(), eightSides.getLeadboard());
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This program tests the methods within GreedTournament.java and Strategy.java.
+ */
+
+import org.junit.*;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GreedTournamentTest {
+    private static final List<Strategy> STRATEGIES = List.of(Strategy.rollOnce(), Strategy.threshold(1000),
+            Strategy.expectedValue(GreedRules.STANDARD));
+
+    @Test
+    public void testThreshold() {
+        Strategy strategy = Strategy.threshold(300);
+        TurnState turn = new TurnState(GreedRules.STANDARD);
+        turn.start(0, 0, 1);
+        turn.addRoll(200);
+        assertTrue(strategy.rollAgain(turn));
+        turn.addRoll(100);
+        assertFalse(strategy.rollAgain(turn));
+        assertEquals(2, turn.getRollCount());
+        assertEquals("threshold 300", strategy.getName());
+    }
+
+    @Test
+    public void testRollOnce() {
+        TurnState turn = new TurnState(GreedRules.STANDARD);
+        turn.start(0, 0, 1);
+        turn.addRoll(50);
+        assertFalse(Strategy.rollOnce().rollAgain(turn));
+    }
+
+    @Test
+    public void testExpectedValue() {
+        // 600 of the 7776 standard rolls score nothing, so the expected value strategy banks at a few thousand.
+        Strategy strategy = Strategy.expectedValue(GreedRules.STANDARD);
+        GreedOdds odds = new GreedOdds();
+        assertEquals(600, odds.getRollCount(0));
+        double limit = odds.getExpectedScorePerRound() * GreedManager.ROLL_COUNT / 600;
+        TurnState turn = new TurnState(GreedRules.STANDARD);
+        turn.start(0, 0, 1);
+        turn.addRoll((int) limit / 50 * 50);
+        assertTrue(strategy.rollAgain(turn));
+        turn.addRoll(50);
+        assertFalse(strategy.rollAgain(turn));
+    }
+
+    @Test
+    public void testSameSeedAnyThreads() {
+        GreedTournament.Result single = new GreedTournament(STRATEGIES, GreedRules.STANDARD, 200, 5, 42, 1).run();
+        GreedTournament.Result parallel = new GreedTournament(STRATEGIES, GreedRules.STANDARD, 200, 5, 42, 4).run();
+        for (int i = 0; i < STRATEGIES.size(); i++) {
+            assertEquals(single.getWinRate(i), parallel.getWinRate(i), 0);
+        }
+        assertEquals(600, single.getGameCount());
+        assertEquals(400, single.getGamesPerStrategy());
+    }
+
+    @Test
+    public void testWinRates() {
+        GreedTournament.Result result = new GreedTournament(STRATEGIES, 1000, 10, 7).run();
+        double total = 0;
+        for (int i = 0; i < STRATEGIES.size(); i++) {
+            double[] interval = result.getConfidenceInterval(i);
+            assertTrue(interval[0] <= result.getWinRate(i) && result.getWinRate(i) <= interval[1]);
+            total += result.getWinRate(i);
+            for (int j = 0; j < STRATEGIES.size(); j++) {
+                if (i != j) {
+                    assertEquals(1, result.getWinRate(i, j) + result.getWinRate(j, i), 1e-9);
+                }
+            }
+        }
+        // Every game hands out exactly one point between its two players.
+        assertEquals(STRATEGIES.size() / 2.0, total, 1e-9);
+        // Pressing your luck beats banking after every roll.
+        assertTrue(result.getConfidenceInterval(2, 0)[0] > 0.9);
+        assertTrue(result.getConfidenceInterval(1, 0)[0] > 0.5);
+    }
+
+    @Test
+    public void testEvenMatchup() {
+        List<Strategy> strategies = List.of(Strategy.threshold(500), Strategy.of("also 500",
+                turn -> turn.getTurnScore() < 500));
+        GreedTournament.Result result = new GreedTournament(strategies, 2000, 10, 3).run();
+        double[] interval = result.getConfidenceInterval(0, 1);
+        assertTrue(interval[0] < 0.5 && 0.5 < interval[1]);
+    }
+
+    @Test
+    public void testConfidenceInterval() {
+        double[] interval = GreedTournament.confidenceInterval(0.5, 100);
+        assertEquals(0.404, interval[0], 0.001);
+        assertEquals(0.596, interval[1], 0.001);
+        interval = GreedTournament.confidenceInterval(1, 10);
+        assertTrue(interval[0] > 0.6 && interval[1] == 1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTooFewStrategies() {
+        new GreedTournament(List.of(Strategy.rollOnce()), 10, 10, 0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNoRounds() {
+        new GreedTournament(STRATEGIES, 10, 0, 0);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testInvalidStrategy() {
+        new GreedTournament(STRATEGIES, 1, 1, 0).run().getWinRate(STRATEGIES.size());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * This program tests the methods within LatencyHistogram.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    public LatencyHistogramTest() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMax(), 0);
+        assertEquals(histogram.getValueAtPercentile(99), 0);
+        assertEquals(histogram.getMean(), 0, 0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        for (int value = 1; value <= 60; value++) {
+            histogram.record(value);
+        }
+        assertEquals(histogram.getCount(), 60);
+        assertEquals(histogram.getMax(), 60);
+        assertEquals(histogram.getMean(), 30.5, 1e-9);
+        assertEquals(histogram.getValueAtPercentile(50), 30);
+        assertEquals(histogram.getValueAtPercentile(100), 60);
+        assertEquals(histogram.getValueAtPercentile(0), 1);
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Random rand = new Random(42);
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(rand.nextDouble() * 30);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] {10, 50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected);
+            assertTrue(actual <= expected + expected / LatencyHistogram.SUB_BUCKETS + 1);
+        }
+        assertEquals(histogram.getMax(), values[values.length - 1]);
+    }
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket == previous || bucket == previous + 1);
+            assertTrue(value <= LatencyHistogram.highestValueIn(bucket));
+            previous = bucket;
+        }
+        assertEquals(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testReset() {
+        histogram.record(1000);
+        histogram.record(-5);
+        assertEquals(histogram.getValueAtPercentile(50), 0);
+        histogram.reset();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMax(), 0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        histogram.getValueAtPercentile(101);
+    }
+}
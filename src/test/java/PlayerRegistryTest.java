@@ -0,0 +1,58 @@
+/**
+ * This program tests the methods within PlayerRegistry.java.
+ */
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class PlayerRegistryTest {
+    private PlayerRegistry registry;
+
+    public PlayerRegistryTest() {
+        registry = new PlayerRegistry();
+    }
+
+    @Test
+    public void testAcquireSharesIds() {
+        int id = registry.acquire("player 1");
+        assertEquals(registry.acquire("player 1"), id);
+        assertTrue(registry.acquire("player 2") != id);
+        assertEquals(registry.getReferenceCount(id), 2);
+        assertEquals(registry.nameOf(id), "player 1");
+        assertEquals(registry.idOf("player 1"), id);
+        assertEquals(registry.idOf("player 3"), -1);
+        assertEquals(registry.size(), 2);
+    }
+
+    @Test
+    public void testReleaseForgetsUnusedNames() {
+        int id = registry.acquire("player 1");
+        registry.acquire("player 1");
+        registry.release(id);
+        assertEquals(registry.nameOf(id), "player 1");
+        registry.release(id);
+        assertEquals(registry.idOf("player 1"), -1);
+        assertEquals(registry.size(), 0);
+        assertEquals(registry.acquire("player 2"), id);
+    }
+
+    @Test
+    public void testGrows() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(registry.acquire("player " + i), i);
+        }
+        assertEquals(registry.nameOf(999), "player 999");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testReleaseUnknownId() {
+        registry.release(0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNameOfReleasedId() {
+        registry.release(registry.acquire("player 1"));
+        registry.nameOf(0);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * This program tests the methods within RoundWindow.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class RoundWindowTest {
+    public static final int PLAYER_COUNT = 50;
+
+    private Set<String> names;
+    private GreedManager game;
+
+    public RoundWindowTest() {
+        names = new HashSet<>();
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            names.add(String.format("player %02d", i));
+        }
+        game = new GreedManager(names);
+    }
+
+    @Test
+    public void testCurrentRound() {
+        RoundWindow window = game.addWindow(1);
+        game.put("player 03", new int[] {1, 1, 1, 2, 3});
+        game.put("player 07", new int[] {5, 2, 2, 3, 4});
+        game.put("player 07", new int[] {5, 2, 2, 3, 4});
+        assertEquals(window.get("player 03"), 1000);
+        assertEquals(window.get("player 07"), 100);
+        assertEquals(window.getTop(2), Arrays.asList(new LeaderboardEntry(1, "player 03", 1000),
+                new LeaderboardEntry(2, "player 07", 100)));
+
+        game.endRound();
+        assertEquals(window.getRoundCount(), 1);
+        assertEquals(window.get("player 03"), 0);
+        assertEquals(window.getRank("player 00"), 1);
+        game.put("player 07", new int[] {1, 2, 2, 3, 4});
+        assertEquals(window.getTopPlayers(1), Arrays.asList("player 07"));
+        assertEquals(game.get("player 07"), 200);
+        assertEquals(game.getTopPlayers(1), Arrays.asList("player 03"));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        int rounds = 4;
+        RoundWindow window = game.addWindow(rounds);
+        RoundWindow currentRound = game.addWindow(1);
+        List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted);
+        Deque<Map<String, Integer>> history = new ArrayDeque<>();
+        Random rand = new Random(18);
+        int[] roll = new int[GreedManager.DICE_COUNT];
+        for (int round = 0; round < 20; round++) {
+            Map<String, Integer> scored = new HashMap<>();
+            // Only some players roll each round and some roll more than once.
+            for (int i = 0; i < PLAYER_COUNT; i++) {
+                String name = sorted.get(rand.nextInt(PLAYER_COUNT));
+                for (int d = 0; d < roll.length; d++) {
+                    roll[d] = rand.nextInt(GreedManager.SIDES) + 1;
+                }
+                game.put(name, roll);
+                scored.merge(name, GreedManager.score(roll), Integer::sum);
+            }
+            history.addLast(scored);
+            if (history.size() > rounds) {
+                history.removeFirst();
+            }
+            assertMatches(window, sorted, history);
+            assertMatches(currentRound, sorted, Collections.singletonList(scored));
+            game.endRound();
+        }
+        assertEquals(window.getRoundCount(), 20);
+
+        game.resetGame();
+        assertEquals(window.getRoundCount(), 0);
+        for (String name : sorted) {
+            assertEquals(window.get(name), 0);
+        }
+        assertEquals(window.getTopPlayers(3), sorted.subList(0, 3));
+    }
+
+    @Test
+    public void testUnknownPlayer() {
+        RoundWindow window = game.addWindow(3);
+        assertEquals(window.get("nobody"), -1);
+        assertEquals(window.getRank("nobody"), -1);
+        try {
+            game.addWindow(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // A window needs at least one round.
+        }
+    }
+
+    /**
+     * Checks the window against the sum of the given rounds, ranked by score and then by name.
+     */
+    private static void assertMatches(RoundWindow window, List<String> sorted,
+                                      Collection<Map<String, Integer>> rounds) {
+        Map<String, Integer> expected = new HashMap<>();
+        for (String name : sorted) {
+            expected.put(name, 0);
+        }
+        for (Map<String, Integer> round : rounds) {
+            round.forEach((name, score) -> expected.merge(name, score, Integer::sum));
+        }
+        List<String> order = new ArrayList<>(sorted);
+        order.sort((a, b) -> expected.get(a).equals(expected.get(b)) ? a.compareTo(b)
+                : Integer.compare(expected.get(b), expected.get(a)));
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(window.get(order.get(i)), (int) expected.get(order.get(i)));
+            assertEquals(window.getRank(order.get(i)), i + 1);
+        }
+        assertEquals(window.getTopPlayers(10), order.subList(0, 10));
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * This program tests the methods within ScoreBuckets.java.
+ */
+
+import org.junit.*;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ScoreBucketsTest {
+    public static final int PLAYER_COUNT = 100;
+
+    private ScoreBuckets buckets;
+
+    public ScoreBucketsTest() {
+        buckets = new ScoreBuckets(PLAYER_COUNT, 50);
+    }
+
+    @Test
+    public void testInitial() {
+        assertEquals(buckets.getHighestScore(), 0);
+        assertEquals(buckets.countAtLeast(0), PLAYER_COUNT);
+        assertEquals(buckets.countAtLeast(50), 0);
+        assertEquals(buckets.countWithScore(0), PLAYER_COUNT);
+    }
+
+    @Test
+    public void testMove() {
+        buckets.move(0, 1200);
+        buckets.move(0, 100);
+        buckets.move(100, 250);
+        assertEquals(buckets.getHighestScore(), 1200);
+        assertEquals(buckets.countAtLeast(250), 2);
+        assertEquals(buckets.countAtLeast(251), 1);
+        assertEquals(buckets.countWithScore(250), 1);
+        assertEquals(buckets.countWithScore(100), 0);
+        assertEquals(buckets.countWithScore(0), PLAYER_COUNT - 2);
+    }
+
+    @Test
+    public void testMatchesScores() {
+        Random rand = new Random(7);
+        int[] scores = new int[PLAYER_COUNT];
+        for (int i = 0; i < 20000; i++) {
+            int player = rand.nextInt(PLAYER_COUNT);
+            int newScore = scores[player] + 50 * rand.nextInt(25);
+            buckets.move(scores[player], newScore);
+            scores[player] = newScore;
+        }
+        int highestScore = 0;
+        for (int score : scores) {
+            highestScore = Math.max(highestScore, score);
+        }
+        assertEquals(buckets.getHighestScore(), highestScore);
+        for (int threshold = 0; threshold <= highestScore + 100; threshold += 25) {
+            int expected = 0;
+            for (int score : scores) {
+                if (score >= threshold) {
+                    expected++;
+                }
+            }
+            assertEquals(buckets.countAtLeast(threshold), expected);
+        }
+    }
+
+    @Test
+    public void testReset() {
+        buckets.move(0, 5000);
+        buckets.reset();
+        assertEquals(buckets.getHighestScore(), 0);
+        assertEquals(buckets.countAtLeast(50), 0);
+        assertEquals(buckets.countAtLeast(0), PLAYER_COUNT);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidScore() {
+        buckets.move(0, 75);
+    }
+
+    @Test
+    public void testLargeScoresWithStepOfOne() {
+        ScoreBuckets steps = new ScoreBuckets(3, 1);
+        steps.move(0, 1000000);
+        steps.move(0, 999999);
+        steps.move(1000000, 1000001);
+        assertEquals(steps.getHighestScore(), 1000001);
+        assertEquals(steps.countAtLeast(999999), 2);
+        assertEquals(steps.countAtLeast(1000000), 1);
+        assertEquals(steps.countWithScore(0), 1);
+        steps.move(1000001, 5);
+        assertEquals(steps.getHighestScore(), 999999);
+        assertEquals(steps.countWithScore(5), 1);
+    }
+
+    @Test
+    public void testRebuild() {
+        buckets.rebuild(new int[PLAYER_COUNT]);
+        int[] scores = new int[PLAYER_COUNT];
+        scores[3] = 1000000;
+        scores[7] = 50;
+        buckets.rebuild(scores);
+        assertEquals(buckets.getHighestScore(), 1000000);
+        assertEquals(buckets.countAtLeast(50), 2);
+        assertEquals(buckets.countAtLeast(100), 1);
+        buckets.move(1000000, 1000050);
+        buckets.move(1000050, 0);
+        assertEquals(buckets.getHighestScore(), 50);
+    }
+
+    @Test
+    public void testCanHold() {
+        assertTrue(buckets.canHold(0));
+        assertTrue(buckets.canHold(Integer.MAX_VALUE / 50 * 50));
+        assertFalse(buckets.canHold(Integer.MAX_VALUE / 50 * 50 + 50L));
+        assertFalse(buckets.canHold(-50));
+        assertFalse(buckets.canHold(75));
+        assertFalse(new ScoreBuckets(1, 1000).canHold(Integer.MAX_VALUE + 1000L));
+    }
+
+    @Test
+    public void testRejectedMoveChangesNothing() {
+        buckets.move(0, 100);
+        try {
+            buckets.move(100, Integer.MAX_VALUE);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(buckets.getHighestScore(), 100);
+            assertEquals(buckets.countAtLeast(100), 1);
+        }
+    }
+
+    @Test
+    public void testScoresUpToLargestInt() {
+        int highestScore = Integer.MAX_VALUE / 50 * 50;
+        buckets.move(0, highestScore);
+        buckets.move(0, highestScore - 50);
+        buckets.move(0, 1000000000);
+        assertEquals(buckets.getHighestScore(), highestScore);
+        assertEquals(buckets.countWithScore(highestScore), 1);
+        assertEquals(buckets.countAtLeast(1000000000), 3);
+        assertEquals(buckets.countAtLeast(1000000001), 2);
+        buckets.move(highestScore, 0);
+        assertEquals(buckets.getHighestScore(), highestScore - 50);
+        assertEquals(buckets.countWithScore(0), PLAYER_COUNT - 2);
+    }
+
+    @Test
+    public void testEveryPlayerInTheirOwnBucket() {
+        Random rand = new Random(11);
+        int[] scores = new int[PLAYER_COUNT];
+        for (int i = 0; i < 20000; i++) {
+            int player = rand.nextInt(PLAYER_COUNT);
+            int newScore = 50 * rand.nextInt(Integer.MAX_VALUE / 50);
+            buckets.move(scores[player], newScore);
+            scores[player] = newScore;
+            assertEquals(buckets.countWithScore(newScore), countWithScore(scores, newScore));
+        }
+        int highestScore = 0;
+        for (int score : scores) {
+            highestScore = Math.max(highestScore, score);
+            assertEquals(buckets.countWithScore(score), countWithScore(scores, score));
+        }
+        assertEquals(buckets.getHighestScore(), highestScore);
+    }
+
+    private static int countWithScore(int[] scores, int score) {
+        int count = 0;
+        for (int s : scores) {
+            if (s == score) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
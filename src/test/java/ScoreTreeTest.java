@@ -0,0 +1,165 @@
+/**
+ * This program tests the methods within ScoreTree.java.
+ */
+
+import org.junit.*;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ScoreTreeTest {
+    public static final int CAPACITY = 500;
+
+    private int[] scores;
+    private ScoreTree tree;
+
+    public ScoreTreeTest() {
+        scores = new int[CAPACITY];
+        tree = new ScoreTree(scores);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(tree.size(), 0);
+        assertEquals(tree.ids(0, 10).length, 0);
+        assertEquals(tree.rankOf(0), -1);
+    }
+
+    @Test
+    public void testOrder() {
+        scores[0] = 100;
+        scores[1] = 300;
+        scores[2] = 100;
+        scores[3] = 0;
+        for (int id = 3; id >= 0; id--) {
+            tree.add(id);
+        }
+        assertArrayEquals(tree.ids(0, 4), new int[] {1, 0, 2, 3});
+        assertEquals(tree.rankOf(2), 2);
+        assertEquals(tree.get(0), 1);
+        assertEquals(tree.countAtLeast(100), 3);
+        assertEquals(tree.countAtLeast(301), 0);
+    }
+
+    @Test
+    public void testCountBefore() {
+        scores[0] = 100;
+        scores[1] = 300;
+        scores[2] = 100;
+        scores[3] = 0;
+        for (int id = 0; id < 4; id++) {
+            tree.add(id);
+        }
+        assertEquals(tree.countBefore(300, 1), 0);
+        assertEquals(tree.countBefore(100, 0), 1);
+        assertEquals(tree.countBefore(100, 1), 2);
+        assertEquals(tree.countBefore(100, 2), 2);
+        assertEquals(tree.countBefore(100, 3), 3);
+        assertEquals(tree.countBefore(0, 3), 3);
+        assertEquals(tree.countBefore(0, 4), 4);
+        assertEquals(tree.countBefore(1000, 0), 0);
+    }
+
+    @Test
+    public void testUpdateScore() {
+        for (int id = 0; id < 10; id++) {
+            tree.add(id);
+        }
+        tree.remove(7);
+        scores[7] += 50;
+        tree.add(7);
+        assertEquals(tree.get(0), 7);
+        assertEquals(tree.rankOf(0), 1);
+        assertTrue(tree.remove(7));
+        assertFalse(tree.remove(7));
+        assertEquals(tree.size(), 9);
+    }
+
+    @Test
+    public void testCopyIds() {
+        for (int id = 0; id < 100; id++) {
+            tree.add(id);
+        }
+        int[] ids = new int[5];
+        assertEquals(tree.copyIds(95, 10, ids), 5);
+        assertArrayEquals(ids, new int[] {95, 96, 97, 98, 99});
+        assertEquals(tree.copyIds(100, 10, ids), 0);
+        assertArrayEquals(tree.ids(10, 3), new int[] {10, 11, 12});
+    }
+
+    @Test
+    public void testMatchesSort() {
+        Random rand = new Random(42);
+        for (int id = 0; id < CAPACITY; id++) {
+            tree.add(id);
+        }
+        for (int i = 0; i < 5000; i++) {
+            int id = rand.nextInt(CAPACITY);
+            tree.remove(id);
+            scores[id] += 50 * rand.nextInt(10);
+            tree.add(id);
+        }
+        Integer[] expected = new Integer[CAPACITY];
+        for (int id = 0; id < CAPACITY; id++) {
+            expected[id] = id;
+        }
+        Arrays.sort(expected, (a, b) -> scores[a] != scores[b] ? scores[b] - scores[a] : a - b);
+        int[] actual = tree.ids(0, CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(actual[i], (int) expected[i]);
+            assertEquals(tree.rankOf(expected[i]), i);
+        }
+    }
+
+    @Test
+    public void testClear() {
+        tree.add(1);
+        tree.add(2);
+        tree.clear();
+        assertEquals(tree.size(), 0);
+        assertFalse(tree.contains(1));
+    }
+
+    @Test
+    public void testBuild() {
+        Random rand = new Random(5);
+        Integer[] order = new Integer[CAPACITY];
+        for (int id = 0; id < CAPACITY; id++) {
+            scores[id] = 50 * rand.nextInt(20);
+            order[id] = id;
+        }
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? scores[b] - scores[a] : a - b);
+        int[] orderedIds = new int[CAPACITY];
+        for (int i = 0; i < CAPACITY; i++) {
+            orderedIds[i] = order[i];
+        }
+        tree.build(orderedIds);
+        assertArrayEquals(tree.ids(0, CAPACITY), orderedIds);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(tree.rankOf(orderedIds[i]), i);
+        }
+        tree.remove(orderedIds[10]);
+        scores[orderedIds[10]] += 10000;
+        tree.add(orderedIds[10]);
+        assertEquals(tree.get(0), orderedIds[10]);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBuildUnordered() {
+        scores[1] = 50;
+        tree.build(new int[] {0, 1});
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDuplicate() {
+        tree.add(1);
+        tree.add(1);
+    }
+
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        tree.add(1);
+        tree.get(1);
+    }
+}
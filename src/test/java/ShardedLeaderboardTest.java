@@ -0,0 +1,152 @@
+/**
+ * This program tests the methods within ShardedLeaderboard.java, LocalShard.java, ShardServer.java and
+ * RemoteShard.java.
+ */
+
+import org.junit.*;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ShardedLeaderboardTest {
+    public static final int PLAYER_COUNT = 300;
+    public static final int SHARD_COUNT = 4;
+
+    private Set<String> names;
+    private GreedManager game; // The same game without shards, to compare against.
+
+    public ShardedLeaderboardTest() {
+        names = new HashSet<>();
+        for (int i = 0; i < PLAYER_COUNT; i++) {
+            names.add("player " + i);
+        }
+        game = new GreedManager(names);
+    }
+
+    @Test
+    public void testPartition() {
+        List<Set<String>> partitions = ShardedLeaderboard.partition(names, SHARD_COUNT);
+        assertEquals(partitions.size(), SHARD_COUNT);
+        Set<String> all = new HashSet<>();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            for (String name : partitions.get(shard)) {
+                assertEquals(ShardedLeaderboard.shardOf(name, SHARD_COUNT), shard);
+                assertTrue(all.add(name));
+            }
+        }
+        assertEquals(all, names);
+    }
+
+    @Test
+    public void testLocalShards() {
+        ShardedLeaderboard leaderboard = ShardedLeaderboard.local(names, SHARD_COUNT, GreedRules.STANDARD);
+        assertEquals(leaderboard.getShardCount(), SHARD_COUNT);
+        assertEquals(leaderboard.getPlayerCount(), PLAYER_COUNT);
+        playRounds(leaderboard, 5);
+        assertSameAsGame(leaderboard);
+    }
+
+    @Test
+    public void testShardsWithFewPlayers() throws IOException {
+        Set<String> few = new HashSet<>(List.of("player 1", "player 2", "player 3"));
+        ShardedLeaderboard leaderboard = ShardedLeaderboard.local(few, 8, GreedRules.STANDARD);
+        assertEquals(leaderboard.getPlayerCount(), 3);
+        leaderboard.put("player 2", new int[] {1, 1, 1, 2, 3});
+        leaderboard.put("player 3", new int[] {5, 2, 2, 3, 4});
+        assertEquals(leaderboard.getTopPlayers(3), List.of("player 2", "player 3", "player 1"));
+        assertEquals(leaderboard.getRank("player 1"), 3);
+
+        try (ShardServer server = new ShardServer(new LocalShard(new HashSet<>(), GreedRules.STANDARD), 0);
+             RemoteShard empty = new RemoteShard(server.getPort())) {
+            assertEquals(empty.getPlayerCount(), 0);
+            assertEquals(empty.get("player 1"), -1);
+            assertTrue(empty.getLeaderboardPage(0, 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void testRemoteShards() throws IOException {
+        List<ShardServer> servers = new ArrayList<>();
+        List<RemoteShard> shards = new ArrayList<>();
+        try {
+            for (Set<String> shardNames : ShardedLeaderboard.partition(names, SHARD_COUNT)) {
+                ShardServer server = new ShardServer(new LocalShard(shardNames, GreedRules.STANDARD), 0);
+                servers.add(server);
+                shards.add(new RemoteShard(server.getPort()));
+            }
+            ShardedLeaderboard leaderboard = new ShardedLeaderboard(shards);
+            assertEquals(leaderboard.getPlayerCount(), PLAYER_COUNT);
+            playRounds(leaderboard, 3);
+            assertSameAsGame(leaderboard);
+
+            try {
+                leaderboard.put("player 1", new int[] {1, 2, 3});
+                fail();
+            } catch (IllegalArgumentException e) {
+                // The shard rejected the roll.
+            }
+        } finally {
+            for (RemoteShard shard : shards) {
+                shard.close();
+            }
+            for (ShardServer server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    @Test
+    public void testTopAcrossPages() {
+        ShardedLeaderboard leaderboard = ShardedLeaderboard.local(names, 2, GreedRules.STANDARD);
+        // Every player on one shard beats every player on the other, so the merge has to read several pages.
+        for (String name : names) {
+            if (ShardedLeaderboard.shardOf(name, 2) == 0) {
+                int[] roll = {1, 1, 1, 1, 1};
+                leaderboard.put(name, roll);
+                game.put(name, roll);
+            }
+        }
+        assertEquals(leaderboard.getTop(PLAYER_COUNT), game.getLeaderboardPage(0, PLAYER_COUNT));
+        assertEquals(leaderboard.getTop(PLAYER_COUNT + 10).size(), PLAYER_COUNT);
+    }
+
+    @Test
+    public void testUnknownPlayer() {
+        ShardedLeaderboard leaderboard = ShardedLeaderboard.local(names, SHARD_COUNT, GreedRules.STANDARD);
+        assertEquals(leaderboard.get("nobody"), -1);
+        assertEquals(leaderboard.getRank("nobody"), -1);
+        assertTrue(leaderboard.getTop(0).isEmpty());
+    }
+
+    /**
+     * Rolls random dice for every player the given number of times, on both the sharded leaderboard and the game.
+     */
+    private void playRounds(ShardedLeaderboard leaderboard, int rounds) {
+        Random rand = new Random(17);
+        int[] roll = new int[GreedManager.DICE_COUNT];
+        for (int round = 0; round < rounds; round++) {
+            for (String name : names) {
+                for (int i = 0; i < roll.length; i++) {
+                    roll[i] = rand.nextInt(GreedManager.SIDES) + 1;
+                }
+                leaderboard.put(name, roll);
+                game.put(name, roll);
+            }
+        }
+    }
+
+    /**
+     * Checks that the sharded leaderboard ranks every player the same way as the game.
+     */
+    private void assertSameAsGame(ShardedLeaderboard leaderboard) {
+        for (String name : names) {
+            assertEquals(leaderboard.get(name), game.get(name));
+            assertEquals(leaderboard.getRank(name), game.getRank(name));
+        }
+        assertEquals(leaderboard.getTop(10), game.getLeaderboardPage(0, 10));
+        assertEquals(leaderboard.getTop(PLAYER_COUNT), game.getLeaderboardPage(0, PLAYER_COUNT));
+        assertEquals(leaderboard.getTopPlayers(25), game.getTopPlayers(25));
+    }
+}